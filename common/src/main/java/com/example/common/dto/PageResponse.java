@@ -23,4 +23,5 @@ public class PageResponse<T> implements Serializable {
     private boolean first;
     private boolean last;
     private boolean empty;
+    private String nextCursor;
 }
\ No newline at end of file
@@ -1,7 +1,12 @@
 package com.example.orderservice.config;
 
+import com.example.orderservice.service.AdmissionController;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
@@ -12,13 +17,30 @@ import java.util.concurrent.Executor;
 public class AsyncConfig {
 
     @Bean(name = "orderTaskExecutor")
-    public Executor orderTaskExecutor() {
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public Executor orderTaskExecutor(AdmissionController admissionController) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(5);
         executor.setMaxPoolSize(10);
         executor.setQueueCapacity(100);
         executor.setThreadNamePrefix("order-async-");
+        executor.setTaskDecorator(admissionController);
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+
+    // With spring.threads.virtual.enabled on Java 21+, each task gets its own virtual thread;
+    // blocking on JDBC or Kafka parks it instead of holding one of a fixed number of workers
+    @Bean(name = "orderTaskExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor virtualOrderTaskExecutor(
+            AdmissionController admissionController,
+            @Value("${order.async.virtual.concurrency-limit:-1}") int concurrencyLimit) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("order-async-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        executor.setTaskTerminationTimeout(10_000);
+        executor.setTaskDecorator(admissionController);
+        return executor;
+    }
+}
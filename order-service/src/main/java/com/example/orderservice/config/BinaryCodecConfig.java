@@ -0,0 +1,79 @@
+package com.example.orderservice.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CBOR, Smile and MessagePack for clients that ask for them in {@code Accept}; JSON stays the
+ * default. Each format gets one mapper, built at startup from the application's Jackson settings
+ * and shared by all requests. Dates are written as arrays of numbers instead of ISO strings, which
+ * is smaller and skips text formatting.
+ */
+@Configuration
+public class BinaryCodecConfig implements WebMvcConfigurer {
+
+    // In converter order, so JSON wins when the client accepts anything
+    private static final List<MediaType> RESPONSE_FORMATS = List.of(
+            MediaType.APPLICATION_JSON,
+            MediaType.APPLICATION_CBOR,
+            new MediaType("application", "x-jackson-smile"),
+            MessagePackHttpMessageConverter.APPLICATION_MSGPACK,
+            MessagePackHttpMessageConverter.APPLICATION_X_MSGPACK);
+
+    private final List<HttpMessageConverter<?>> binaryConverters;
+
+    public BinaryCodecConfig(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        this.binaryConverters = List.of(
+                new MappingJackson2CborHttpMessageConverter(binaryMapper(objectMapperBuilder, new CBORFactory())),
+                new MappingJackson2SmileHttpMessageConverter(binaryMapper(objectMapperBuilder, new SmileFactory())),
+                new MessagePackHttpMessageConverter(binaryMapper(objectMapperBuilder, new MessagePackFactory())));
+    }
+
+    public static ObjectMapper binaryMapper(Jackson2ObjectMapperBuilder objectMapperBuilder, JsonFactory factory) {
+        return objectMapperBuilder.factory(factory)
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    /**
+     * The format a response body is written in for these acceptable types, chosen the way Spring
+     * MVC picks a converter: the most specific, highest-quality match, and JSON for wildcards or
+     * when nothing matches. Lets validators such as ETags tell the encodings apart.
+     */
+    public static MediaType responseFormat(List<MediaType> acceptable) {
+        List<MediaType> matches = new ArrayList<>();
+        for (MediaType accepted : acceptable) {
+            for (MediaType format : RESPONSE_FORMATS) {
+                if (accepted.isCompatibleWith(format)) {
+                    matches.add(format.copyQualityValue(accepted));
+                }
+            }
+        }
+        MimeTypeUtils.sortBySpecificity(matches);
+        return matches.isEmpty() ? MediaType.APPLICATION_JSON : matches.get(0).removeQualityValue();
+    }
+
+    // Replaces Spring's own CBOR and Smile converters, whose mappers ignore spring.jackson settings.
+    // Added after the JSON converter, so a request that accepts anything still gets JSON
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        converters.addAll(binaryConverters);
+    }
+}
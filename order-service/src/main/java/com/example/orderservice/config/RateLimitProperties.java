@@ -0,0 +1,25 @@
+package com.example.orderservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Per-customer order creation limits. Each tier is a token bucket: {@code burst} orders at once,
+ * refilled at {@code refillPerSecond}. Customers listed under {@code customers} get that tier, all
+ * others get {@code defaultTier}.
+ */
+@ConfigurationProperties(prefix = "order.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("standard") String defaultTier,
+        @DefaultValue Map<String, Tier> tiers,
+        @DefaultValue Map<String, String> customers,
+        @DefaultValue("64") int stripes,
+        @DefaultValue("1000000") int maxBuckets,
+        @DefaultValue("1m") Duration idleTimeout) {
+
+    public record Tier(int burst, double refillPerSecond) {}
+}
@@ -0,0 +1,154 @@
+package com.example.orderservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands out replica connections to read-only transactions and primary connections to everything
+ * else, unless {@link ReplicaContext} says otherwise. A read falls back to the primary when the
+ * replica pool has no idle connection left, or when waiting for one times out, instead of queueing
+ * behind other reads. Statement execution time is recorded per pool.
+ *
+ * <p>Only correct behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * a transaction is marked read-only after it has begun, so the physical connection must not be
+ * taken before the first statement.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    private final HikariDataSource primary;
+    private final HikariDataSource replica;
+    private final Timer primaryQueryTimer;
+    private final Timer replicaQueryTimer;
+    private final Counter saturatedCounter;
+    private final Counter timeoutCounter;
+
+    public ReadWriteRoutingDataSource(HikariDataSource primary, HikariDataSource replica, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.primaryQueryTimer = queryTimer(meterRegistry, "primary");
+        this.replicaQueryTimer = queryTimer(meterRegistry, "replica");
+        this.saturatedCounter = fallbackCounter(meterRegistry, "saturated");
+        this.timeoutCounter = fallbackCounter(meterRegistry, "timeout");
+    }
+
+    public HikariDataSource getPrimary() {
+        return primary;
+    }
+
+    public HikariDataSource getReplica() {
+        return replica;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (route() == Route.REPLICA) {
+            if (isSaturated(replica)) {
+                saturatedCounter.increment();
+            } else {
+                try {
+                    return timed(replica.getConnection(), replicaQueryTimer);
+                } catch (SQLTransientConnectionException e) {
+                    timeoutCounter.increment();
+                    log.debug("Replica pool exhausted, reading from primary: {}", e.getMessage());
+                }
+            }
+        }
+        return timed(primary.getConnection(), primaryQueryTimer);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("Pools are configured with their own credentials");
+    }
+
+    @Override
+    public void close() {
+        replica.close();
+        primary.close();
+    }
+
+    private static Route route() {
+        Route forced = ReplicaContext.current();
+        if (forced != null) {
+            return forced;
+        }
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Route.REPLICA : Route.PRIMARY;
+    }
+
+    // A pool that has not started yet is not saturated; getConnection starts it
+    private static boolean isSaturated(HikariDataSource pool) {
+        HikariPoolMXBean stats = pool.getHikariPoolMXBean();
+        return stats != null && stats.getIdleConnections() == 0
+                && (stats.getTotalConnections() >= pool.getMaximumPoolSize() || stats.getThreadsAwaitingConnection() > 0);
+    }
+
+    private static Connection timed(Connection connection, Timer timer) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("equals")) {
+                        return proxy == args[0];
+                    }
+                    Object result = invoke(connection, method, args);
+                    return result instanceof Statement statement ? timed(statement, method.getReturnType(), timer) : result;
+                });
+    }
+
+    // Wraps as the declared type, so prepared and callable statements keep their interface
+    private static Object timed(Statement statement, Class<?> type, Timer timer) {
+        return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("equals")) {
+                        return proxy == args[0];
+                    }
+                    if (!method.getName().startsWith("execute")) {
+                        return invoke(statement, method, args);
+                    }
+                    long start = System.nanoTime();
+                    try {
+                        return invoke(statement, method, args);
+                    } finally {
+                        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    }
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Timer queryTimer(MeterRegistry meterRegistry, String pool) {
+        return Timer.builder("order.datasource.query")
+                .description("JDBC statement execution time, by pool")
+                .tag("pool", pool)
+                .register(meterRegistry);
+    }
+
+    private static Counter fallbackCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("order.datasource.replica.fallback")
+                .description("Read-only transactions sent to the primary because the replica pool was full, by reason")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
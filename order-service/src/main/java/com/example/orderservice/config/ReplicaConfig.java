@@ -0,0 +1,86 @@
+package com.example.orderservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Replaces the single datasource with a primary and a replica pool behind a
+ * {@link ReadWriteRoutingDataSource}. Transactions declare themselves read-only as before;
+ * nothing else changes for repositories and services.
+ */
+@Configuration
+@ConditionalOnProperty(name = "order.replica.enabled", havingValue = "true")
+@Slf4j
+public class ReplicaConfig {
+
+    @Bean(destroyMethod = "close")
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(ReplicaProperties properties, Environment environment,
+                                                                 MeterRegistry meterRegistry) {
+        // Each shard would need replicas of its own
+        if (environment.getProperty("order.sharding.enabled", Boolean.class, false)) {
+            throw new IllegalStateException("order.replica.enabled is not supported with order.sharding.enabled");
+        }
+        if (properties.primary().url() == null || properties.replica().url() == null) {
+            throw new IllegalStateException("order.replica.enabled needs order.replica.primary.url and order.replica.replica.url");
+        }
+        log.info("Read-only transactions routed to replica {}", properties.replica().url());
+        return new ReadWriteRoutingDataSource(pool("order-primary", properties.primary(), meterRegistry),
+                pool("order-replica", properties.replica(), meterRegistry), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    // Runs as the entity manager factory is handed out, so no read sees a replica without its schema
+    @Bean
+    public static BeanPostProcessor replicaSchemaInitializer(Environment environment) {
+        ReplicaProperties properties = Binder.get(environment)
+                .bindOrCreate("order.replica", ReplicaProperties.class);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (properties.initializeSchema() && bean instanceof EntityManagerFactory entityManagerFactory) {
+                    ReadWriteRoutingDataSource.Route previous = ReplicaContext.set(ReadWriteRoutingDataSource.Route.REPLICA);
+                    try {
+                        entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager().exportMappedObjects(true);
+                    } finally {
+                        ReplicaContext.restore(previous);
+                    }
+                    log.info("Initialized schema on replica");
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static HikariDataSource pool(String name, ReplicaProperties.Pool pool, MeterRegistry meterRegistry) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(pool.url());
+        dataSource.setUsername(pool.username());
+        dataSource.setPassword(pool.password());
+        dataSource.setMaximumPoolSize(pool.maximumPoolSize());
+        dataSource.setMinimumIdle(Math.min(pool.minimumIdle(), pool.maximumPoolSize()));
+        dataSource.setConnectionTimeout(pool.connectionTimeout().toMillis());
+        // Pool size, wait and usage metrics, tagged with the pool name
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return dataSource;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.orderservice.config;
+
+/**
+ * Overrides where the current thread's next connection is taken from. Unset means read-only
+ * transactions go to the replica and everything else to the primary.
+ */
+public final class ReplicaContext {
+
+    private static final ThreadLocal<ReadWriteRoutingDataSource.Route> CURRENT = new ThreadLocal<>();
+
+    private ReplicaContext() {
+    }
+
+    public static ReadWriteRoutingDataSource.Route current() {
+        return CURRENT.get();
+    }
+
+    // Returns the previous value, to be handed back to restore
+    public static ReadWriteRoutingDataSource.Route set(ReadWriteRoutingDataSource.Route route) {
+        ReadWriteRoutingDataSource.Route previous = CURRENT.get();
+        CURRENT.set(route);
+        return previous;
+    }
+
+    public static void restore(ReadWriteRoutingDataSource.Route previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.orderservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Read-only transactions served from a replica pool. Each pool is sized on its own. For
+ * {@code readYourWritesWindow} after a customer creates an order, that customer's reads and reads
+ * of that order stay on the primary, so replication lag cannot hide the write; zero turns this off.
+ * {@code initializeSchema} creates the schema on the replica; meant for in-memory databases that
+ * do not replicate.
+ */
+@ConfigurationProperties(prefix = "order.replica")
+public record ReplicaProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue Pool primary,
+        @DefaultValue Pool replica,
+        @DefaultValue("2s") Duration readYourWritesWindow,
+        @DefaultValue("100000") long readYourWritesMaxEntries,
+        @DefaultValue("false") boolean initializeSchema) {
+
+    public record Pool(
+            String url,
+            String username,
+            String password,
+            @DefaultValue("10") int maximumPoolSize,
+            @DefaultValue("10") int minimumIdle,
+            @DefaultValue("30s") Duration connectionTimeout) {}
+}
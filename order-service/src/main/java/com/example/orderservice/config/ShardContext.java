@@ -0,0 +1,32 @@
+package com.example.orderservice.config;
+
+/**
+ * The shard the current thread's next connection is taken from. Unset means the first shard,
+ * which also holds the tables that are not split by customer.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    // Returns the previous value, to be handed back to restore
+    public static Integer set(int shard) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        return previous;
+    }
+
+    public static void restore(Integer previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.orderservice.config;
+
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.InitialValueAwareOptimizer;
+import org.hibernate.id.enhanced.Optimizer;
+import org.hibernate.id.enhanced.PooledOptimizer;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pooled id optimizer with one pool per shard. Hibernate keeps a single optimizer per sequence
+ * for the whole session factory, so with the stock one a block of ids read from one shard's
+ * sequence would be handed out on every shard. Registered as
+ * {@code hibernate.id.optimizer.pooled.preferred} by {@link ShardingConfig}.
+ */
+public class ShardedPooledOptimizer implements Optimizer, InitialValueAwareOptimizer {
+
+    private final Class<?> returnClass;
+    private final int incrementSize;
+    private final Map<Integer, PooledOptimizer> shards = new ConcurrentHashMap<>();
+    private volatile long initialValue = -1;
+
+    public ShardedPooledOptimizer(Class<?> returnClass, int incrementSize) {
+        this.returnClass = returnClass;
+        this.incrementSize = incrementSize;
+    }
+
+    @Override
+    public Serializable generate(AccessCallback callback) {
+        return currentShard().generate(callback);
+    }
+
+    @Override
+    public IntegralDataTypeHolder getLastSourceValue() {
+        return currentShard().getLastSourceValue();
+    }
+
+    @Override
+    public int getIncrementSize() {
+        return incrementSize;
+    }
+
+    @Override
+    public boolean applyIncrementSizeToSourceValues() {
+        return true;
+    }
+
+    @Override
+    public void injectInitialValue(long initialValue) {
+        this.initialValue = initialValue;
+    }
+
+    private PooledOptimizer currentShard() {
+        Integer shard = ShardContext.current();
+        return shards.computeIfAbsent(shard != null ? shard : 0, key -> {
+            PooledOptimizer optimizer = new PooledOptimizer(returnClass, incrementSize);
+            optimizer.injectInitialValue(initialValue);
+            return optimizer;
+        });
+    }
+}
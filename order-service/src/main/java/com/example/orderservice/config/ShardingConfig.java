@@ -0,0 +1,110 @@
+package com.example.orderservice.config;
+
+import com.example.orderservice.service.ShardRouter;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single datasource with one pool per shard behind a {@link ShardRoutingDataSource}.
+ * JPA, repositories and transactions are unchanged; {@link ShardRouter} decides per transaction
+ * which shard it runs on.
+ */
+@Configuration
+@ConditionalOnProperty(name = "order.sharding.enabled", havingValue = "true")
+@Slf4j
+public class ShardingConfig {
+
+    // These read or join order tables as if they were all in one database
+    private static final List<String> UNSHARDED_FEATURES = List.of(
+            "order.inventory.enabled", "order.changes.enabled", "order.export.enabled");
+
+    @Bean(destroyMethod = "close")
+    public ShardRoutingDataSource shardRoutingDataSource(ShardingProperties properties, Environment environment) {
+        if (properties.shards().isEmpty()) {
+            throw new IllegalStateException("order.sharding.enabled needs at least one entry in order.sharding.shards");
+        }
+        for (String feature : UNSHARDED_FEATURES) {
+            if (environment.getProperty(feature, Boolean.class, false)) {
+                throw new IllegalStateException(feature + " is not supported with order.sharding.enabled");
+            }
+        }
+        List<HikariDataSource> shards = new ArrayList<>();
+        for (ShardingProperties.Shard shard : properties.shards()) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("shard-" + shard.name());
+            dataSource.setJdbcUrl(shard.url());
+            dataSource.setUsername(shard.username());
+            dataSource.setPassword(shard.password());
+            shards.add(dataSource);
+        }
+        log.info("Order storage sharded across {} databases", shards.size());
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer shardedIdOptimizer() {
+        return properties -> properties.put(AvailableSettings.PREFERRED_POOLED_OPTIMIZER,
+                ShardedPooledOptimizer.class.getName());
+    }
+
+    // Runs as the entity manager factory is handed out, so no repository sees a shard without its schema
+    @Bean
+    public static BeanPostProcessor shardSchemaInitializer(Environment environment) {
+        ShardingProperties properties = Binder.get(environment)
+                .bindOrCreate("order.sharding", ShardingProperties.class);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (properties.initializeSchema() && bean instanceof EntityManagerFactory entityManagerFactory) {
+                    initializeShards(entityManagerFactory, properties.shards().size());
+                }
+                return bean;
+            }
+        };
+    }
+
+    // ddl-auto has already created the schema on the first shard, whose ids start at 1
+    private static void initializeShards(EntityManagerFactory entityManagerFactory, int shardCount) {
+        for (int shard = 1; shard < shardCount; shard++) {
+            Integer previous = ShardContext.set(shard);
+            try {
+                entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager().exportMappedObjects(true);
+                EntityManager entityManager = entityManagerFactory.createEntityManager();
+                try {
+                    entityManager.getTransaction().begin();
+                    entityManager.createNativeQuery("ALTER SEQUENCE orders_seq RESTART WITH "
+                            + ShardRouter.firstOrderIdOf(shard)).executeUpdate();
+                    entityManager.getTransaction().commit();
+                } finally {
+                    entityManager.close();
+                }
+            } finally {
+                ShardContext.restore(previous);
+            }
+        }
+        log.info("Initialized schema on {} additional shards", shardCount - 1);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.orderservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Order storage split across several databases. Customers are placed on {@code shards} by a
+ * consistent hash of their id with {@code virtualNodes} points per shard. A shard's position in
+ * the list is its index, which is encoded in order ids and order numbers, so shards may be
+ * appended but never reordered or removed. {@code initializeSchema} creates the schema on every
+ * shard and moves each shard's {@code orders_seq} into its own id range; meant for in-memory
+ * databases, where {@code ddl-auto} would otherwise only reach the first shard.
+ */
+@ConfigurationProperties(prefix = "order.sharding")
+public record ShardingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue List<Shard> shards,
+        @DefaultValue("160") int virtualNodes,
+        @DefaultValue("false") boolean initializeSchema) {
+
+    public record Shard(String name, String url, String username, String password) {}
+}
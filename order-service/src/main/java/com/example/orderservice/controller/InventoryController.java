@@ -0,0 +1,26 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.dto.StockLevel;
+import com.example.orderservice.service.InventoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/inventory")
+@RequiredArgsConstructor
+public class InventoryController {
+
+    private final InventoryService inventoryService;
+
+    @GetMapping("/{productId}")
+    public ResponseEntity<StockLevel> getStockLevel(@PathVariable String productId) {
+        return ResponseEntity.of(inventoryService.getStockLevel(productId));
+    }
+
+    @PostMapping("/{productId}/restock")
+    public ResponseEntity<StockLevel> restock(@PathVariable String productId, @RequestParam long units) {
+        inventoryService.restock(productId, units);
+        return ResponseEntity.of(inventoryService.getStockLevel(productId));
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.dto.OrderChangeBatch;
+import com.example.orderservice.exception.InvalidRequestException;
+import com.example.orderservice.service.OrderChangeFeed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/orders/changes")
+@RequiredArgsConstructor
+public class OrderChangeController {
+
+    private final OrderChangeFeed orderChangeFeed;
+
+    // Long poll: answers at once when there are changes after the given seq, otherwise holds the
+    // request until there are or the poll times out with an empty batch
+    @GetMapping
+    public DeferredResult<OrderChangeBatch> getChanges(@RequestParam(defaultValue = "0") long after,
+                                                       @RequestParam(defaultValue = "100") int limit) {
+        if (!orderChangeFeed.isEnabled()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Order change feed is disabled");
+        }
+        if (after < 0) {
+            throw new InvalidRequestException("after must not be negative");
+        }
+        return orderChangeFeed.poll(after, limit);
+    }
+}
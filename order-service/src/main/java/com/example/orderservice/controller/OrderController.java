@@ -1,16 +1,50 @@
 package com.example.orderservice.controller;
 
+import com.example.orderservice.config.BinaryCodecConfig;
+import com.example.orderservice.dto.OrderAmendmentRequest;
+import com.example.orderservice.dto.OrderField;
+import com.example.orderservice.dto.OrderImportSummary;
 import com.example.orderservice.dto.OrderRequest;
 import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.dto.OrderStatusChangedEvent;
+import com.example.orderservice.service.AdmissionController;
+import com.example.orderservice.service.CustomerRateLimiter;
+import com.example.orderservice.service.IdempotencyService;
+import com.example.orderservice.service.OrderAmendmentService;
+import com.example.orderservice.service.OrderGroupCommitWriter;
+import com.example.orderservice.service.OrderImportParser;
+import com.example.orderservice.service.OrderImportService;
+import com.example.orderservice.service.OrderLookupBatcher;
+import com.example.orderservice.service.OrderProjectionService;
+import com.example.orderservice.service.OrderResponseCache;
 import com.example.orderservice.service.OrderService;
+import com.example.orderservice.service.OrderStatusBroadcaster;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 @RestController
@@ -19,36 +53,168 @@ import java.util.concurrent.CompletableFuture;
 @Slf4j
 public class OrderController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final OrderService orderService;
+    private final OrderGroupCommitWriter groupCommitWriter;
+    private final CustomerRateLimiter customerRateLimiter;
+    private final AdmissionController admissionController;
+    private final IdempotencyService idempotencyService;
+    private final OrderResponseCache orderResponseCache;
+    private final OrderLookupBatcher orderLookupBatcher;
+    private final OrderStatusBroadcaster orderStatusBroadcaster;
+    private final OrderImportParser orderImportParser;
+    private final OrderImportService orderImportService;
+    private final OrderProjectionService orderProjectionService;
+    private final OrderAmendmentService orderAmendmentService;
+    private final ObjectMapper objectMapper;
+    private final ContentNegotiationManager contentNegotiationManager;
 
     @PostMapping
     public CompletableFuture<ResponseEntity<OrderResponse>> createOrder(
-            @Valid @RequestBody OrderRequest request) {
+            @Valid @RequestBody OrderRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         log.info("Received order creation request for customer: {}", request.getCustomerId());
+        // Only new work is rate limited: a retry answered from its Idempotency-Key costs no token
+        CompletableFuture<OrderResponse> created = idempotencyKey != null
+                ? idempotencyService.execute(idempotencyKey, request, this::submitOrder)
+                : submitOrder(request);
+
+        // A failed future reaches GlobalExceptionHandler unwrapped, the same as a thrown exception
+        return created.thenApply(order -> ResponseEntity.status(HttpStatus.CREATED).body(order));
+    }
 
-        return orderService.createOrderAsync(request)
-                .thenApply(order -> ResponseEntity.status(HttpStatus.CREATED).body(order))
-                .exceptionally(ex -> {
-                    log.error("Error creating order", ex);
-                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-                });
+    // Bulk import: the body is parsed as it arrives and one NDJSON result line per order is
+    // written back as its chunk commits, followed by a summary line
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importOrders(HttpServletRequest request,
+                                                              @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType)
+            throws IOException {
+        InputStream in = request.getInputStream();
+        boolean csv = contentType.isCompatibleWith(MediaType.parseMediaType("text/csv"));
+        StreamingResponseBody body = out -> {
+            Iterator<OrderImportParser.ImportRow> rows = csv ? orderImportParser.csv(in) : orderImportParser.ndjson(in);
+            OrderImportSummary summary = orderImportService.importOrders(rows,
+                    result -> writeLine(out, result),
+                    () -> flush(out));
+            writeLine(out, Map.of("summary", summary));
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
+    private CompletableFuture<OrderResponse> submitOrder(OrderRequest request) {
+        customerRateLimiter.acquire(request.getCustomerId());
+        return admissionController.admit(() -> groupCommitWriter.isEnabled()
+                ? groupCommitWriter.submit(request)
+                : orderService.createOrderAsync(request));
+    }
+
+    // Single-order reads go through the cache and carry an ETag, so polling clients
+    // sending If-None-Match get 304 Not Modified without a body
+    // With fields= the cached order is trimmed to those fields; the ETag is the same
+    // The body is encoded per Accept, so the ETag names the encoding and caches vary on Accept
     @GetMapping("/{id}")
-    public ResponseEntity<OrderResponse> getOrderById(@PathVariable Long id) {
-        OrderResponse order = orderService.getOrderById(id);
-        return ResponseEntity.ok(order);
+    public ResponseEntity<?> getOrderById(@PathVariable Long id, @RequestParam(required = false) String fields,
+                                          HttpServletRequest request) throws HttpMediaTypeNotAcceptableException {
+        Set<OrderField> requested = fields != null ? OrderField.parse(fields) : null;
+        OrderResponse order = orderResponseCache.getById(id, orderLookupBatcher::getOrderById);
+        return negotiated(order, request).body(project(order, requested));
+    }
+
+    // Changes items or the delivery address of an order that has not been paid. The body names the
+    // version it was based on; if the order has moved on since, the answer is 409 Conflict
+    @PatchMapping("/{id}")
+    public ResponseEntity<OrderResponse> amendOrder(@PathVariable Long id,
+                                                    @Valid @RequestBody OrderAmendmentRequest request,
+                                                    HttpServletRequest httpRequest) throws HttpMediaTypeNotAcceptableException {
+        OrderResponse order = orderAmendmentService.amendOrder(id, request);
+        return negotiated(order, httpRequest).body(order);
+    }
+
+    // Pushes status changes instead of having clients poll; the first event carries the current status,
+    // read from the database after the stream is registered so no change falls in between
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderEvents(@PathVariable Long id) {
+        return orderStatusBroadcaster.subscribe(id, () -> {
+            OrderResponse order = orderService.getOrderById(id);
+            LocalDateTime changedAt = order.getUpdatedAt() != null ? order.getUpdatedAt() : order.getCreatedAt();
+            return new OrderStatusChangedEvent(id, order.getStatus(), changedAt);
+        });
     }
 
     @GetMapping("/number/{orderNumber}")
-    public ResponseEntity<OrderResponse> getOrderByNumber(@PathVariable String orderNumber) {
-        OrderResponse order = orderService.getOrderByNumber(orderNumber);
-        return ResponseEntity.ok(order);
+    public ResponseEntity<?> getOrderByNumber(@PathVariable String orderNumber,
+                                              @RequestParam(required = false) String fields,
+                                              HttpServletRequest request) throws HttpMediaTypeNotAcceptableException {
+        Set<OrderField> requested = fields != null ? OrderField.parse(fields) : null;
+        OrderResponse order = orderResponseCache.getByOrderNumber(orderNumber, orderService::getOrderByNumber);
+        return negotiated(order, request).body(project(order, requested));
     }
 
+    // Lists with fields= select only those columns, and join items only when they are asked for
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<List<OrderResponse>> getOrdersByCustomer(@PathVariable String customerId) {
+    public ResponseEntity<?> getOrdersByCustomer(@PathVariable String customerId,
+                                                 @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT)
+                    .body(orderProjectionService.getOrdersByCustomerId(customerId, OrderField.parse(fields)));
+        }
         List<OrderResponse> orders = orderService.getOrdersByCustomerId(customerId);
-        return ResponseEntity.ok(orders);
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(orders);
+    }
+
+    @GetMapping("/customer/{customerId}/page")
+    public ResponseEntity<?> getOrdersByCustomerPage(
+            @PathVariable String customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(orderProjectionService.getOrdersByCustomerId(
+                    customerId, cursor, size, OrderField.parse(fields)));
+        }
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(orderService.getOrdersByCustomerId(customerId, cursor, size));
+    }
+
+    @GetMapping(value = "/customer/{customerId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamOrdersByCustomer(@PathVariable String customerId) {
+        StreamingResponseBody body = out -> orderService.streamOrdersByCustomerId(customerId,
+                order -> writeLine(out, order));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void flush(OutputStream out) {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Object project(OrderResponse order, Set<OrderField> fields) {
+        return fields != null ? OrderField.project(order, fields) : order;
+    }
+
+    private ResponseEntity.BodyBuilder negotiated(OrderResponse order, HttpServletRequest request)
+            throws HttpMediaTypeNotAcceptableException {
+        MediaType format = BinaryCodecConfig.responseFormat(
+                contentNegotiationManager.resolveMediaTypes(new ServletWebRequest(request)));
+        return ResponseEntity.ok().eTag(eTagOf(order, format)).varyBy(HttpHeaders.ACCEPT);
+    }
+
+    private String eTagOf(OrderResponse order, MediaType format) {
+        LocalDateTime updatedAt = order.getUpdatedAt() != null ? order.getUpdatedAt() : order.getCreatedAt();
+        String version = updatedAt != null ? updatedAt.toEpochSecond(ZoneOffset.UTC) + "." + updatedAt.getNano() : "0";
+        return "\"" + order.getId() + "-" + version + "-" + format.getSubtype() + "\"";
     }
 }
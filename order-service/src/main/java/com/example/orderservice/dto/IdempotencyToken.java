@@ -0,0 +1,4 @@
+package com.example.orderservice.dto;
+
+// Client-supplied Idempotency-Key plus a hash of the request it was first used with
+public record IdempotencyToken(String key, String requestHash) {}
@@ -0,0 +1,8 @@
+package com.example.orderservice.dto;
+
+import com.example.orderservice.model.OrderStatus;
+
+import java.time.LocalDateTime;
+
+// Published in-process inside the transaction that amends an order; the status is unchanged
+public record OrderAmendedEvent(Long orderId, OrderStatus status, LocalDateTime amendedAt) {}
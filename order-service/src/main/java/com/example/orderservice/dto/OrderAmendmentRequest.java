@@ -0,0 +1,51 @@
+package com.example.orderservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderAmendmentRequest {
+
+    // The version the client last read; the amendment is refused if the order has changed since
+    @NotNull(message = "Version is required")
+    private Long version;
+
+    @Size(min = 10, max = 500, message = "Address must be between 10 and 500 characters")
+    private String deliveryAddress;
+
+    // An explicit null in the body means the same as leaving the list out
+    @Valid
+    @JsonSetter(nulls = Nulls.AS_EMPTY)
+    private List<@NotNull OrderItemRequest> addItems = new ArrayList<>();
+
+    @Valid
+    @JsonSetter(nulls = Nulls.AS_EMPTY)
+    private List<@NotNull ItemQuantity> changeItems = new ArrayList<>();
+
+    @JsonSetter(nulls = Nulls.AS_EMPTY)
+    private List<@NotNull Long> removeItemIds = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemQuantity {
+
+        @NotNull(message = "Item ID is required")
+        private Long itemId;
+
+        @NotNull(message = "Quantity is required")
+        @Min(value = 1, message = "Quantity must be at least 1")
+        @Max(value = 100, message = "Quantity cannot exceed 100")
+        private Integer quantity;
+    }
+}
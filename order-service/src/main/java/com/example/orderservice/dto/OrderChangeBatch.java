@@ -0,0 +1,6 @@
+package com.example.orderservice.dto;
+
+import java.util.List;
+
+// Changes in seq order; pass next as the following request's after
+public record OrderChangeBatch(List<OrderChangeResponse> changes, long next) {}
@@ -0,0 +1,7 @@
+package com.example.orderservice.dto;
+
+import com.example.orderservice.model.OrderStatus;
+
+import java.time.LocalDateTime;
+
+public record OrderChangeResponse(long seq, Long orderId, OrderStatus status, LocalDateTime changedAt) {}
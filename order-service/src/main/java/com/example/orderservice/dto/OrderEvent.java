@@ -1,12 +1,12 @@
 package com.example.orderservice.dto;
 
+import com.example.orderservice.model.Money;
 import com.example.orderservice.model.OrderStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -24,7 +24,7 @@ public class OrderEvent {
     private String customerEmail;
     private String customerPhone;
     private String deliveryAddress;
-    private BigDecimal totalAmount;
+    private Money totalAmount;
     private OrderStatus status;
     private LocalDateTime timestamp;
     private List<OrderItemResponse> items;
@@ -0,0 +1,22 @@
+package com.example.orderservice.dto;
+
+import com.example.orderservice.model.Money;
+import com.example.orderservice.model.OrderStatus;
+
+import java.time.LocalDateTime;
+
+// One order line for the columnar export: order columns repeated per item
+public record OrderExportRow(Long orderId,
+                             String orderNumber,
+                             String customerId,
+                             OrderStatus status,
+                             Money totalAmount,
+                             LocalDateTime createdAt,
+                             LocalDateTime updatedAt,
+                             LocalDateTime completedAt,
+                             Long itemId,
+                             String productId,
+                             String productName,
+                             Integer quantity,
+                             Money unitPrice,
+                             Money itemTotalPrice) {}
@@ -0,0 +1,4 @@
+package com.example.orderservice.dto;
+
+public record OrderExportSummary(long rows, long orders, int files, long elapsedMs,
+                                 double rowsPerSecond, long exportedUpToSeq) {}
@@ -0,0 +1,79 @@
+package com.example.orderservice.dto;
+
+import com.example.orderservice.exception.InvalidRequestException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A field of {@link OrderResponse} that can be asked for with {@code fields=}. Apart from
+ * {@link #ITEMS}, each is a column of {@code orders} whose entity attribute has the same name.
+ */
+public enum OrderField {
+
+    ID("id", OrderResponse::getId),
+    ORDER_NUMBER("orderNumber", OrderResponse::getOrderNumber),
+    CUSTOMER_ID("customerId", OrderResponse::getCustomerId),
+    CUSTOMER_NAME("customerName", OrderResponse::getCustomerName),
+    DELIVERY_ADDRESS("deliveryAddress", OrderResponse::getDeliveryAddress),
+    TOTAL_AMOUNT("totalAmount", OrderResponse::getTotalAmount),
+    STATUS("status", OrderResponse::getStatus),
+    CREATED_AT("createdAt", OrderResponse::getCreatedAt),
+    UPDATED_AT("updatedAt", OrderResponse::getUpdatedAt),
+    VERSION("version", OrderResponse::getVersion),
+    ITEMS("items", OrderResponse::getItems);
+
+    private static final Map<String, OrderField> BY_PROPERTY = Arrays.stream(values())
+            .collect(Collectors.toUnmodifiableMap(OrderField::property, Function.identity()));
+
+    private final String property;
+    private final Function<OrderResponse, Object> getter;
+
+    OrderField(String property, Function<OrderResponse, Object> getter) {
+        this.property = property;
+        this.getter = getter;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    public boolean isColumn() {
+        return this != ITEMS;
+    }
+
+    // Parses a comma-separated list such as "orderNumber,status,totalAmount"
+    public static Set<OrderField> parse(String fields) {
+        Set<OrderField> parsed = EnumSet.noneOf(OrderField.class);
+        for (String name : fields.split(",")) {
+            String property = name.trim();
+            if (property.isEmpty()) {
+                continue;
+            }
+            OrderField field = BY_PROPERTY.get(property);
+            if (field == null) {
+                throw new InvalidRequestException("Unknown order field '" + property + "', expected any of "
+                        + Arrays.stream(values()).map(OrderField::property).collect(Collectors.joining(",")));
+            }
+            parsed.add(field);
+        }
+        if (parsed.isEmpty()) {
+            throw new InvalidRequestException("fields must name at least one order field");
+        }
+        return Collections.unmodifiableSet(parsed);
+    }
+
+    // The requested fields of an already loaded order, in declaration order
+    public static Map<String, Object> project(OrderResponse order, Set<OrderField> fields) {
+        Map<String, Object> projected = new LinkedHashMap<>();
+        for (OrderField field : fields) {
+            projected.put(field.property, field.getter.apply(order));
+        }
+        return projected;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.orderservice.dto;
+
+import com.example.orderservice.model.Money;
+import com.example.orderservice.model.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * One order/item pair from the flattened history query used for streaming. Rows of the
+ * same order are adjacent, so they can be folded into an {@link OrderResponse} on the fly.
+ */
+public record OrderHistoryRow(
+        Long orderId,
+        String orderNumber,
+        String customerId,
+        String customerName,
+        String deliveryAddress,
+        Money totalAmount,
+        OrderStatus status,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Long version,
+        Long itemId,
+        String productId,
+        String productName,
+        Integer quantity,
+        Money unitPrice,
+        Money totalPrice) {
+}
@@ -0,0 +1,36 @@
+package com.example.orderservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/**
+ * Outcome of one imported order, streamed back as a line of NDJSON. {@code line} is the first
+ * input line of the order and {@code ref} the CSV order reference, when there is one.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record OrderImportResult(long line,
+                                String ref,
+                                Status status,
+                                Long orderId,
+                                String orderNumber,
+                                Map<String, String> errors) {
+
+    public enum Status {
+        CREATED,
+        INVALID,
+        FAILED
+    }
+
+    public static OrderImportResult created(long line, String ref, OrderResponse order) {
+        return new OrderImportResult(line, ref, Status.CREATED, order.getId(), order.getOrderNumber(), null);
+    }
+
+    public static OrderImportResult invalid(long line, String ref, Map<String, String> errors) {
+        return new OrderImportResult(line, ref, Status.INVALID, null, null, errors);
+    }
+
+    public static OrderImportResult failed(long line, String ref, String error) {
+        return new OrderImportResult(line, ref, Status.FAILED, null, null, Map.of("order", error));
+    }
+}
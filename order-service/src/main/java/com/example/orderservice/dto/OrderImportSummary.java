@@ -0,0 +1,5 @@
+package com.example.orderservice.dto;
+
+// Final line of an import response
+public record OrderImportSummary(long orders, long created, long invalid, long failed,
+                                 long elapsedMs, double ordersPerSecond) {}
@@ -24,5 +24,6 @@ public class OrderItemRequest {
 
     @NotNull(message = "Unit price is required")
     @DecimalMin(value = "0.01", message = "Price must be greater than 0")
+    @Digits(integer = 15, fraction = 2, message = "Price must have at most 2 decimal places")
     private BigDecimal unitPrice;
 }
@@ -0,0 +1,4 @@
+package com.example.orderservice.dto;
+
+// The id and order number of an order a bulk status change touched
+public record OrderKeyRow(Long id, String orderNumber) {}
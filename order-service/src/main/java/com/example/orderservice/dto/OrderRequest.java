@@ -1,5 +1,6 @@
 package com.example.orderservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
@@ -33,4 +34,8 @@ public class OrderRequest {
     @NotEmpty(message = "Order must contain at least one item")
     @Valid
     private List<OrderItemRequest> items;
-}
\ No newline at end of file
+
+    // Set from the Idempotency-Key header, never from the body; persisted with the order
+    @JsonIgnore
+    private IdempotencyToken idempotencyToken;
+}
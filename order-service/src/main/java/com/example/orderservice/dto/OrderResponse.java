@@ -1,12 +1,12 @@
 package com.example.orderservice.dto;
 
+import com.example.orderservice.model.Money;
 import com.example.orderservice.model.OrderStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -20,8 +20,10 @@ public class OrderResponse {
     private String customerId;
     private String customerName;
     private String deliveryAddress;
-    private BigDecimal totalAmount;
+    private Money totalAmount;
     private OrderStatus status;
     private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Long version;
     private List<OrderItemResponse> items;
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.example.orderservice.dto;
+
+import com.example.orderservice.model.OrderStatus;
+
+import java.time.LocalDateTime;
+
+// Published in-process when an order's status changes; delivered to SSE watchers after commit
+public record OrderStatusChangedEvent(Long orderId, OrderStatus status, LocalDateTime changedAt) {}
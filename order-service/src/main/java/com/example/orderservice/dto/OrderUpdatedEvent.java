@@ -0,0 +1,50 @@
+package com.example.orderservice.dto;
+
+import com.example.orderservice.model.Money;
+import com.example.orderservice.model.OrderStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * An amendment on {@code order.updated}. {@code ORDER_UPDATED} carries only what the amendment
+ * changed; {@code ORDER_SNAPSHOT} carries the whole order, in {@link #items} and the customer
+ * fields. Fields that are not set are left out of the JSON. {@link #revision} numbers the
+ * amendments of one order without gaps, so a consumer that finds one missing can wait for the
+ * next snapshot. {@link #version} also moves with status changes and is the one to compare with
+ * {@link OrderResponse#getVersion()}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderUpdatedEvent {
+    private String eventId;
+    private String eventType;
+    private Long orderId;
+    private String orderNumber;
+    private Long version;
+    private Integer revision;
+    private LocalDateTime timestamp;
+    private String deliveryAddress;
+    private Money totalAmount;
+    private List<OrderItemResponse> addedItems;
+    private List<ItemQuantityChange> changedItems;
+    private List<Long> removedItemIds;
+
+    // Snapshots only
+    private String customerId;
+    private String customerName;
+    private String customerEmail;
+    private String customerPhone;
+    private OrderStatus status;
+    private List<OrderItemResponse> items;
+
+    public record ItemQuantityChange(Long id, Integer quantity, Money totalPrice) {}
+}
@@ -0,0 +1,31 @@
+package com.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Mirrors {@code PageResponse} from the common module. Keyset pages carry {@code nextCursor}
+ * and report {@code totalElements}/{@code totalPages} as -1 since they are not counted.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageResponse<T> implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private List<T> content;
+    private int pageNumber;
+    private int pageSize;
+    private long totalElements;
+    private int totalPages;
+    private boolean first;
+    private boolean last;
+    private boolean empty;
+    private String nextCursor;
+}
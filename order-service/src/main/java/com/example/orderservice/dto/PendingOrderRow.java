@@ -0,0 +1,6 @@
+package com.example.orderservice.dto;
+
+import java.time.LocalDateTime;
+
+// An order still waiting for payment, as read back when rebuilding the timeout wheel
+public record PendingOrderRow(Long id, LocalDateTime createdAt) {}
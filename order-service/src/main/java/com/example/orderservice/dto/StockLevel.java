@@ -0,0 +1,3 @@
+package com.example.orderservice.dto;
+
+public record StockLevel(String productId, long onHand, long available, long reserved) {}
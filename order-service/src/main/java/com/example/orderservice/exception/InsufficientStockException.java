@@ -0,0 +1,7 @@
+package com.example.orderservice.exception;
+
+public class InsufficientStockException extends RuntimeException {
+    public InsufficientStockException(String productId, long requested) {
+        super("Insufficient stock for product " + productId + ": " + requested + " requested");
+    }
+}
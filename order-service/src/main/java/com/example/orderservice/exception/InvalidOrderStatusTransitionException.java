@@ -0,0 +1,9 @@
+package com.example.orderservice.exception;
+
+import com.example.orderservice.model.OrderStatus;
+
+public class InvalidOrderStatusTransitionException extends RuntimeException {
+    public InvalidOrderStatusTransitionException(Long orderId, OrderStatus current, OrderStatus target) {
+        super("Order " + orderId + " cannot move from " + current + " to " + target);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.orderservice.exception;
+
+// A request parameter or body the client got wrong, such as a malformed cursor; answered with 400
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
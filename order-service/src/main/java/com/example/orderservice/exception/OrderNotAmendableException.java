@@ -0,0 +1,9 @@
+package com.example.orderservice.exception;
+
+import com.example.orderservice.model.OrderStatus;
+
+public class OrderNotAmendableException extends RuntimeException {
+    public OrderNotAmendableException(Long orderId, OrderStatus status) {
+        super("Order " + orderId + " cannot be amended in status " + status);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.orderservice.exception;
+
+public class OrderVersionConflictException extends RuntimeException {
+    public OrderVersionConflictException(Long orderId, Long expected) {
+        super("Order " + orderId + " has changed since version " + expected);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.orderservice.exception;
+
+public class ProductNotPricedException extends RuntimeException {
+    public ProductNotPricedException(String productId) {
+        super("Product " + productId + " has no catalog price");
+    }
+}
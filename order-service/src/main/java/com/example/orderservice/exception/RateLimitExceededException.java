@@ -0,0 +1,16 @@
+package com.example.orderservice.exception;
+
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String customerId, String tier, long retryAfterSeconds) {
+        super("Too many orders for customer " + customerId + " (" + tier + " tier), retry after "
+                + retryAfterSeconds + "s");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.orderservice.exception;
+
+import java.util.concurrent.RejectedExecutionException;
+
+public class ServiceOverloadedException extends RejectedExecutionException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.orderservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Position of an incremental export: the last change feed seq it covered. A run holds the row
+// locked from reading it until it moves, so only one instance exports at a time
+@Entity
+@Table(name = "order_export_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportCheckpoint {
+
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private Long lastSeq;
+
+    private LocalDateTime exportedAt;
+}
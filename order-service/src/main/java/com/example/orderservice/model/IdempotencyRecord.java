@@ -0,0 +1,74 @@
+package com.example.orderservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "order_idempotency_keys", indexes = {
+        @Index(name = "idx_order_idempotency_keys_created", columnList = "created_at")
+})
+@IdClass(IdempotencyRecord.Key.class)
+@Data
+@NoArgsConstructor
+public class IdempotencyRecord implements Persistable<IdempotencyRecord.Key> {
+
+    // Clients pick their own keys, so a key is only unique within the customer that sent it
+    @Id
+    private String customerId;
+
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String key;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    // Keys are assigned by clients, so save() must INSERT rather than merge; a concurrent
+    // duplicate then fails on the primary key instead of silently overwriting
+    @Transient
+    private boolean newRecord = true;
+
+    public IdempotencyRecord(String customerId, String key, String requestHash, Long orderId) {
+        this.customerId = customerId;
+        this.key = key;
+        this.requestHash = requestHash;
+        this.orderId = orderId;
+    }
+
+    @Override
+    public Key getId() {
+        return new Key(customerId, key);
+    }
+
+    @Override
+    public boolean isNew() {
+        return newRecord;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newRecord = false;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String customerId;
+        private String key;
+    }
+}
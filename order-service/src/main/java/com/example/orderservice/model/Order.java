@@ -4,23 +4,27 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.ColumnDefault;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_customer_status_created", columnList = "customer_id, status, created_at"),
+        @Index(name = "idx_orders_updated_id", columnList = "updated_at, id"),
+        @Index(name = "idx_orders_status_created", columnList = "status, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -43,35 +47,56 @@ public class Order {
     private List<OrderItem> items = new ArrayList<>();
 
     @Column(nullable = false)
-    private BigDecimal totalAmount = BigDecimal.ZERO;
+    private Money totalAmount = Money.ZERO;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private OrderStatus status;
 
-    @CreationTimestamp
     private LocalDateTime createdAt;
 
-    @UpdateTimestamp
     private LocalDateTime updatedAt;
 
     private LocalDateTime completedAt;
 
+    @Version
+    private Long version;
+
+    // Amendments applied so far; numbers the order.updated events of this order without gaps
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int revision;
+
     public void addItem(OrderItem item) {
         items.add(item);
         item.setOrder(this);
 
-        if (item.getUnitPrice() != null && item.getQuantity() != null) {
-            BigDecimal itemTotal = item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
-            item.setTotalPrice(itemTotal);
-        } else {
-            item.setTotalPrice(BigDecimal.ZERO);
-        }
+        item.calculateTotalPrice();
     }
 
+    // Timestamps are set at persist time rather than at flush so that ids and dates are
+    // both available before the batched INSERT is executed
+    @PrePersist
+    public void onCreate() {
+        // Truncated to the column precision so values match what is read back (used by keyset cursors)
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        this.createdAt = now;
+        this.updatedAt = now;
+    }
+
+    @PreUpdate
+    public void onUpdate() {
+        this.updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    // Sums minor units, so only the result is allocated
     public void calculateTotalAmount() {
-        this.totalAmount = items.stream()
-                .map(item -> item.getTotalPrice() != null ? item.getTotalPrice() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        long total = 0;
+        for (OrderItem item : items) {
+            if (item.getTotalPrice() != null) {
+                total = Math.addExact(total, item.getTotalPrice().minorUnits());
+            }
+        }
+        this.totalAmount = Money.ofMinor(total);
     }
 }
\ No newline at end of file
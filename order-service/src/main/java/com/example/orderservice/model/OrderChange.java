@@ -0,0 +1,41 @@
+package com.example.orderservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// One entry of the append-only change feed. Inserted with the change itself and no seq; the
+// sequencer numbers entries after they commit, so seq order is the order they became visible
+@Entity
+@Table(name = "order_changes", indexes = {
+        @Index(name = "idx_order_changes_seq", columnList = "seq", unique = true)
+})
+@Data
+@NoArgsConstructor
+public class OrderChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_changes_seq")
+    @SequenceGenerator(name = "order_changes_seq", sequenceName = "order_changes_seq", allocationSize = 100)
+    private Long id;
+
+    private Long seq;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus status;
+
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+
+    public OrderChange(Long orderId, OrderStatus status, LocalDateTime changedAt) {
+        this.orderId = orderId;
+        this.status = status;
+        this.changedAt = changedAt;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.orderservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Last feed sequence number handed out; its row lock serializes sequencers across instances
+@Entity
+@Table(name = "order_change_sequences")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderChangeSequence {
+
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private long lastSeq;
+}
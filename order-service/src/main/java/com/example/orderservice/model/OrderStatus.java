@@ -1,5 +1,11 @@
 package com.example.orderservice.model;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum OrderStatus {
     CREATED,
     PAYMENT_PENDING,
@@ -10,5 +16,38 @@ public enum OrderStatus {
     IN_DELIVERY,
     DELIVERED,
     CANCELLED,
-    REFUNDED
-}
\ No newline at end of file
+    REFUNDED;
+
+    // Allowed transitions, one row per source status. The inverse (allowed predecessors of
+    // each target) feeds the WHERE status IN (...) guard of the conditional status UPDATE
+    private static final Map<OrderStatus, Set<OrderStatus>> PREDECESSORS = new EnumMap<>(OrderStatus.class);
+
+    static {
+        for (OrderStatus status : values()) {
+            PREDECESSORS.put(status, EnumSet.noneOf(OrderStatus.class));
+        }
+        allow(CREATED, PAYMENT_PENDING, PAYMENT_COMPLETED, PAYMENT_FAILED, CANCELLED);
+        allow(PAYMENT_PENDING, PAYMENT_COMPLETED, PAYMENT_FAILED, CANCELLED);
+        allow(PAYMENT_FAILED, PAYMENT_PENDING, CANCELLED);
+        allow(PAYMENT_COMPLETED, PREPARING, CANCELLED, REFUNDED);
+        allow(PREPARING, READY_FOR_DELIVERY, CANCELLED);
+        allow(READY_FOR_DELIVERY, IN_DELIVERY, CANCELLED);
+        allow(IN_DELIVERY, DELIVERED);
+        allow(DELIVERED, REFUNDED);
+        PREDECESSORS.replaceAll((status, predecessors) -> Collections.unmodifiableSet(predecessors));
+    }
+
+    private static void allow(OrderStatus from, OrderStatus... targets) {
+        for (OrderStatus target : targets) {
+            PREDECESSORS.get(target).add(from);
+        }
+    }
+
+    public Set<OrderStatus> allowedPredecessors() {
+        return PREDECESSORS.get(this);
+    }
+
+    public boolean canTransitionFrom(OrderStatus current) {
+        return PREDECESSORS.get(this).contains(current);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.orderservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Held by the instance draining the outbox, for the length of one batch; keeps relays on
+// different instances from publishing the same rows, or publishing rows out of order
+@Entity
+@Table(name = "order_outbox_relay_lock")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxRelayLock {
+
+    @Id
+    private String name;
+}
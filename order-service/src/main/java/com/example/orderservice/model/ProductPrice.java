@@ -0,0 +1,25 @@
+package com.example.orderservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Catalog unit price of one product, loaded into ProductPriceCatalog on refresh
+@Entity
+@Table(name = "product_prices")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPrice {
+
+    @Id
+    private String productId;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money unitPrice;
+
+    private LocalDateTime updatedAt;
+}
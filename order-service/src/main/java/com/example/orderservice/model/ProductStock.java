@@ -0,0 +1,29 @@
+package com.example.orderservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Stock of one product. onHand is authoritative; reserved is a write-behind snapshot of the
+// in-memory counter, kept for reporting. Products without a row are not stock-checked
+@Entity
+@Table(name = "product_stock")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductStock {
+
+    @Id
+    private String productId;
+
+    @Column(nullable = false)
+    private long onHand;
+
+    @Column(nullable = false)
+    private long reserved;
+
+    private LocalDateTime updatedAt;
+}
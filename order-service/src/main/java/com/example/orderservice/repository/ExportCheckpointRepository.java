@@ -0,0 +1,24 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.model.ExportCheckpoint;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ExportCheckpointRepository extends JpaRepository<ExportCheckpoint, String> {
+
+    // SELECT ... FOR UPDATE SKIP LOCKED: empty while a run on another instance holds the row. Dialects
+    // without SKIP LOCKED, such as H2, wait for the row instead
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT c FROM ExportCheckpoint c WHERE c.name = ?1")
+    Optional<ExportCheckpoint> findByNameSkipLocked(String name);
+}
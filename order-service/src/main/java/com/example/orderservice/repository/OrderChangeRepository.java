@@ -0,0 +1,20 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.model.OrderChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OrderChangeRepository extends JpaRepository<OrderChange, Long> {
+
+    List<OrderChange> findBySeqGreaterThanOrderBySeqAsc(long after, Pageable pageable);
+
+    List<OrderChange> findBySeqIsNullOrderByIdAsc(Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(c.seq), 0) FROM OrderChange c")
+    long findMaxSeq();
+}
@@ -0,0 +1,68 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.dto.OrderField;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * Tuple queries that select only the requested columns of {@code orders}, newest first. Each
+ * tuple element is aliased with its {@link OrderField#property()}. Items are never joined here;
+ * callers that want them load them for the returned ids with {@link #findItems}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderProjectionRepository {
+
+    private final EntityManager entityManager;
+
+    public List<Tuple> findByIdIn(Collection<Long> ids, Set<OrderField> columns) {
+        return find(columns, (cb, order) -> order.get("id").in(ids));
+    }
+
+    public List<Tuple> findByCustomerId(String customerId, Set<OrderField> columns) {
+        return find(columns, (cb, order) -> cb.equal(order.get("customerId"), customerId));
+    }
+
+    // Items of the given orders in insertion order, as (orderId, id, productId, productName, quantity, unitPrice, totalPrice)
+    public List<Tuple> findItems(Collection<Long> orderIds) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<OrderItem> item = query.from(OrderItem.class);
+        query.multiselect(item.get("order").get("id"), item.get("id"), item.get("productId"),
+                        item.get("productName"), item.get("quantity"), item.get("unitPrice"), item.get("totalPrice"))
+                .where(item.get("order").get("id").in(orderIds))
+                .orderBy(cb.asc(item.get("id")));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private List<Tuple> find(Set<OrderField> columns, BiFunction<CriteriaBuilder, Root<Order>, Predicate> filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Order> order = query.from(Order.class);
+        List<Selection<?>> selections = new ArrayList<>(columns.size());
+        for (OrderField column : columns) {
+            if (column.isColumn()) {
+                selections.add(order.get(column.property()).alias(column.property()));
+            }
+        }
+        query.multiselect(selections)
+                .where(filter.apply(cb, order))
+                .orderBy(cb.desc(order.get("createdAt")), cb.desc(order.get("id")));
+        return entityManager.createQuery(query).getResultList();
+    }
+}
@@ -1,14 +1,28 @@
 package com.example.orderservice.repository;
 
 
+import com.example.orderservice.dto.OrderExportRow;
+import com.example.orderservice.dto.OrderHistoryRow;
+import com.example.orderservice.dto.OrderKeyRow;
+import com.example.orderservice.dto.PendingOrderRow;
 import com.example.orderservice.model.Order;
 import com.example.orderservice.model.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -18,4 +32,87 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     @Query("SELECT o FROM Order o WHERE o.customerId = ?1 AND o.status = ?2")
     List<Order> findByCustomerIdAndStatus(String customerId, OrderStatus status);
-}
\ No newline at end of file
+
+    // Variants that load items in the same query, for callers that map to OrderResponse
+    @EntityGraph(attributePaths = "items")
+    @Query("SELECT o FROM Order o WHERE o.id = ?1")
+    Optional<Order> findWithItemsById(Long id);
+
+    @EntityGraph(attributePaths = "items")
+    @Query("SELECT o FROM Order o WHERE o.orderNumber = ?1")
+    Optional<Order> findWithItemsByOrderNumber(String orderNumber);
+
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items " +
+            "WHERE o.customerId = ?1 ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findWithItemsByCustomerId(String customerId);
+
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items " +
+            "WHERE o.id IN ?1 ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findWithItemsByIdIn(Collection<Long> ids);
+
+    // Keyset pagination over (createdAt, id); ids are fetched first so the limit applies to orders, not item rows
+    @Query("SELECT o.id FROM Order o WHERE o.customerId = ?1 ORDER BY o.createdAt DESC, o.id DESC")
+    List<Long> findIdsByCustomerId(String customerId, Pageable pageable);
+
+    @Query("SELECT o.id FROM Order o WHERE o.customerId = ?1 " +
+            "AND (o.createdAt < ?2 OR (o.createdAt = ?2 AND o.id < ?3)) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Long> findIdsByCustomerIdBefore(String customerId, LocalDateTime createdAt, Long id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.example.orderservice.dto.OrderHistoryRow(o.id, o.orderNumber, o.customerId, " +
+            "o.customerName, o.deliveryAddress, o.totalAmount, o.status, o.createdAt, o.updatedAt, o.version, " +
+            "i.id, i.productId, i.productName, i.quantity, i.unitPrice, i.totalPrice) " +
+            "FROM Order o LEFT JOIN o.items i WHERE o.customerId = ?1 " +
+            "ORDER BY o.createdAt DESC, o.id DESC, i.id")
+    Stream<OrderHistoryRow> streamHistoryByCustomerId(String customerId);
+
+    // Forward-only scan for the columnar export of the orders with change feed entries in (afterSeq, upToSeq]
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.orderservice.dto.OrderExportRow(o.id, o.orderNumber, o.customerId, o.status, " +
+            "o.totalAmount, o.createdAt, o.updatedAt, o.completedAt, " +
+            "i.id, i.productId, i.productName, i.quantity, i.unitPrice, i.totalPrice) " +
+            "FROM Order o LEFT JOIN o.items i " +
+            "WHERE o.id IN (SELECT c.orderId FROM OrderChange c WHERE c.seq > ?1 AND c.seq <= ?2) " +
+            "ORDER BY o.updatedAt, o.id, i.id")
+    Stream<OrderExportRow> streamForExport(long afterSeq, long upToSeq);
+
+    // Keyset page over idx_orders_status_created, oldest first
+    @Query("SELECT new com.example.orderservice.dto.PendingOrderRow(o.id, o.createdAt) FROM Order o " +
+            "WHERE o.status IN ?1 AND (o.createdAt > ?2 OR (o.createdAt = ?2 AND o.id > ?3)) " +
+            "ORDER BY o.createdAt, o.id")
+    List<PendingOrderRow> findPendingAfter(Collection<OrderStatus> statuses, LocalDateTime afterCreatedAt,
+                                           Long afterId, Pageable pageable);
+
+    // Status transitions are applied with a single guarded UPDATE; a count of 0 means the order
+    // is missing or its current status is not an allowed predecessor. completedAt is kept when null
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :status, o.completedAt = COALESCE(:completedAt, o.completedAt), " +
+            "o.updatedAt = :updatedAt, o.version = COALESCE(o.version, 0) + 1 " +
+            "WHERE o.id = :id AND o.status IN :predecessors")
+    int updateStatus(@Param("id") Long id,
+                     @Param("status") OrderStatus status,
+                     @Param("predecessors") Collection<OrderStatus> predecessors,
+                     @Param("completedAt") LocalDateTime completedAt,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :status, o.completedAt = COALESCE(:completedAt, o.completedAt), " +
+            "o.updatedAt = :updatedAt, o.version = COALESCE(o.version, 0) + 1 " +
+            "WHERE o.id IN :ids AND o.status IN :predecessors")
+    int updateStatusIn(@Param("ids") Collection<Long> ids,
+                       @Param("status") OrderStatus status,
+                       @Param("predecessors") Collection<OrderStatus> predecessors,
+                       @Param("completedAt") LocalDateTime completedAt,
+                       @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Query("SELECT new com.example.orderservice.dto.OrderKeyRow(o.id, o.orderNumber) FROM Order o " +
+            "WHERE o.id IN ?1 AND o.status = ?2 AND o.updatedAt = ?3")
+    List<OrderKeyRow> findKeysByIdInAndStatusAndUpdatedAt(Collection<Long> ids, OrderStatus status, LocalDateTime updatedAt);
+
+    @Query("SELECT o.status FROM Order o WHERE o.id = ?1")
+    Optional<OrderStatus> findStatusById(Long id);
+
+    @Query("SELECT o.orderNumber FROM Order o WHERE o.id = ?1")
+    Optional<String> findOrderNumberById(Long id);
+}
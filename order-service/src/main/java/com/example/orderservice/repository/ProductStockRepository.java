@@ -0,0 +1,31 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.dto.StockLevel;
+import com.example.orderservice.model.ProductStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProductStockRepository extends JpaRepository<ProductStock, String> {
+
+    // Reserved is the sum of the product's reservation rows, read in the same statement as on hand
+    @Query("SELECT new com.example.orderservice.dto.StockLevel(s.productId, s.onHand, " +
+            "s.onHand - (SELECT COALESCE(SUM(r.quantity), 0L) FROM StockReservation r WHERE r.productId = s.productId), " +
+            "(SELECT COALESCE(SUM(r.quantity), 0L) FROM StockReservation r WHERE r.productId = s.productId)) " +
+            "FROM ProductStock s WHERE s.productId IN ?1")
+    List<StockLevel> findLevelsByProductIdIn(Collection<String> productIds);
+
+    @Modifying
+    @Query("UPDATE ProductStock s SET s.onHand = s.onHand + ?2, s.updatedAt = ?3 WHERE s.productId = ?1")
+    int addOnHand(String productId, long delta, LocalDateTime updatedAt);
+
+    @Modifying
+    @Query("UPDATE ProductStock s SET s.reserved = ?2, s.updatedAt = ?3 WHERE s.productId = ?1")
+    int updateReserved(String productId, long reserved, LocalDateTime updatedAt);
+}
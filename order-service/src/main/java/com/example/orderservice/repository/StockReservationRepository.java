@@ -0,0 +1,30 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.model.StockReservation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.orderId = ?1")
+    List<StockReservation> findByOrderIdForUpdate(Long orderId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.orderId IN (SELECT o.id FROM Order o WHERE o.status IN ?1)")
+    List<StockReservation> findByOrderStatusInForUpdate(Collection<OrderStatus> statuses);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.orderId IN (SELECT o.id FROM Order o " +
+            "WHERE o.status = com.example.orderservice.model.OrderStatus.PAYMENT_FAILED AND o.updatedAt < ?1)")
+    List<StockReservation> findByPaymentFailedBeforeForUpdate(LocalDateTime cutoff);
+}
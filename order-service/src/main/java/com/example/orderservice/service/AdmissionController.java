@@ -0,0 +1,217 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Global admission control for order creation, so a slow database turns into fast 503s instead
+ * of an ever longer queue. Two mechanisms work together:
+ * <ul>
+ *   <li>An AIMD concurrency limit on orders in flight. The limit grows by one per round of fast
+ *   completions while it is actually being used, and is cut by {@code backoff-ratio} when an order
+ *   takes longer than {@code latency-threshold} or the executor rejects it.</li>
+ *   <li>CoDel-style queue shedding. As a {@link TaskDecorator} on {@code orderTaskExecutor} this
+ *   measures how long each task waited for a worker. If even the shortest wait in a
+ *   {@code queue-interval} was above {@code queue-target}, the queue is standing, not absorbing a
+ *   burst, and new orders are shed until an interval passes with a wait under target.</li>
+ * </ul>
+ */
+@Service
+@Slf4j
+public class AdmissionController implements TaskDecorator {
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final long queueTargetNanos;
+    private final long queueIntervalNanos;
+    private final long retryAfterSeconds;
+    private final LongSupplier nanoTime;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // Written under this; read without locking on admission
+    private volatile double limit;
+    private long lastDecreaseAt;
+
+    private final Object queueWindowLock = new Object();
+    private long queueWindowEndsAt;
+    private long queueWindowMinDelay = Long.MAX_VALUE;
+    private boolean queueOverloaded;
+
+    private final Counter limitShedCounter;
+    private final Counter queueShedCounter;
+    private final Timer queueDelayTimer;
+
+    @Autowired
+    public AdmissionController(MeterRegistry meterRegistry,
+                               @Value("${order.admission.enabled:false}") boolean enabled,
+                               @Value("${order.admission.initial-limit:20}") int initialLimit,
+                               @Value("${order.admission.min-limit:2}") int minLimit,
+                               @Value("${order.admission.max-limit:200}") int maxLimit,
+                               @Value("${order.admission.backoff-ratio:0.9}") double backoffRatio,
+                               @Value("${order.admission.latency-threshold:500ms}") Duration latencyThreshold,
+                               @Value("${order.admission.queue-target:50ms}") Duration queueTarget,
+                               @Value("${order.admission.queue-interval:500ms}") Duration queueInterval,
+                               @Value("${order.admission.retry-after:1s}") Duration retryAfter) {
+        this(meterRegistry, enabled, initialLimit, minLimit, maxLimit, backoffRatio, latencyThreshold,
+                queueTarget, queueInterval, retryAfter, System::nanoTime);
+    }
+
+    public AdmissionController(MeterRegistry meterRegistry, boolean enabled, int initialLimit, int minLimit,
+                               int maxLimit, double backoffRatio, Duration latencyThreshold, Duration queueTarget,
+                               Duration queueInterval, Duration retryAfter, LongSupplier nanoTime) {
+        this.enabled = enabled;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.queueTargetNanos = queueTarget.toNanos();
+        this.queueIntervalNanos = queueInterval.toNanos();
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+        this.nanoTime = nanoTime;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.queueWindowEndsAt = nanoTime.getAsLong() + queueIntervalNanos;
+
+        Gauge.builder("order.admission.limit", this, AdmissionController::getLimit)
+                .description("Current concurrency limit for order creation")
+                .register(meterRegistry);
+        Gauge.builder("order.admission.in_flight", inFlight, AtomicInteger::get)
+                .description("Order creations admitted and not yet completed")
+                .register(meterRegistry);
+        this.limitShedCounter = shedCounter(meterRegistry, "limit");
+        this.queueShedCounter = shedCounter(meterRegistry, "queue_delay");
+        this.queueDelayTimer = Timer.builder("order.admission.queue.delay")
+                .description("Time order creations waited for an orderTaskExecutor worker")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code work} if there is room for another order, otherwise fails fast with
+     * {@link ServiceOverloadedException}. The order counts against the limit until its future completes.
+     */
+    public <T> CompletableFuture<T> admit(Supplier<CompletableFuture<T>> work) {
+        if (!enabled) {
+            return work.get();
+        }
+        if (isQueueOverloaded()) {
+            queueShedCounter.increment();
+            throw new ServiceOverloadedException("Order queue delay above target", retryAfterSeconds);
+        }
+        int admitted;
+        do {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                limitShedCounter.increment();
+                throw new ServiceOverloadedException("Order concurrency limit reached", retryAfterSeconds);
+            }
+            admitted = current + 1;
+        } while (!inFlight.compareAndSet(admitted - 1, admitted));
+
+        long start = nanoTime.getAsLong();
+        int inFlightAtStart = admitted;
+        CompletableFuture<T> future;
+        try {
+            future = work.get();
+        } catch (RuntimeException e) {
+            onComplete(start, inFlightAtStart, e);
+            throw e;
+        }
+        future.whenComplete((result, ex) -> onComplete(start, inFlightAtStart, ex));
+        return future;
+    }
+
+    @Override
+    public Runnable decorate(Runnable task) {
+        if (!enabled) {
+            return task;
+        }
+        long queuedAt = nanoTime.getAsLong();
+        return () -> {
+            long now = nanoTime.getAsLong();
+            recordQueueDelay(now, now - queuedAt);
+            task.run();
+        };
+    }
+
+    public double getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void onComplete(long start, int inFlightAtStart, Throwable ex) {
+        long now = nanoTime.getAsLong();
+        inFlight.decrementAndGet();
+        boolean overloaded = now - start > latencyThresholdNanos || isRejection(ex);
+        synchronized (this) {
+            if (overloaded) {
+                // One cut per threshold period, so a burst of slow completions does not collapse the limit
+                if (now - lastDecreaseAt >= latencyThresholdNanos) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecreaseAt = now;
+                    log.debug("Order admission limit decreased to {}", (int) limit);
+                }
+            } else if (inFlightAtStart >= limit / 2) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        }
+    }
+
+    private void recordQueueDelay(long now, long delayNanos) {
+        queueDelayTimer.record(delayNanos, TimeUnit.NANOSECONDS);
+        synchronized (queueWindowLock) {
+            rollQueueWindow(now);
+            queueWindowMinDelay = Math.min(queueWindowMinDelay, delayNanos);
+        }
+    }
+
+    private boolean isQueueOverloaded() {
+        synchronized (queueWindowLock) {
+            rollQueueWindow(nanoTime.getAsLong());
+            return queueOverloaded;
+        }
+    }
+
+    // Guarded by queueWindowLock. An interval with no dequeued tasks means nothing is waiting
+    private void rollQueueWindow(long now) {
+        if (now - queueWindowEndsAt < 0) {
+            return;
+        }
+        queueOverloaded = queueWindowMinDelay != Long.MAX_VALUE && queueWindowMinDelay > queueTargetNanos;
+        queueWindowMinDelay = Long.MAX_VALUE;
+        queueWindowEndsAt = now + queueIntervalNanos;
+    }
+
+    private static boolean isRejection(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        return cause instanceof RejectedExecutionException;
+    }
+
+    private static Counter shedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("order.admission.shed")
+                .description("Order creations refused with 503 before any work was done, by reason")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.orderservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Consistent hash ring over a fixed list of nodes. Each node is placed at {@code virtualNodes}
+ * points derived from its name, and a key belongs to the first point at or after its own hash.
+ * Adding a node only moves the keys that now fall just before its points, about 1/n of them,
+ * and they all move to the new node. Lookups are a binary search over a sorted array.
+ */
+public class ConsistentHashRing {
+
+    private final long[] points;
+    private final int[] nodes;
+
+    public ConsistentHashRing(List<String> nodeNames, int virtualNodes) {
+        if (nodeNames.isEmpty() || virtualNodes < 1) {
+            throw new IllegalArgumentException("A hash ring needs at least one node and one virtual node per node");
+        }
+        long[][] entries = new long[nodeNames.size() * virtualNodes][];
+        int n = 0;
+        for (int node = 0; node < nodeNames.size(); node++) {
+            for (int v = 0; v < virtualNodes; v++) {
+                entries[n++] = new long[]{hash(nodeNames.get(node) + "#" + v), node};
+            }
+        }
+        // Ties between points are broken by node index, so every instance builds the same ring
+        Arrays.sort(entries, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        this.points = new long[entries.length];
+        this.nodes = new int[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            points[i] = entries[i][0];
+            nodes[i] = (int) entries[i][1];
+        }
+    }
+
+    public int nodeFor(String key) {
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return nodes[index == points.length ? 0 : index];
+    }
+
+    // FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 mixer so nearby keys spread out
+    static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
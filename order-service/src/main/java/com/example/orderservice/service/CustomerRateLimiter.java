@@ -0,0 +1,231 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.config.RateLimitProperties;
+import com.example.orderservice.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per customer in front of order creation, so one client cannot fill the order
+ * executor's queue on its own. Buckets live in a fixed number of stripes, each a small map under
+ * its own monitor, so customers only contend when they hash to the same stripe. A bucket is
+ * refilled lazily when its customer next orders; nothing runs per customer in the background.
+ *
+ * <p>Memory is bounded two ways. A bucket that has been idle long enough to refill completely is
+ * the same as a new one, so {@link #evictIdle()} drops it. And each stripe holds at most its share
+ * of {@code max-buckets}; past that the least recently used bucket is dropped, which at worst gives
+ * that customer a full bucket again.
+ */
+@Service
+@Slf4j
+public class CustomerRateLimiter {
+
+    private final boolean enabled;
+    private final TierLimits defaultTier;
+    private final Map<String, TierLimits> customerTiers = new HashMap<>();
+    private final Stripe[] stripes;
+    private final long idleTimeoutNanos;
+    private final LongSupplier nanoTime;
+
+    @Autowired
+    public CustomerRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    public CustomerRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        this.enabled = properties.enabled();
+        this.nanoTime = nanoTime;
+        this.idleTimeoutNanos = properties.idleTimeout().toNanos();
+
+        Map<String, TierLimits> tiers = new HashMap<>();
+        properties.tiers().forEach((name, tier) -> tiers.put(name, new TierLimits(name, tier, meterRegistry)));
+        this.defaultTier = enabled ? requireTier(tiers, properties.defaultTier()) : null;
+        properties.customers().forEach((customerId, tier) -> customerTiers.put(customerId, requireTier(tiers, tier)));
+
+        int stripeCount = Math.max(1, Integer.highestOneBit(properties.stripes() - 1) << 1);
+        int capacity = Math.max(1, properties.maxBuckets() / stripeCount);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(capacity);
+        }
+
+        Gauge.builder("order.ratelimit.buckets", this, CustomerRateLimiter::bucketCount)
+                .description("Customers with a token bucket in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes one token from the customer's bucket, or fails with {@link RateLimitExceededException}
+     * carrying how long until the next token.
+     */
+    public void acquire(String customerId) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        TierLimits tier = customerTiers.getOrDefault(customerId, defaultTier);
+        Stripe stripe = stripeFor(customerId);
+        long waitNanos;
+        synchronized (stripe) {
+            waitNanos = stripe.take(customerId, tier, nanoTime.getAsLong());
+        }
+        tier.decisionTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (waitNanos > 0) {
+            tier.rejectedCounter.increment();
+            throw new RateLimitExceededException(customerId, tier.name,
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)));
+        }
+        tier.allowedCounter.increment();
+    }
+
+    @Scheduled(fixedDelayString = "${order.rate-limit.eviction-interval-ms:10000}")
+    public void evictIdle() {
+        long now = nanoTime.getAsLong();
+        int evicted = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                evicted += stripe.evictIdle(now, idleTimeoutNanos);
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} idle rate limit buckets", evicted);
+        }
+    }
+
+    private Stripe stripeFor(String customerId) {
+        int hash = customerId.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private int bucketCount() {
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                count += stripe.buckets.size();
+            }
+        }
+        return count;
+    }
+
+    private static TierLimits requireTier(Map<String, TierLimits> tiers, String name) {
+        TierLimits tier = tiers.get(name);
+        if (tier == null) {
+            throw new IllegalStateException("Unknown rate limit tier: " + name);
+        }
+        return tier;
+    }
+
+    private static final class TierLimits {
+
+        private final String name;
+        private final double burst;
+        private final double tokensPerNano;
+        private final Timer decisionTimer;
+        private final Counter allowedCounter;
+        private final Counter rejectedCounter;
+
+        TierLimits(String name, RateLimitProperties.Tier tier, MeterRegistry meterRegistry) {
+            if (tier.burst() < 1 || tier.refillPerSecond() <= 0) {
+                throw new IllegalStateException("Rate limit tier " + name + " needs burst >= 1 and refillPerSecond > 0");
+            }
+            this.name = name;
+            this.burst = tier.burst();
+            this.tokensPerNano = tier.refillPerSecond() / 1_000_000_000.0;
+            this.decisionTimer = Timer.builder("order.ratelimit.decision")
+                    .description("Time to decide whether an order is within its customer's limit")
+                    .tag("tier", name)
+                    .register(meterRegistry);
+            this.allowedCounter = counter(meterRegistry, name, "allowed");
+            this.rejectedCounter = counter(meterRegistry, name, "rejected");
+        }
+
+        private static Counter counter(MeterRegistry meterRegistry, String tier, String result) {
+            return Counter.builder("order.ratelimit.requests")
+                    .description("Order creations checked against the per-customer limit, by outcome")
+                    .tag("tier", tier)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
+
+    private static final class Bucket {
+
+        private final TierLimits tier;
+        private double tokens;
+        private long refilledAt;
+
+        Bucket(TierLimits tier, long now) {
+            this.tier = tier;
+            this.tokens = tier.burst;
+            this.refilledAt = now;
+        }
+
+        void refill(long now) {
+            tokens = Math.min(tier.burst, tokens + (now - refilledAt) * tier.tokensPerNano);
+            refilledAt = now;
+        }
+    }
+
+    // Guarded by its own monitor. Access order makes the eldest entry the least recently used
+    private static final class Stripe {
+
+        private final LinkedHashMap<String, Bucket> buckets;
+
+        Stripe(int capacity) {
+            this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        // Returns 0 when a token was taken, otherwise the nanos until one is available
+        long take(String customerId, TierLimits tier, long now) {
+            Bucket bucket = buckets.get(customerId);
+            if (bucket == null || bucket.tier != tier) {
+                bucket = new Bucket(tier, now);
+                buckets.put(customerId, bucket);
+            } else {
+                bucket.refill(now);
+            }
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) / tier.tokensPerNano);
+        }
+
+        int evictIdle(long now, long idleTimeoutNanos) {
+            int evicted = 0;
+            Iterator<Bucket> iterator = buckets.values().iterator();
+            while (iterator.hasNext()) {
+                Bucket bucket = iterator.next();
+                long idle = now - bucket.refilledAt;
+                if (idle < idleTimeoutNanos) {
+                    // Everything after this entry was used more recently
+                    break;
+                }
+                if (bucket.tokens + idle * bucket.tier.tokensPerNano >= bucket.tier.burst) {
+                    iterator.remove();
+                    evicted++;
+                }
+            }
+            return evicted;
+        }
+    }
+}
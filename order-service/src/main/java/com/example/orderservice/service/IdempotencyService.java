@@ -0,0 +1,201 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.IdempotencyToken;
+import com.example.orderservice.dto.OrderRequest;
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.exception.IdempotencyKeyConflictException;
+import com.example.orderservice.exception.InvalidRequestException;
+import com.example.orderservice.model.IdempotencyRecord;
+import com.example.orderservice.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Deduplicates order creation by {@code Idempotency-Key}, scoped to the customer that sent it, so
+ * two customers picking the same key never meet. A bounded in-memory map holds the future of every
+ * recent key, so a retry arriving while the original is still running attaches to it instead of
+ * creating a second order. Keys that are no longer in memory, because of
+ * eviction, a restart or another instance, are resolved from {@code order_idempotency_keys}.
+ * That table is written in the same transaction as the order.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final OrderService orderService;
+    private final ShardRouter shardRouter;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Cache<IdempotencyRecord.Key, InFlight> recent;
+
+    private final Counter executedCounter;
+    private final Counter attachedCounter;
+    private final Counter replayedCounter;
+    private final Counter conflictCounter;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              OrderService orderService,
+                              ShardRouter shardRouter,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${order.idempotency.max-size:100000}") long maxSize,
+                              @Value("${order.idempotency.ttl:24h}") Duration ttl) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.orderService = orderService;
+        this.shardRouter = shardRouter;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+
+        this.executedCounter = counter(meterRegistry, "executed");
+        this.attachedCounter = counter(meterRegistry, "attached");
+        this.replayedCounter = counter(meterRegistry, "replayed");
+        this.conflictCounter = counter(meterRegistry, "conflict");
+    }
+
+    /**
+     * Runs {@code action} at most once per customer and key. Repeats of the same request share the
+     * original outcome. Reusing a key with a different request fails with {@link IdempotencyKeyConflictException}.
+     * A failed execution is forgotten, so the client can retry it.
+     */
+    public CompletableFuture<OrderResponse> execute(String key, OrderRequest request,
+                                                    Function<OrderRequest, CompletableFuture<OrderResponse>> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidRequestException("Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(request);
+        IdempotencyRecord.Key scoped = new IdempotencyRecord.Key(request.getCustomerId(), key);
+        InFlight mine = new InFlight(requestHash, new CompletableFuture<>());
+        InFlight existing = recent.asMap().putIfAbsent(scoped, mine);
+        if (existing != null) {
+            if (!existing.requestHash().equals(requestHash)) {
+                conflictCounter.increment();
+                return CompletableFuture.failedFuture(new IdempotencyKeyConflictException(key));
+            }
+            attachedCounter.increment();
+            return existing.future().thenApply(Function.identity());
+        }
+
+        Optional<CompletableFuture<OrderResponse>> stored = replay(scoped, requestHash);
+        if (stored.isPresent()) {
+            stored.get().whenComplete((order, ex) -> complete(scoped, mine, order, ex));
+            return mine.future().thenApply(Function.identity());
+        }
+
+        executedCounter.increment();
+        request.setIdempotencyToken(new IdempotencyToken(key, requestHash));
+        CompletableFuture<OrderResponse> result;
+        try {
+            result = action.apply(request);
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((order, ex) -> {
+            if (ex != null && isDuplicateKey(ex)) {
+                // Another instance committed the same key first; answer with its order
+                Optional<CompletableFuture<OrderResponse>> winner = replay(scoped, requestHash);
+                if (winner.isPresent()) {
+                    winner.get().whenComplete((won, wonEx) -> complete(scoped, mine, won, wonEx));
+                    return;
+                }
+            }
+            complete(scoped, mine, order, ex);
+        });
+        return mine.future().thenApply(Function.identity());
+    }
+
+    @Scheduled(fixedDelayString = "${order.idempotency.cleanup-interval-ms:3600000}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        int[] deleted = new int[1];
+        shardRouter.forEachShard(shard -> deleted[0] += idempotencyRecordRepository.deleteCreatedBefore(cutoff));
+        if (deleted[0] > 0) {
+            log.info("Purged {} expired idempotency keys", deleted[0]);
+        }
+    }
+
+    // The key was recorded with the order, on the shard of the customer that sent it
+    private Optional<CompletableFuture<OrderResponse>> replay(IdempotencyRecord.Key key, String requestHash) {
+        Optional<IdempotencyRecord> record = shardRouter.callOn(shardRouter.shardForCustomer(key.getCustomerId()),
+                () -> idempotencyRecordRepository.findById(key));
+        if (record.isEmpty()) {
+            return Optional.empty();
+        }
+        if (!record.get().getRequestHash().equals(requestHash)) {
+            conflictCounter.increment();
+            return Optional.of(CompletableFuture.failedFuture(new IdempotencyKeyConflictException(key.getKey())));
+        }
+        replayedCounter.increment();
+        try {
+            return Optional.of(CompletableFuture.completedFuture(orderService.getOrderById(record.get().getOrderId())));
+        } catch (RuntimeException e) {
+            return Optional.of(CompletableFuture.failedFuture(e));
+        }
+    }
+
+    private void complete(IdempotencyRecord.Key key, InFlight inFlight, OrderResponse order, Throwable ex) {
+        if (ex == null) {
+            inFlight.future().complete(order);
+            return;
+        }
+        recent.asMap().remove(key, inFlight);
+        inFlight.future().completeExceptionally(unwrap(ex));
+    }
+
+    private String hash(OrderRequest request) {
+        try {
+            byte[] json = objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint order request", e);
+        }
+    }
+
+    private static boolean isDuplicateKey(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataIntegrityViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("order.idempotency.requests")
+                .description("Order creations carrying an Idempotency-Key, by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record InFlight(String requestHash, CompletableFuture<OrderResponse> future) {}
+}
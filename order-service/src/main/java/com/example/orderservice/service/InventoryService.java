@@ -0,0 +1,369 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderStatusChangedEvent;
+import com.example.orderservice.dto.StockLevel;
+import com.example.orderservice.exception.InvalidRequestException;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.model.ProductStock;
+import com.example.orderservice.model.StockReservation;
+import com.example.orderservice.repository.ProductStockRepository;
+import com.example.orderservice.repository.StockReservationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reserves stock for new orders against {@link StockCounters}, so hot products never wait on a
+ * row lock. Each reservation is also written to {@code stock_reservations} in the order's
+ * transaction. Those rows are the durable record: a product's available stock is always
+ * {@code on_hand} minus its reservation rows, which is how counters are rebuilt after a restart.
+ * Everything else is write-behind. Every {@code order.inventory.flush-interval-ms} the flush:
+ * <ul>
+ *   <li>removes the units of delivered and refunded orders from {@code on_hand}, with one UPDATE
+ *       per product;</li>
+ *   <li>returns the units of cancelled orders, and of orders still PAYMENT_FAILED after
+ *       {@code order.inventory.payment-failed-hold}, to available stock;</li>
+ *   <li>writes the current reserved count of changed products to {@code product_stock}.</li>
+ * </ul>
+ * Cancelled orders are also released right after their status commits. Counters are local to
+ * the instance. Every {@code order.inventory.reconcile-interval-ms} they are corrected from
+ * {@code product_stock} and {@code stock_reservations}, which picks up what other instances
+ * reserved, settled or restocked. Between reconciles, instances can together reserve more than
+ * is available.
+ */
+@Service
+@Slf4j
+public class InventoryService {
+
+    private static final Set<OrderStatus> CONSUMED = EnumSet.of(OrderStatus.DELIVERED, OrderStatus.REFUNDED);
+    private static final Set<OrderStatus> RELEASED = EnumSet.of(OrderStatus.CANCELLED);
+
+    private final ProductStockRepository productStockRepository;
+    private final StockReservationRepository reservationRepository;
+    private final TransactionTemplate newTransaction;
+    private final boolean enabled;
+    private final Duration paymentFailedHold;
+    private final StockCounters counters;
+
+    private final Counter reservedCounter;
+    private final Counter rejectedCounter;
+    private final Counter releasedUnits;
+    private final Counter consumedUnits;
+    private final Counter reconciledCounter;
+
+    public InventoryService(ProductStockRepository productStockRepository,
+                            StockReservationRepository reservationRepository,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${order.inventory.enabled:false}") boolean enabled,
+                            @Value("${order.inventory.payment-failed-hold:10m}") Duration paymentFailedHold) {
+        this.productStockRepository = productStockRepository;
+        this.reservationRepository = reservationRepository;
+        // Also used from after-commit callbacks, where the finished transaction is still bound
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.paymentFailedHold = paymentFailedHold;
+        this.counters = new StockCounters(this::load);
+
+        this.reservedCounter = Counter.builder("order.inventory.reservations")
+                .description("Orders that reserved stock")
+                .tag("result", "reserved")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("order.inventory.reservations")
+                .description("Orders rejected for insufficient stock")
+                .tag("result", "rejected")
+                .register(meterRegistry);
+        this.releasedUnits = Counter.builder("order.inventory.units")
+                .description("Reserved units returned to available stock")
+                .tag("outcome", "released")
+                .register(meterRegistry);
+        this.consumedUnits = Counter.builder("order.inventory.units")
+                .description("Reserved units removed from stock by delivery")
+                .tag("outcome", "consumed")
+                .register(meterRegistry);
+        this.reconciledCounter = Counter.builder("order.inventory.reconciled")
+                .description("Products whose counters were corrected from the database")
+                .register(meterRegistry);
+        FunctionCounter.builder("order.inventory.cas.retries", counters, StockCounters::casRetries)
+                .description("Compare-and-set retries on stock counters; high rates point at hot products")
+                .register(meterRegistry);
+        Gauge.builder("order.inventory.products", counters, StockCounters::size)
+                .description("Products with stock counters in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserves the order's items. Must run inside the transaction that saves the order: the
+     * reservation rows commit with it, and the in-memory units are given back if it rolls back.
+     * Throws {@link com.example.orderservice.exception.InsufficientStockException} when a
+     * product is short, in which case nothing is reserved.
+     */
+    public void reserve(Order order) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Stock must be reserved inside the order's transaction");
+        }
+        Map<String, Long> quantities = new LinkedHashMap<>();
+        for (OrderItem item : order.getItems()) {
+            quantities.merge(item.getProductId(), item.getQuantity().longValue(), Long::sum);
+        }
+
+        Map<String, Long> reserved;
+        try {
+            reserved = counters.reserveAll(quantities);
+        } catch (RuntimeException e) {
+            rejectedCounter.increment();
+            throw e;
+        }
+        if (reserved.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    counters.confirmAll(reserved);
+                } else {
+                    counters.cancelAll(reserved);
+                }
+            }
+        });
+
+        List<StockReservation> rows = new ArrayList<>(reserved.size());
+        reserved.forEach((productId, quantity) -> rows.add(new StockReservation(order.getId(), productId, quantity)));
+        reservationRepository.saveAll(rows);
+        reservedCounter.increment();
+    }
+
+    /**
+     * Applies an amendment's change in quantity per product, inside the amendment's transaction.
+     * Increases are reserved like a new order's items; decreases give back at most what the order
+     * holds of the product, as negative reservation rows, so an order's rows still add up to what
+     * it holds. Returned units become available once the transaction commits.
+     */
+    public void adjust(Long orderId, Map<String, Long> deltas) {
+        if (!enabled || deltas.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Stock must be adjusted inside the order's transaction");
+        }
+        Map<String, Long> increases = new LinkedHashMap<>();
+        Map<String, Long> decreases = new LinkedHashMap<>();
+        deltas.forEach((productId, delta) -> {
+            if (delta > 0) {
+                increases.put(productId, delta);
+            } else if (delta < 0) {
+                decreases.put(productId, -delta);
+            }
+        });
+        Map<String, Long> held = decreases.isEmpty() ? Map.of() : totals(reservationRepository.findByOrderIdForUpdate(orderId));
+        Map<String, Long> returned = new LinkedHashMap<>();
+        decreases.forEach((productId, units) -> {
+            long fromOrder = Math.min(units, held.getOrDefault(productId, 0L));
+            if (fromOrder > 0) {
+                returned.put(productId, fromOrder);
+            }
+        });
+
+        Map<String, Long> reserved;
+        try {
+            reserved = counters.reserveAll(increases);
+        } catch (RuntimeException e) {
+            rejectedCounter.increment();
+            throw e;
+        }
+        if (reserved.isEmpty() && returned.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    counters.confirmAll(reserved);
+                } else {
+                    counters.cancelAll(reserved);
+                }
+            }
+        });
+        if (!returned.isEmpty()) {
+            applyOnCommit(() -> {
+                counters.releaseAll(returned);
+                returned.values().forEach(releasedUnits::increment);
+            });
+        }
+
+        List<StockReservation> rows = new ArrayList<>(reserved.size() + returned.size());
+        reserved.forEach((productId, quantity) -> rows.add(new StockReservation(orderId, productId, quantity)));
+        returned.forEach((productId, quantity) -> rows.add(new StockReservation(orderId, productId, -quantity)));
+        reservationRepository.saveAll(rows);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onStatusChanged(OrderStatusChangedEvent event) {
+        if (enabled && RELEASED.contains(event.status())) {
+            release(event.orderId());
+        }
+    }
+
+    // Returns the order's reserved units to available stock; a no-op if they were already settled
+    public void release(Long orderId) {
+        newTransaction.executeWithoutResult(status -> {
+            List<StockReservation> rows = reservationRepository.findByOrderIdForUpdate(orderId);
+            if (rows.isEmpty()) {
+                return;
+            }
+            reservationRepository.deleteAllInBatch(rows);
+            Map<String, Long> released = totals(rows);
+            applyOnCommit(() -> {
+                counters.releaseAll(released);
+                released.values().forEach(releasedUnits::increment);
+            });
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${order.inventory.flush-interval-ms:1000}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        newTransaction.executeWithoutResult(status -> {
+            List<StockReservation> consumed = reservationRepository.findByOrderStatusInForUpdate(CONSUMED);
+            List<StockReservation> released = new ArrayList<>(reservationRepository.findByOrderStatusInForUpdate(RELEASED));
+            released.addAll(reservationRepository.findByPaymentFailedBeforeForUpdate(now.minus(paymentFailedHold)));
+            if (consumed.isEmpty() && released.isEmpty()) {
+                return;
+            }
+
+            Map<String, Long> consumedTotals = totals(consumed);
+            Map<String, Long> releasedTotals = totals(released);
+            consumedTotals.forEach((productId, quantity) -> productStockRepository.addOnHand(productId, -quantity, now));
+            reservationRepository.deleteAllInBatch(consumed);
+            reservationRepository.deleteAllInBatch(released);
+            applyOnCommit(() -> {
+                counters.consumeAll(consumedTotals);
+                counters.releaseAll(releasedTotals);
+                consumedTotals.values().forEach(consumedUnits::increment);
+                releasedTotals.values().forEach(releasedUnits::increment);
+            });
+        });
+
+        newTransaction.executeWithoutResult(status -> counters.forEachDirty((productId, stock) ->
+                productStockRepository.updateReserved(productId, stock.reserved(), now)));
+    }
+
+    // Adds units to a product's stock, starting to track it if it was not tracked yet
+    @Transactional
+    public void restock(String productId, long units) {
+        if (units <= 0) {
+            throw new InvalidRequestException("Restock units must be positive");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (productStockRepository.addOnHand(productId, units, now) == 0) {
+            productStockRepository.save(new ProductStock(productId, units, 0, now));
+        }
+        applyOnCommit(() -> counters.restock(productId, units));
+        log.info("Restocked {} units of product {}", units, productId);
+    }
+
+    // Corrects counters for what other instances committed since the last reconcile
+    @Scheduled(fixedDelayString = "${order.inventory.reconcile-interval-ms:5000}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        int corrected = counters.reconcile(this::loadAll);
+        if (corrected > 0) {
+            reconciledCounter.increment(corrected);
+            log.info("Corrected stock counters of {} products from the database", corrected);
+        }
+    }
+
+    public Optional<StockLevel> getStockLevel(String productId) {
+        StockCounters.Stock stock = counters.get(productId);
+        return stock == null ? Optional.empty()
+                : Optional.of(new StockLevel(productId, stock.onHand(), stock.available(), stock.reserved()));
+    }
+
+    // Available = on hand minus every committed reservation, so a restart loses nothing
+    private StockCounters.Stock load(String productId) {
+        return loadAll(List.of(productId)).get(productId);
+    }
+
+    private Map<String, StockCounters.Stock> loadAll(Collection<String> productIds) {
+        return productStockRepository.findLevelsByProductIdIn(productIds).stream()
+                .collect(Collectors.toMap(StockLevel::productId,
+                        level -> new StockCounters.Stock(level.onHand(), level.available())));
+    }
+
+    /**
+     * Runs {@code apply} once the current transaction commits. Loads are blocked from just before
+     * the commit until it has run, so a product first loaded in between, which already sees the
+     * committed rows, does not get the change applied a second time.
+     */
+    private void applyOnCommit(Runnable apply) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean blocked;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                // Writes go out now, so the commit does not wait on row locks while loads are blocked
+                reservationRepository.flush();
+                counters.blockLoads();
+                blocked = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (!blocked) {
+                    return;
+                }
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        apply.run();
+                    }
+                } finally {
+                    counters.unblockLoads();
+                }
+            }
+        });
+    }
+
+    private static Map<String, Long> totals(Collection<StockReservation> rows) {
+        Map<String, Long> totals = new LinkedHashMap<>();
+        rows.forEach(row -> totals.merge(row.getProductId(), row.getQuantity(), Long::sum));
+        return totals;
+    }
+}
@@ -3,24 +3,28 @@
 // ============================================
 package com.example.orderservice.service;
 
-import com.example.orderservice.dto.OrderEvent;
+import com.example.orderservice.model.OutboxEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class KafkaProducerService {
 
-    private static final String ORDER_CREATED_TOPIC = "order.created";
+    public static final String ORDER_CREATED_TOPIC = "order.created";
+    public static final String ORDER_CANCELLED_TOPIC = "order.cancelled";
+    public static final String ORDER_UPDATED_TOPIC = "order.updated";
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final KafkaTemplate<String, String> kafkaTemplate;
 
-    public void sendOrderCreatedEvent(OrderEvent event) {
-        log.info("Publishing order created event to Kafka: {}", event.getOrderNumber());
-        kafkaTemplate.send(ORDER_CREATED_TOPIC, event.getOrderNumber(), event);
-        log.info("Order created event published successfully");
+    public CompletableFuture<SendResult<String, String>> sendOutboxEvent(OutboxEvent event) {
+        log.debug("Publishing {} event to {}: {}", event.getEventType(), event.getTopic(), event.getEventKey());
+        return kafkaTemplate.send(event.getTopic(), event.getEventKey(), event.getPayload());
     }
-}
\ No newline at end of file
+}
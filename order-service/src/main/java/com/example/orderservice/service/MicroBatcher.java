@@ -0,0 +1,116 @@
+package com.example.orderservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Bounded queue drained by one thread in batches: the thread waits for a first item, then
+ * gathers up to {@code maxBatchSize} items, lingering at most {@code lingerNanos} after the
+ * first for the batch to fill, and hands the batch to the handler. Every item carries a future.
+ * Items the handler fails to complete when it throws, and items still queued or mid-batch when
+ * the batcher stops, fail with that exception or a {@link RejectedExecutionException}.
+ */
+@Slf4j
+public class MicroBatcher<T> {
+
+    private final String name;
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private final BlockingQueue<T> queue;
+    private final Function<T, CompletableFuture<?>> futureOf;
+    private final Consumer<List<T>> handler;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public MicroBatcher(String name, int maxBatchSize, long lingerNanos, int queueCapacity,
+                        Function<T, CompletableFuture<?>> futureOf, Consumer<List<T>> handler) {
+        this.name = name;
+        this.maxBatchSize = maxBatchSize;
+        this.lingerNanos = lingerNanos;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.futureOf = futureOf;
+        this.handler = handler;
+    }
+
+    // False when the queue is full; the caller decides whether to fall back or reject
+    public boolean offer(T item) {
+        return queue.offer(item);
+    }
+
+    public int queueSize() {
+        return queue.size();
+    }
+
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        // Anything still queued was never handled
+        List<T> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        fail(remaining, stopped());
+    }
+
+    private void run() {
+        List<T> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                T first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < maxBatchSize) {
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    T next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                handler.accept(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(batch, stopped());
+                return;
+            } catch (RuntimeException e) {
+                // Keep the thread alive; only this batch's callers see the failure
+                log.error("{} failed a batch of {}", name, batch.size(), e);
+                fail(batch, e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void fail(List<T> items, Throwable cause) {
+        items.forEach(item -> futureOf.apply(item).completeExceptionally(cause));
+    }
+
+    private RejectedExecutionException stopped() {
+        return new RejectedExecutionException(name + " stopped");
+    }
+}
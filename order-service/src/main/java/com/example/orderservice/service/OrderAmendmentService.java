@@ -0,0 +1,275 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderAmendedEvent;
+import com.example.orderservice.dto.OrderAmendmentRequest;
+import com.example.orderservice.dto.OrderItemRequest;
+import com.example.orderservice.dto.OrderItemResponse;
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.dto.OrderUpdatedEvent;
+import com.example.orderservice.exception.InvalidRequestException;
+import com.example.orderservice.exception.OrderNotAmendableException;
+import com.example.orderservice.exception.OrderNotFoundException;
+import com.example.orderservice.exception.OrderVersionConflictException;
+import com.example.orderservice.model.Money;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Amends the items and delivery address of orders whose payment has not been captured, with
+ * optimistic concurrency on {@link Order#getVersion()}. Each amendment goes out on
+ * {@code order.updated} through the outbox as an {@code ORDER_UPDATED} delta holding only the
+ * changed fields and items. Every {@code order.amendments.snapshot-every}-th amendment of an order
+ * is sent as a full {@code ORDER_SNAPSHOT} instead, so consumers that missed a delta catch up
+ * without reading the order back.
+ */
+@Service
+@Slf4j
+public class OrderAmendmentService {
+
+    public static final String ORDER_UPDATED = "ORDER_UPDATED";
+    public static final String ORDER_SNAPSHOT = "ORDER_SNAPSHOT";
+
+    private static final Set<OrderStatus> AMENDABLE =
+            EnumSet.of(OrderStatus.CREATED, OrderStatus.PAYMENT_PENDING, OrderStatus.PAYMENT_FAILED);
+
+    private final OrderRepository orderRepository;
+    private final OrderService orderService;
+    private final OutboxService outboxService;
+    private final OrderResponseCache orderResponseCache;
+    private final InventoryService inventoryService;
+    private final ProductPriceCatalog productPriceCatalog;
+    private final ShardRouter shardRouter;
+    private final ReplicaRouter replicaRouter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int snapshotEvery;
+
+    private final Counter deltaCounter;
+    private final Counter snapshotCounter;
+    private final Counter conflictCounter;
+
+    public OrderAmendmentService(OrderRepository orderRepository,
+                                 OrderService orderService,
+                                 OutboxService outboxService,
+                                 OrderResponseCache orderResponseCache,
+                                 InventoryService inventoryService,
+                                 ProductPriceCatalog productPriceCatalog,
+                                 ShardRouter shardRouter,
+                                 ReplicaRouter replicaRouter,
+                                 ApplicationEventPublisher eventPublisher,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${order.amendments.snapshot-every:20}") int snapshotEvery) {
+        if (snapshotEvery < 1) {
+            throw new IllegalArgumentException("order.amendments.snapshot-every must be at least 1");
+        }
+        this.orderRepository = orderRepository;
+        this.orderService = orderService;
+        this.outboxService = outboxService;
+        this.orderResponseCache = orderResponseCache;
+        this.inventoryService = inventoryService;
+        this.productPriceCatalog = productPriceCatalog;
+        this.shardRouter = shardRouter;
+        this.replicaRouter = replicaRouter;
+        this.eventPublisher = eventPublisher;
+        this.snapshotEvery = snapshotEvery;
+
+        this.deltaCounter = counter(meterRegistry, "delta");
+        this.snapshotCounter = counter(meterRegistry, "snapshot");
+        this.conflictCounter = counter(meterRegistry, "conflict");
+    }
+
+    /**
+     * Applies {@code request} if the order is still at the version it names. Items are removed,
+     * then changed, then added. An amendment that changes nothing returns the order as it is,
+     * without a new version or event.
+     */
+    @Transactional
+    public OrderResponse amendOrder(Long orderId, OrderAmendmentRequest request) {
+        shardRouter.bind(shardRouter.shardOfOrderId(orderId));
+        Order order = orderRepository.findWithItemsById(orderId)
+                .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + orderId));
+        if (!Objects.equals(order.getVersion(), request.getVersion())) {
+            conflictCounter.increment();
+            throw new OrderVersionConflictException(orderId, request.getVersion());
+        }
+        if (!AMENDABLE.contains(order.getStatus())) {
+            throw new OrderNotAmendableException(orderId, order.getStatus());
+        }
+
+        Amendment amendment = apply(order, request);
+        if (amendment.isEmpty()) {
+            return orderService.mapToResponse(order);
+        }
+        Money previousTotal = order.getTotalAmount();
+        order.calculateTotalAmount();
+        // Always dirties the order, so the flush bumps the version once, guarded by the version read above
+        order.setRevision(order.getRevision() + 1);
+        inventoryService.adjust(orderId, amendment.stockDeltas());
+        try {
+            orderRepository.flush();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            conflictCounter.increment();
+            throw new OrderVersionConflictException(orderId, request.getVersion());
+        }
+
+        OrderUpdatedEvent event;
+        if (order.getRevision() % snapshotEvery == 0) {
+            event = snapshotEvent(order);
+            snapshotCounter.increment();
+        } else {
+            event = deltaEvent(order, amendment, previousTotal);
+            deltaCounter.increment();
+        }
+        outboxService.enqueue(KafkaProducerService.ORDER_UPDATED_TOPIC, orderId, order.getOrderNumber(),
+                event.getEventType(), event);
+        eventPublisher.publishEvent(new OrderAmendedEvent(orderId, order.getStatus(), order.getUpdatedAt()));
+
+        replicaRouter.recordUpdated(orderId, order.getOrderNumber());
+        orderResponseCache.evict(orderId);
+        log.info("Order {} amended to version {}", orderId, order.getVersion());
+        return orderService.mapToResponse(order);
+    }
+
+    private Amendment apply(Order order, OrderAmendmentRequest request) {
+        Map<Long, OrderItem> itemsById = order.getItems().stream()
+                .collect(Collectors.toMap(OrderItem::getId, Function.identity()));
+        Map<String, Long> stockDeltas = new LinkedHashMap<>();
+
+        boolean addressChanged = request.getDeliveryAddress() != null
+                && !request.getDeliveryAddress().equals(order.getDeliveryAddress());
+        if (addressChanged) {
+            order.setDeliveryAddress(request.getDeliveryAddress());
+        }
+
+        Set<Long> removed = new LinkedHashSet<>();
+        for (Long itemId : request.getRemoveItemIds()) {
+            OrderItem item = itemOf(order, itemsById, itemId);
+            if (removed.add(itemId)) {
+                order.getItems().removeIf(candidate -> candidate == item);
+                stockDeltas.merge(item.getProductId(), -item.getQuantity().longValue(), Long::sum);
+            }
+        }
+
+        Map<Long, OrderItem> changed = new LinkedHashMap<>();
+        for (OrderAmendmentRequest.ItemQuantity change : request.getChangeItems()) {
+            OrderItem item = itemOf(order, itemsById, change.getItemId());
+            if (removed.contains(item.getId())) {
+                throw new InvalidRequestException("Item " + item.getId() + " cannot be both removed and changed");
+            }
+            if (!item.getQuantity().equals(change.getQuantity())) {
+                stockDeltas.merge(item.getProductId(), (long) change.getQuantity() - item.getQuantity(), Long::sum);
+                item.setQuantity(change.getQuantity());
+                item.calculateTotalPrice();
+                changed.put(item.getId(), item);
+            }
+        }
+
+        List<OrderItem> added = new ArrayList<>();
+        for (OrderItemRequest itemRequest : request.getAddItems()) {
+            OrderItem item = new OrderItem();
+            item.setProductId(itemRequest.getProductId());
+            item.setProductName(itemRequest.getProductName());
+            item.setQuantity(itemRequest.getQuantity());
+            item.setUnitPrice(productPriceCatalog.unitPriceFor(itemRequest.getProductId(), itemRequest.getUnitPrice()));
+            order.addItem(item);
+            added.add(item);
+            stockDeltas.merge(item.getProductId(), item.getQuantity().longValue(), Long::sum);
+        }
+
+        if (order.getItems().isEmpty()) {
+            throw new InvalidRequestException("Order must contain at least one item");
+        }
+        stockDeltas.values().removeIf(delta -> delta == 0);
+        return new Amendment(addressChanged, List.copyOf(removed), List.copyOf(changed.values()), added, stockDeltas);
+    }
+
+    private OrderItem itemOf(Order order, Map<Long, OrderItem> itemsById, Long itemId) {
+        OrderItem item = itemsById.get(itemId);
+        if (item == null) {
+            throw new InvalidRequestException("Order " + order.getId() + " has no item " + itemId);
+        }
+        return item;
+    }
+
+    private OrderUpdatedEvent deltaEvent(Order order, Amendment amendment, Money previousTotal) {
+        return OrderUpdatedEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType(ORDER_UPDATED)
+                .orderId(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .version(order.getVersion())
+                .revision(order.getRevision())
+                .timestamp(LocalDateTime.now())
+                .deliveryAddress(amendment.addressChanged() ? order.getDeliveryAddress() : null)
+                .totalAmount(order.getTotalAmount().equals(previousTotal) ? null : order.getTotalAmount())
+                .addedItems(amendment.added().isEmpty() ? null : amendment.added().stream()
+                        .map(orderService::mapItemToResponse)
+                        .collect(Collectors.toList()))
+                .changedItems(amendment.changed().isEmpty() ? null : amendment.changed().stream()
+                        .map(item -> new OrderUpdatedEvent.ItemQuantityChange(item.getId(), item.getQuantity(),
+                                item.getTotalPrice()))
+                        .collect(Collectors.toList()))
+                .removedItemIds(amendment.removed().isEmpty() ? null : amendment.removed())
+                .build();
+    }
+
+    private OrderUpdatedEvent snapshotEvent(Order order) {
+        List<OrderItemResponse> items = order.getItems().stream()
+                .map(orderService::mapItemToResponse)
+                .collect(Collectors.toList());
+        return OrderUpdatedEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType(ORDER_SNAPSHOT)
+                .orderId(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .version(order.getVersion())
+                .revision(order.getRevision())
+                .timestamp(LocalDateTime.now())
+                .customerId(order.getCustomerId())
+                .customerName(order.getCustomerName())
+                .customerEmail(order.getCustomerEmail())
+                .customerPhone(order.getCustomerPhone())
+                .deliveryAddress(order.getDeliveryAddress())
+                .totalAmount(order.getTotalAmount())
+                .status(order.getStatus())
+                .items(items)
+                .build();
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("order.amendments")
+                .description("Order amendments, by the event published or conflict")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Amendment(boolean addressChanged, List<Long> removed, List<OrderItem> changed,
+                             List<OrderItem> added, Map<String, Long> stockDeltas) {
+
+        boolean isEmpty() {
+            return !addressChanged && removed.isEmpty() && changed.isEmpty() && added.isEmpty();
+        }
+    }
+}
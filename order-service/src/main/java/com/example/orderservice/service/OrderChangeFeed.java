@@ -0,0 +1,177 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderAmendedEvent;
+import com.example.orderservice.dto.OrderChangeBatch;
+import com.example.orderservice.dto.OrderChangeResponse;
+import com.example.orderservice.dto.OrderStatusChangedEvent;
+import com.example.orderservice.model.OrderChange;
+import com.example.orderservice.model.OrderChangeSequence;
+import com.example.orderservice.repository.OrderChangeRepository;
+import com.example.orderservice.repository.OrderChangeSequenceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Change feed of order creations, status changes and amendments, numbered by a global sequence that only
+ * grows in the order entries become visible. Entries are written to {@code order_changes} in the
+ * transaction of the change itself, without a number. Every {@code order.changes.sequence-interval-ms}
+ * the sequencer takes the row lock on {@code order_change_sequences}, numbers the unnumbered
+ * entries and commits. Numbers are only given out after the entries commit, and by one sequencer
+ * at a time, so a reader that has seen seq N will never see a lower seq appear later. Without this,
+ * two concurrent transactions could commit in the opposite order to their ids.
+ *
+ * <p>Readers page by seq through {@code idx_order_changes_seq}. A reader that is caught up waits
+ * up to {@code order.changes.long-poll-timeout} and is answered as soon as a sequencer run on any
+ * instance moves the high-water mark past its position.
+ */
+@Service
+@Slf4j
+public class OrderChangeFeed {
+
+    private static final String SEQUENCE_NAME = "order_changes";
+    public static final int MAX_LIMIT = 1000;
+
+    private final OrderChangeRepository orderChangeRepository;
+    private final OrderChangeSequenceRepository sequenceRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int sequenceBatchSize;
+    private final long longPollTimeoutMillis;
+
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+    private volatile long highWaterMark;
+
+    private final Counter sequencedCounter;
+
+    public OrderChangeFeed(OrderChangeRepository orderChangeRepository,
+                           OrderChangeSequenceRepository sequenceRepository,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${order.changes.enabled:false}") boolean enabled,
+                           @Value("${order.changes.sequence-batch-size:1000}") int sequenceBatchSize,
+                           @Value("${order.changes.long-poll-timeout:25s}") Duration longPollTimeout) {
+        this.orderChangeRepository = orderChangeRepository;
+        this.sequenceRepository = sequenceRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.sequenceBatchSize = sequenceBatchSize;
+        this.longPollTimeoutMillis = longPollTimeout.toMillis();
+
+        this.sequencedCounter = Counter.builder("order.changes.sequenced")
+                .description("Change feed entries given a sequence number")
+                .register(meterRegistry);
+        Gauge.builder("order.changes.high_water_mark", this, feed -> feed.highWaterMark)
+                .description("Highest sequence number visible to feed readers")
+                .register(meterRegistry);
+        Gauge.builder("order.changes.waiters", waiters, Set::size)
+                .description("Caught-up readers waiting for new changes")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Runs inside the transaction that made the change, so the entry commits or rolls back with it
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onStatusChanged(OrderStatusChangedEvent event) {
+        if (enabled) {
+            orderChangeRepository.save(new OrderChange(event.orderId(), event.status(), event.changedAt()));
+        }
+    }
+
+    // Amendments keep the status, so their entry repeats it with the time of the amendment
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onAmended(OrderAmendedEvent event) {
+        if (enabled) {
+            orderChangeRepository.save(new OrderChange(event.orderId(), event.status(), event.amendedAt()));
+        }
+    }
+
+    /**
+     * Changes after {@code after}, oldest first. Completes at once when there are any, otherwise
+     * when the next ones are numbered or, with an empty batch, when the long-poll timeout passes.
+     */
+    public DeferredResult<OrderChangeBatch> poll(long after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        DeferredResult<OrderChangeBatch> result = new DeferredResult<>(longPollTimeoutMillis,
+                new OrderChangeBatch(List.of(), after));
+        if (after < highWaterMark && complete(after, pageSize, result)) {
+            return result;
+        }
+        Waiter waiter = new Waiter(after, pageSize, result);
+        waiters.add(waiter);
+        result.onCompletion(() -> waiters.remove(waiter));
+        // The high-water mark may have moved between the read and registering
+        if (after < highWaterMark) {
+            complete(after, pageSize, result);
+        }
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${order.changes.sequence-interval-ms:100}")
+    public void sequence() {
+        if (!enabled) {
+            return;
+        }
+        int sequenced;
+        do {
+            Integer count = transactionTemplate.execute(status -> sequenceBatch());
+            sequenced = count != null ? count : 0;
+        } while (sequenced == sequenceBatchSize);
+
+        // Also picks up entries numbered by other instances
+        highWaterMark = orderChangeRepository.findMaxSeq();
+        for (Waiter waiter : waiters) {
+            if (waiter.after() < highWaterMark) {
+                complete(waiter.after(), waiter.limit(), waiter.result());
+            }
+        }
+    }
+
+    private int sequenceBatch() {
+        OrderChangeSequence sequence = sequenceRepository.findByNameForUpdate(SEQUENCE_NAME)
+                .orElseGet(() -> sequenceRepository.saveAndFlush(new OrderChangeSequence(SEQUENCE_NAME, 0)));
+        List<OrderChange> pending = orderChangeRepository.findBySeqIsNullOrderByIdAsc(PageRequest.of(0, sequenceBatchSize));
+        long seq = sequence.getLastSeq();
+        for (OrderChange change : pending) {
+            change.setSeq(++seq);
+        }
+        sequence.setLastSeq(seq);
+        sequencedCounter.increment(pending.size());
+        return pending.size();
+    }
+
+    private boolean complete(long after, int limit, DeferredResult<OrderChangeBatch> result) {
+        List<OrderChangeResponse> changes = orderChangeRepository
+                .findBySeqGreaterThanOrderBySeqAsc(after, PageRequest.of(0, limit)).stream()
+                .map(change -> new OrderChangeResponse(change.getSeq(), change.getOrderId(), change.getStatus(),
+                        change.getChangedAt()))
+                .toList();
+        if (changes.isEmpty()) {
+            return false;
+        }
+        return result.setResult(new OrderChangeBatch(changes, changes.get(changes.size() - 1).seq()));
+    }
+
+    private record Waiter(long after, int limit, DeferredResult<OrderChangeBatch> result) {}
+}
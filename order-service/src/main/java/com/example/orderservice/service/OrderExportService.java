@@ -0,0 +1,180 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderExportRow;
+import com.example.orderservice.dto.OrderExportSummary;
+import com.example.orderservice.model.ExportCheckpoint;
+import com.example.orderservice.repository.ExportCheckpointRepository;
+import com.example.orderservice.repository.OrderChangeRepository;
+import com.example.orderservice.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.arrow.vector.compression.CompressionUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Incremental export of order lines to compressed Arrow files for reporting, so analysts can
+ * query files instead of the live orders table. Runs are driven by the {@link OrderChangeFeed}:
+ * each one exports the current lines of every order with a change numbered since the last
+ * checkpoint, streamed through a forward-only cursor and written with {@link OrderLinesArrowWriter}.
+ * Feed numbers are only given out after the change commits and never go backwards, so a slow
+ * transaction is picked up by the run after it commits instead of falling behind the checkpoint.
+ * The checkpoint moves only after the run's files are in place. A crash can therefore repeat rows
+ * in the next run but never drop them; readers should keep the latest {@code updated_at} per
+ * {@code (order_id, item_id)}.
+ *
+ * <p>A run holds the checkpoint row, taken with {@code SKIP LOCKED}, until the checkpoint moves.
+ * When every instance fires the cron, one of them exports and the others skip the run.
+ */
+@Service
+@Slf4j
+public class OrderExportService {
+
+    static final String CHECKPOINT = "order_lines";
+
+    private static final DateTimeFormatter RUN_ID = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmssSSS", Locale.ROOT);
+
+    private final OrderRepository orderRepository;
+    private final OrderChangeRepository orderChangeRepository;
+    private final ExportCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final Path directory;
+    private final int batchRows;
+    private final CompressionUtil.CodecType codec;
+
+    private final Counter rowCounter;
+    private final Timer runTimer;
+
+    public OrderExportService(OrderRepository orderRepository,
+                              OrderChangeRepository orderChangeRepository,
+                              ExportCheckpointRepository checkpointRepository,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${order.export.enabled:false}") boolean enabled,
+                              @Value("${order.export.directory:./exports/orders}") Path directory,
+                              @Value("${order.export.batch-rows:8192}") int batchRows,
+                              @Value("${order.export.compression:lz4_frame}") String compression,
+                              @Value("${order.changes.enabled:false}") boolean changesEnabled) {
+        if (enabled && !changesEnabled) {
+            throw new IllegalStateException("order.export.enabled needs order.changes.enabled");
+        }
+        this.orderRepository = orderRepository;
+        this.orderChangeRepository = orderChangeRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Its own transaction, so the rows can still be read from a replica while the checkpoint is held
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.directory = directory;
+        this.batchRows = batchRows;
+        this.codec = CompressionUtil.CodecType.valueOf(compression.toUpperCase(Locale.ROOT));
+
+        this.rowCounter = Counter.builder("order.export.rows")
+                .description("Order lines written to export files")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("order.export.duration")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${order.export.cron:0 15 * * * *}")
+    public void scheduledExport() {
+        if (enabled) {
+            export();
+        }
+    }
+
+    // Empty when a run on another instance holds the checkpoint
+    public Optional<OrderExportSummary> export() {
+        return Optional.ofNullable(transactionTemplate.execute(status -> {
+            ExportCheckpoint checkpoint = claim();
+            if (checkpoint == null) {
+                log.debug("Order export is running on another instance");
+                return null;
+            }
+            return export(checkpoint);
+        }));
+    }
+
+    private ExportCheckpoint claim() {
+        Optional<ExportCheckpoint> checkpoint = checkpointRepository.findByNameSkipLocked(CHECKPOINT);
+        if (checkpoint.isPresent()) {
+            return checkpoint.get();
+        }
+        if (checkpointRepository.existsById(CHECKPOINT)) {
+            return null;
+        }
+        // First run on this database; the inserted row stays locked until the run commits
+        return checkpointRepository.saveAndFlush(new ExportCheckpoint(CHECKPOINT, 0L, null));
+    }
+
+    private OrderExportSummary export(ExportCheckpoint checkpoint) {
+        long start = System.nanoTime();
+        long afterSeq = checkpoint.getLastSeq();
+        long upToSeq = orderChangeRepository.findMaxSeq();
+        String fileName = "order_lines-" + RUN_ID.format(LocalDateTime.now()) + ".arrow";
+
+        long[] counts = new long[2];
+        List<Path> files;
+        try (OrderLinesArrowWriter writer = new OrderLinesArrowWriter(directory, fileName, batchRows, codec)) {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                if (upToSeq <= afterSeq) {
+                    return;
+                }
+                try (Stream<OrderExportRow> rows = orderRepository.streamForExport(afterSeq, upToSeq)) {
+                    Iterator<OrderExportRow> iterator = rows.iterator();
+                    Long lastOrderId = null;
+                    while (iterator.hasNext()) {
+                        OrderExportRow row = iterator.next();
+                        writer.write(row);
+                        counts[0]++;
+                        if (!row.orderId().equals(lastOrderId)) {
+                            counts[1]++;
+                            lastOrderId = row.orderId();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            files = writer.commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Order export failed", e);
+        }
+
+        checkpoint.setLastSeq(upToSeq);
+        checkpoint.setExportedAt(LocalDateTime.now());
+
+        long elapsedNanos = System.nanoTime() - start;
+        runTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        rowCounter.increment(counts[0]);
+        OrderExportSummary summary = new OrderExportSummary(counts[0], counts[1], files.size(),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                elapsedNanos > 0 ? counts[0] / (elapsedNanos / 1_000_000_000.0) : 0, upToSeq);
+        log.info("Exported {} order lines ({} orders) to {} files in {} ms ({} rows/sec)",
+                summary.rows(), summary.orders(), summary.files(), summary.elapsedMs(),
+                String.format("%.0f", summary.rowsPerSecond()));
+        return summary;
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderRequest;
+import com.example.orderservice.dto.OrderResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in group-commit path for order creation. Requests are queued and a single writer
+ * thread coalesces up to {@code batch-size} of them, waiting at most {@code max-linger-ms}
+ * for a batch to fill, into one transaction. Each caller's future completes once the
+ * shared commit has landed.
+ */
+@Component
+@Slf4j
+public class OrderGroupCommitWriter {
+
+    private final OrderService orderService;
+    private final ShardRouter shardRouter;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long maxLingerMs;
+    private final MicroBatcher<PendingOrder> batcher;
+
+    private final Counter commitCounter;
+    private final Counter orderCounter;
+    private final DistributionSummary batchSizeSummary;
+
+    public OrderGroupCommitWriter(OrderService orderService,
+                                  ShardRouter shardRouter,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${order.group-commit.enabled:false}") boolean enabled,
+                                  @Value("${order.group-commit.batch-size:100}") int batchSize,
+                                  @Value("${order.group-commit.max-linger-ms:5}") long maxLingerMs,
+                                  @Value("${order.group-commit.queue-capacity:1000}") int queueCapacity) {
+        this.orderService = orderService;
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxLingerMs = maxLingerMs;
+        this.batcher = new MicroBatcher<>("order-group-commit", batchSize,
+                TimeUnit.MILLISECONDS.toNanos(maxLingerMs), queueCapacity, PendingOrder::future, this::commit);
+
+        this.commitCounter = Counter.builder("order.group_commit.commits")
+                .description("Transactions committed by the group-commit writer")
+                .register(meterRegistry);
+        this.orderCounter = Counter.builder("order.group_commit.orders")
+                .description("Orders persisted by the group-commit writer")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("order.group_commit.batch.size")
+                .register(meterRegistry);
+        Gauge.builder("order.group_commit.queue.size", batcher, MicroBatcher::queueSize)
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CompletableFuture<OrderResponse> submit(OrderRequest request) {
+        PendingOrder pending = new PendingOrder(request, new CompletableFuture<>());
+        if (!batcher.offer(pending)) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Group commit queue is full"));
+        }
+        return pending.future();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        batcher.start();
+        log.info("Group commit enabled: batchSize={}, maxLingerMs={}", batchSize, maxLingerMs);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        batcher.stop();
+    }
+
+    // One transaction per shard; only a sharded store ever splits a batch
+    private void commit(List<PendingOrder> batch) {
+        shardRouter.groupByShard(batch, pending -> shardRouter.shardForCustomer(pending.request().getCustomerId()))
+                .values()
+                .forEach(this::commitGroup);
+    }
+
+    private void commitGroup(List<PendingOrder> batch) {
+        try {
+            complete(batch, orderService.createOrders(requestsOf(batch)));
+        } catch (Exception e) {
+            if (batch.size() == 1) {
+                batch.get(0).future().completeExceptionally(e);
+                return;
+            }
+            // Retry one by one so a single bad order does not fail the whole group
+            log.warn("Group commit of {} orders failed, retrying individually", batch.size(), e);
+            for (PendingOrder pending : batch) {
+                try {
+                    complete(List.of(pending), orderService.createOrders(List.of(pending.request())));
+                } catch (Exception ex) {
+                    pending.future().completeExceptionally(ex);
+                }
+            }
+        }
+    }
+
+    private void complete(List<PendingOrder> batch, List<OrderResponse> responses) {
+        commitCounter.increment();
+        orderCounter.increment(batch.size());
+        batchSizeSummary.record(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).future().complete(responses.get(i));
+        }
+    }
+
+    private List<OrderRequest> requestsOf(List<PendingOrder> batch) {
+        List<OrderRequest> requests = new ArrayList<>(batch.size());
+        for (PendingOrder pending : batch) {
+            requests.add(pending.request());
+        }
+        return requests;
+    }
+
+    private record PendingOrder(OrderRequest request, CompletableFuture<OrderResponse> future) {}
+}
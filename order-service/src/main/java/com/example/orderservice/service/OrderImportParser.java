@@ -0,0 +1,240 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderItemRequest;
+import com.example.orderservice.dto.OrderRequest;
+import com.example.orderservice.exception.InvalidRequestException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Turns an import request body into a lazy sequence of orders, reading only as far as the
+ * caller iterates. Rows that cannot be parsed are returned with an error instead of ending
+ * the import.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderImportParser {
+
+    // CSV has one line per item; consecutive lines with the same orderRef form one order
+    static final List<String> CSV_COLUMNS = List.of("orderRef", "customerId", "customerName", "customerEmail",
+            "customerPhone", "deliveryAddress", "productId", "productName", "quantity", "unitPrice");
+
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+
+    private final ObjectMapper objectMapper;
+
+    public record ImportRow(long line, String ref, OrderRequest request, String error) {}
+
+    public Iterator<ImportRow> ndjson(InputStream in) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        return new Iterator<>() {
+            private long lineNumber;
+            private ImportRow next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null) {
+                    String line = readLine(reader);
+                    if (line == null) {
+                        return false;
+                    }
+                    lineNumber++;
+                    if (!line.isBlank()) {
+                        next = parseJson(lineNumber, line);
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public ImportRow next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                ImportRow row = next;
+                next = null;
+                return row;
+            }
+        };
+    }
+
+    public Iterator<ImportRow> csv(InputStream in) {
+        MappingIterator<String[]> lines;
+        String[] header;
+        try {
+            lines = CSV_MAPPER.readerForArrayOf(String.class)
+                    .with(CsvParser.Feature.WRAP_AS_ARRAY)
+                    .with(CsvParser.Feature.SKIP_EMPTY_LINES)
+                    .readValues(in);
+            header = lines.hasNextValue() ? lines.nextValue() : new String[0];
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Map<String, Integer> columns = columnIndex(header);
+        return new CsvOrderIterator(lines, columns);
+    }
+
+    private ImportRow parseJson(long line, String json) {
+        try {
+            return new ImportRow(line, null, objectMapper.readValue(json, OrderRequest.class), null);
+        } catch (JsonProcessingException e) {
+            return new ImportRow(line, null, null, "Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static String readLine(BufferedReader reader) {
+        try {
+            return reader.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Map<String, Integer> columnIndex(String[] header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            columns.put(header[i].trim(), i);
+        }
+        List<String> missing = CSV_COLUMNS.stream()
+                .filter(column -> !columns.containsKey(column) && !column.equals("customerPhone"))
+                .toList();
+        if (!missing.isEmpty()) {
+            throw new InvalidRequestException("CSV header is missing columns " + missing);
+        }
+        return columns;
+    }
+
+    private static final class CsvOrderIterator implements Iterator<ImportRow> {
+
+        private final MappingIterator<String[]> lines;
+        private final Map<String, Integer> columns;
+        private String[] pending;
+        private long pendingLine;
+        private ImportRow malformed;
+        private long malformedOffset = -1;
+        private boolean exhausted;
+
+        private CsvOrderIterator(MappingIterator<String[]> lines, Map<String, Integer> columns) {
+            this.lines = lines;
+            this.columns = columns;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return advance();
+        }
+
+        @Override
+        public ImportRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (pending == null) {
+                ImportRow row = malformed;
+                malformed = null;
+                return row;
+            }
+            String[] first = pending;
+            long line = pendingLine;
+            pending = null;
+
+            String ref = value(first, "orderRef");
+            OrderRequest request = new OrderRequest();
+            request.setCustomerId(value(first, "customerId"));
+            request.setCustomerName(value(first, "customerName"));
+            request.setCustomerEmail(value(first, "customerEmail"));
+            request.setCustomerPhone(value(first, "customerPhone"));
+            request.setDeliveryAddress(value(first, "deliveryAddress"));
+            request.setItems(new ArrayList<>());
+
+            List<String> errors = new ArrayList<>();
+            addItem(request, first, line, errors);
+            while (ref != null && advance() && pending != null && ref.equals(value(pending, "orderRef"))) {
+                addItem(request, pending, pendingLine, errors);
+                pending = null;
+            }
+
+            return errors.isEmpty()
+                    ? new ImportRow(line, ref, request, null)
+                    : new ImportRow(line, ref, null, String.join("; ", errors));
+        }
+
+        private void addItem(OrderRequest request, String[] row, long line, List<String> errors) {
+            try {
+                request.getItems().add(item(row));
+            } catch (NumberFormatException e) {
+                errors.add("Invalid number on line " + line);
+            }
+        }
+
+        // A record that cannot be parsed becomes an error row and the parser skips to the next one
+        private boolean advance() {
+            if (pending != null || malformed != null) {
+                return true;
+            }
+            if (exhausted) {
+                return false;
+            }
+            try {
+                if (!lines.hasNextValue()) {
+                    return false;
+                }
+                pending = lines.nextValue();
+                pendingLine = lines.getCurrentLocation().getLineNr();
+                return true;
+            } catch (JsonProcessingException e) {
+                long offset = e.getLocation() != null ? e.getLocation().getCharOffset() : -1;
+                if (offset == malformedOffset) {
+                    // No progress past the last error, e.g. an unclosed quote that ran to the end of the body
+                    exhausted = true;
+                    return false;
+                }
+                malformedOffset = offset;
+                long line = e.getLocation() != null ? e.getLocation().getLineNr() : pendingLine;
+                malformed = new ImportRow(line, null, null, "Malformed CSV: " + e.getOriginalMessage());
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private OrderItemRequest item(String[] row) {
+            OrderItemRequest item = new OrderItemRequest();
+            item.setProductId(value(row, "productId"));
+            item.setProductName(value(row, "productName"));
+            String quantity = value(row, "quantity");
+            item.setQuantity(quantity != null ? Integer.valueOf(quantity) : null);
+            String unitPrice = value(row, "unitPrice");
+            item.setUnitPrice(unitPrice != null ? new BigDecimal(unitPrice) : null);
+            return item;
+        }
+
+        private String value(String[] row, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= row.length) {
+                return null;
+            }
+            String value = row[index].trim();
+            return value.isEmpty() ? null : value;
+        }
+    }
+}
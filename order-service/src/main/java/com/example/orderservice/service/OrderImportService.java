@@ -0,0 +1,162 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderImportResult;
+import com.example.orderservice.dto.OrderImportSummary;
+import com.example.orderservice.dto.OrderRequest;
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.exception.InsufficientStockException;
+import com.example.orderservice.exception.InvalidRequestException;
+import com.example.orderservice.exception.ProductNotPricedException;
+import com.example.orderservice.service.OrderImportParser.ImportRow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Bulk order import. Rows are pulled from the parser one at a time, validated against the
+ * {@link OrderRequest} constraints, and persisted in chunks of {@code chunk-size} through
+ * {@link OrderService#createOrders}. At most one chunk is held in memory. Parsing pauses while a
+ * chunk is written, so a fast client is slowed down by TCP flow control rather than buffered.
+ */
+@Service
+@Slf4j
+public class OrderImportService {
+
+    private final OrderService orderService;
+    private final ShardRouter shardRouter;
+    private final Validator validator;
+    private final int chunkSize;
+
+    private final Counter createdCounter;
+    private final Counter rejectedCounter;
+
+    public OrderImportService(OrderService orderService,
+                              ShardRouter shardRouter,
+                              Validator validator,
+                              MeterRegistry meterRegistry,
+                              @Value("${order.import.chunk-size:500}") int chunkSize) {
+        this.orderService = orderService;
+        this.shardRouter = shardRouter;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+
+        this.createdCounter = Counter.builder("order.import.orders")
+                .tag("result", "created")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("order.import.orders")
+                .tag("result", "rejected")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Imports every row, passing one result per order to {@code sink} as soon as it is known.
+     * {@code afterChunk} runs after each persisted chunk, so callers can flush what they wrote.
+     */
+    public OrderImportSummary importOrders(Iterator<ImportRow> rows, Consumer<OrderImportResult> sink,
+                                           Runnable afterChunk) {
+        long start = System.nanoTime();
+        long total = 0;
+        long[] outcomes = new long[OrderImportResult.Status.values().length];
+        Consumer<OrderImportResult> counting = result -> {
+            outcomes[result.status().ordinal()]++;
+            sink.accept(result);
+        };
+
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        while (rows.hasNext()) {
+            ImportRow row = rows.next();
+            total++;
+            if (row.error() != null) {
+                counting.accept(OrderImportResult.invalid(row.line(), row.ref(), Map.of("row", row.error())));
+                continue;
+            }
+            Map<String, String> errors = validate(row.request());
+            if (!errors.isEmpty()) {
+                counting.accept(OrderImportResult.invalid(row.line(), row.ref(), errors));
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                persist(chunk, counting);
+                chunk.clear();
+                afterChunk.run();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            persist(chunk, counting);
+            afterChunk.run();
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        long created = outcomes[OrderImportResult.Status.CREATED.ordinal()];
+        createdCounter.increment(created);
+        rejectedCounter.increment(total - created);
+        OrderImportSummary summary = new OrderImportSummary(total, created,
+                outcomes[OrderImportResult.Status.INVALID.ordinal()],
+                outcomes[OrderImportResult.Status.FAILED.ordinal()],
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                elapsedNanos > 0 ? total / (elapsedNanos / 1_000_000_000.0) : 0);
+        log.info("Imported {} of {} orders in {} ms", created, total, summary.elapsedMs());
+        return summary;
+    }
+
+    // One transaction per shard; only a sharded store ever splits a chunk
+    private void persist(List<ImportRow> chunk, Consumer<OrderImportResult> sink) {
+        shardRouter.groupByShard(chunk, row -> shardRouter.shardForCustomer(row.request().getCustomerId()))
+                .values()
+                .forEach(rows -> persistGroup(rows, sink));
+    }
+
+    private void persistGroup(List<ImportRow> chunk, Consumer<OrderImportResult> sink) {
+        try {
+            List<OrderResponse> created = orderService.createOrders(chunk.stream().map(ImportRow::request).toList());
+            for (int i = 0; i < chunk.size(); i++) {
+                sink.accept(OrderImportResult.created(chunk.get(i).line(), chunk.get(i).ref(), created.get(i)));
+            }
+        } catch (Exception e) {
+            // Retry one by one so a single bad order does not fail the whole chunk
+            log.warn("Import chunk of {} orders failed, retrying individually", chunk.size(), e);
+            for (ImportRow row : chunk) {
+                try {
+                    OrderResponse order = orderService.createOrders(List.of(row.request())).get(0);
+                    sink.accept(OrderImportResult.created(row.line(), row.ref(), order));
+                } catch (Exception ex) {
+                    sink.accept(OrderImportResult.failed(row.line(), row.ref(), failureMessage(row, ex)));
+                }
+            }
+        }
+    }
+
+    // Only the exceptions GlobalExceptionHandler shows to clients keep their message; anything
+    // else, such as a database error, is logged and reported with the same generic text
+    private static String failureMessage(ImportRow row, Exception e) {
+        if (e instanceof InsufficientStockException || e instanceof ProductNotPricedException
+                || e instanceof InvalidRequestException) {
+            return e.getMessage();
+        }
+        log.warn("Import of the order at line {} failed", row.line(), e);
+        return "An unexpected error occurred";
+    }
+
+    private Map<String, String> validate(OrderRequest request) {
+        Set<ConstraintViolation<OrderRequest>> violations = validator.validate(request);
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (ConstraintViolation<OrderRequest> violation : violations) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
+    }
+}
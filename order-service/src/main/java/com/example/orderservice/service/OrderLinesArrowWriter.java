@@ -0,0 +1,227 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderExportRow;
+import com.example.orderservice.model.Money;
+import org.apache.arrow.compression.CommonsCompressionFactory;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeStampMicroVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.compression.CompressionUtil;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.ipc.message.IpcOption;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.RoundingMode;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes order lines to Arrow IPC files under {@code <directory>/dt=<yyyy-MM-dd>/}, partitioned
+ * by the day of {@code updatedAt}. Rows must arrive in {@code updatedAt} order, so only one
+ * partition file is open at a time and at most one record batch of {@code batchRows} rows is
+ * buffered. Files are written under a temporary name and renamed when {@link #commit()} is
+ * called, so readers never see a partial file.
+ */
+class OrderLinesArrowWriter implements Closeable {
+
+    private static final int MONEY_PRECISION = 38;
+    private static final int MONEY_SCALE = 2;
+
+    private static final Schema SCHEMA = new Schema(List.of(
+            field("order_id", new ArrowType.Int(64, true), false),
+            field("order_number", ArrowType.Utf8.INSTANCE, false),
+            field("customer_id", ArrowType.Utf8.INSTANCE, false),
+            field("status", ArrowType.Utf8.INSTANCE, false),
+            field("total_amount", new ArrowType.Decimal(MONEY_PRECISION, MONEY_SCALE, 128), true),
+            field("created_at", new ArrowType.Timestamp(TimeUnit.MICROSECOND, null), true),
+            field("updated_at", new ArrowType.Timestamp(TimeUnit.MICROSECOND, null), false),
+            field("completed_at", new ArrowType.Timestamp(TimeUnit.MICROSECOND, null), true),
+            field("item_id", new ArrowType.Int(64, true), true),
+            field("product_id", ArrowType.Utf8.INSTANCE, true),
+            field("product_name", ArrowType.Utf8.INSTANCE, true),
+            field("quantity", new ArrowType.Int(32, true), true),
+            field("unit_price", new ArrowType.Decimal(MONEY_PRECISION, MONEY_SCALE, 128), true),
+            field("item_total_price", new ArrowType.Decimal(MONEY_PRECISION, MONEY_SCALE, 128), true)));
+
+    private final Path directory;
+    private final String fileName;
+    private final int batchRows;
+    private final CompressionUtil.CodecType codec;
+    private final BufferAllocator allocator = new RootAllocator();
+    private final VectorSchemaRoot root = VectorSchemaRoot.create(SCHEMA, allocator);
+    private final List<Path[]> pendingRenames = new ArrayList<>();
+
+    private LocalDate partition;
+    private FileChannel channel;
+    private ArrowFileWriter writer;
+    private int rowInBatch;
+
+    OrderLinesArrowWriter(Path directory, String fileName, int batchRows, CompressionUtil.CodecType codec) {
+        this.directory = directory;
+        this.fileName = fileName;
+        this.batchRows = batchRows;
+        this.codec = codec;
+    }
+
+    void write(OrderExportRow row) throws IOException {
+        LocalDate day = row.updatedAt().toLocalDate();
+        if (!day.equals(partition)) {
+            finishFile();
+            startFile(day);
+        }
+
+        int i = rowInBatch;
+        ((BigIntVector) root.getVector("order_id")).setSafe(i, row.orderId());
+        setString("order_number", i, row.orderNumber());
+        setString("customer_id", i, row.customerId());
+        setString("status", i, row.status() != null ? row.status().name() : null);
+        setMoney("total_amount", i, row.totalAmount());
+        setTimestamp("created_at", i, row.createdAt());
+        setTimestamp("updated_at", i, row.updatedAt());
+        setTimestamp("completed_at", i, row.completedAt());
+        BigIntVector itemId = (BigIntVector) root.getVector("item_id");
+        if (row.itemId() != null) {
+            itemId.setSafe(i, row.itemId());
+        } else {
+            itemId.setNull(i);
+        }
+        setString("product_id", i, row.productId());
+        setString("product_name", i, row.productName());
+        IntVector quantity = (IntVector) root.getVector("quantity");
+        if (row.quantity() != null) {
+            quantity.setSafe(i, row.quantity());
+        } else {
+            quantity.setNull(i);
+        }
+        setMoney("unit_price", i, row.unitPrice());
+        setMoney("item_total_price", i, row.itemTotalPrice());
+
+        rowInBatch++;
+        if (rowInBatch == batchRows) {
+            flushBatch();
+        }
+    }
+
+    /**
+     * Closes the open file and moves every file written so far into place.
+     */
+    List<Path> commit() throws IOException {
+        finishFile();
+        List<Path> files = new ArrayList<>(pendingRenames.size());
+        for (Path[] rename : pendingRenames) {
+            files.add(Files.move(rename[0], rename[1], StandardCopyOption.ATOMIC_MOVE));
+        }
+        pendingRenames.clear();
+        return files;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (writer != null) {
+                writer.close();
+            }
+            if (channel != null) {
+                channel.close();
+            }
+            for (Path[] rename : pendingRenames) {
+                Files.deleteIfExists(rename[0]);
+            }
+        } finally {
+            root.close();
+            allocator.close();
+        }
+    }
+
+    private void startFile(LocalDate day) throws IOException {
+        Path partitionDir = Files.createDirectories(directory.resolve("dt=" + day));
+        Path target = partitionDir.resolve(fileName);
+        Path temp = partitionDir.resolve(fileName + ".tmp");
+        channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        writer = new ArrowFileWriter(root, null, channel, Map.of(), IpcOption.DEFAULT,
+                CommonsCompressionFactory.INSTANCE, codec);
+        writer.start();
+        pendingRenames.add(new Path[]{temp, target});
+        partition = day;
+    }
+
+    private void finishFile() throws IOException {
+        if (writer == null) {
+            return;
+        }
+        flushBatch();
+        writer.end();
+        writer.close();
+        channel.close();
+        writer = null;
+        channel = null;
+        partition = null;
+    }
+
+    private void flushBatch() throws IOException {
+        if (rowInBatch == 0) {
+            return;
+        }
+        root.setRowCount(rowInBatch);
+        writer.writeBatch();
+        root.getFieldVectors().forEach(vector -> vector.reset());
+        rowInBatch = 0;
+    }
+
+    private void setString(String column, int index, String value) {
+        VarCharVector vector = (VarCharVector) root.getVector(column);
+        if (value != null) {
+            vector.setSafe(index, value.getBytes(StandardCharsets.UTF_8));
+        } else {
+            vector.setNull(index);
+        }
+    }
+
+    // Minor units are the decimal's unscaled value, so no BigDecimal is created per cell
+    private void setMoney(String column, int index, Money value) {
+        DecimalVector vector = (DecimalVector) root.getVector(column);
+        if (value == null) {
+            vector.setNull(index);
+        } else if (value.currency().getDefaultFractionDigits() == MONEY_SCALE) {
+            vector.setSafe(index, value.minorUnits());
+        } else {
+            vector.setSafe(index, value.toBigDecimal().setScale(MONEY_SCALE, RoundingMode.HALF_UP));
+        }
+    }
+
+    private void setTimestamp(String column, int index, LocalDateTime value) {
+        TimeStampMicroVector vector = (TimeStampMicroVector) root.getVector(column);
+        if (value != null) {
+            vector.setSafe(index, ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), value));
+        } else {
+            vector.setNull(index);
+        }
+    }
+
+    private static Field field(String name, ArrowType type, boolean nullable) {
+        return new Field(name, new FieldType(nullable, type, null), null);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.exception.OrderNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Opt-in micro-batcher for order lookups by id. Concurrent lookups are queued and a single
+ * thread merges up to {@code max-batch-size} of them, waiting at most {@code window-ms} for
+ * more to arrive, into one {@code WHERE id IN (...)} query. When disabled, or when the queue
+ * is full, lookups go straight to {@link OrderService#getOrderById}.
+ */
+@Component
+@Slf4j
+public class OrderLookupBatcher {
+
+    private final OrderService orderService;
+    private final ShardRouter shardRouter;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long windowMs;
+    private final MicroBatcher<PendingLookup> batcher;
+
+    private final Counter queryCounter;
+    private final Counter lookupCounter;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer delayTimer;
+
+    public OrderLookupBatcher(OrderService orderService,
+                              ShardRouter shardRouter,
+                              MeterRegistry meterRegistry,
+                              @Value("${order.lookup.batch.enabled:false}") boolean enabled,
+                              @Value("${order.lookup.batch.max-batch-size:100}") int maxBatchSize,
+                              @Value("${order.lookup.batch.window-ms:2}") long windowMs,
+                              @Value("${order.lookup.batch.queue-capacity:1000}") int queueCapacity) {
+        this.orderService = orderService;
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.windowMs = windowMs;
+        this.batcher = new MicroBatcher<>("order-lookup-batcher", maxBatchSize,
+                TimeUnit.MILLISECONDS.toNanos(windowMs), queueCapacity, PendingLookup::future, this::dispatch);
+
+        this.queryCounter = Counter.builder("order.lookup.batch.queries")
+                .description("IN queries issued by the lookup batcher")
+                .register(meterRegistry);
+        this.lookupCounter = Counter.builder("order.lookup.batch.lookups")
+                .description("Lookups served by the lookup batcher")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("order.lookup.batch.size")
+                .register(meterRegistry);
+        this.delayTimer = Timer.builder("order.lookup.batch.delay")
+                .description("Time a lookup waited in the batch window before its query was issued")
+                .register(meterRegistry);
+    }
+
+    public OrderResponse getOrderById(Long id) {
+        if (!enabled) {
+            return orderService.getOrderById(id);
+        }
+        PendingLookup pending = new PendingLookup(id, shardRouter.shardOfOrderId(id), System.nanoTime(),
+                new CompletableFuture<>());
+        if (!batcher.offer(pending)) {
+            return orderService.getOrderById(id);
+        }
+        return SingleFlight.join(pending.future());
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        batcher.start();
+        log.info("Lookup batching enabled: maxBatchSize={}, windowMs={}", maxBatchSize, windowMs);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        batcher.stop();
+    }
+
+    // One IN query per shard; only a sharded store ever splits a batch
+    private void dispatch(List<PendingLookup> batch) {
+        shardRouter.groupByShard(batch, PendingLookup::shard).values().forEach(this::dispatchGroup);
+    }
+
+    private void dispatchGroup(List<PendingLookup> batch) {
+        long now = System.nanoTime();
+        Set<Long> ids = new LinkedHashSet<>();
+        for (PendingLookup pending : batch) {
+            delayTimer.record(now - pending.enqueuedAt(), TimeUnit.NANOSECONDS);
+            ids.add(pending.id());
+        }
+        queryCounter.increment();
+        lookupCounter.increment(batch.size());
+        batchSizeSummary.record(ids.size());
+
+        Map<Long, OrderResponse> found;
+        try {
+            found = orderService.getOrdersByIds(ids).stream()
+                    .collect(Collectors.toMap(OrderResponse::getId, Function.identity()));
+        } catch (Exception e) {
+            batch.forEach(p -> p.future().completeExceptionally(e));
+            return;
+        }
+        for (PendingLookup pending : batch) {
+            OrderResponse order = found.get(pending.id());
+            if (order != null) {
+                pending.future().complete(order);
+            } else {
+                pending.future().completeExceptionally(
+                        new OrderNotFoundException("Order not found with id: " + pending.id()));
+            }
+        }
+    }
+
+    private record PendingLookup(Long id, int shard, long enqueuedAt, CompletableFuture<OrderResponse> future) {}
+}
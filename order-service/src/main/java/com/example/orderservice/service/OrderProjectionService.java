@@ -0,0 +1,129 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderCursor;
+import com.example.orderservice.dto.OrderField;
+import com.example.orderservice.dto.OrderItemResponse;
+import com.example.orderservice.dto.PageResponse;
+import com.example.orderservice.model.Money;
+import com.example.orderservice.repository.OrderProjectionRepository;
+import com.example.orderservice.repository.OrderRepository;
+import jakarta.persistence.Tuple;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Order lists reduced to the fields a caller asked for with {@code fields=}. Only the requested
+ * columns are selected, no entities are loaded, and {@code order_items} is only read when
+ * {@code items} is requested, in one extra query for the whole list.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderProjectionService {
+
+    private final OrderRepository orderRepository;
+    private final OrderProjectionRepository orderProjectionRepository;
+    private final ShardRouter shardRouter;
+    private final ReplicaRouter replicaRouter;
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getOrdersByCustomerId(String customerId, Set<OrderField> fields) {
+        shardRouter.bind(shardRouter.shardForCustomer(customerId));
+        replicaRouter.readCustomer(customerId);
+        return toMaps(orderProjectionRepository.findByCustomerId(customerId, columnsFor(fields)), fields);
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<Map<String, Object>> getOrdersByCustomerId(String customerId, String cursor, int size,
+                                                                 Set<OrderField> fields) {
+        shardRouter.bind(shardRouter.shardForCustomer(customerId));
+        replicaRouter.readCustomer(customerId);
+        int pageSize = Math.max(1, Math.min(size, OrderService.MAX_PAGE_SIZE));
+        // Fetch one extra id to know whether another page follows
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<Long> ids;
+        if (cursor == null || cursor.isBlank()) {
+            ids = orderRepository.findIdsByCustomerId(customerId, limit);
+        } else {
+            OrderCursor position = OrderCursor.decode(cursor);
+            ids = orderRepository.findIdsByCustomerIdBefore(customerId, position.createdAt(), position.id(), limit);
+        }
+
+        boolean hasMore = ids.size() > pageSize;
+        // createdAt is selected even when not requested, for the next cursor
+        List<Tuple> rows = ids.isEmpty() ? List.of() : orderProjectionRepository.findByIdIn(
+                hasMore ? ids.subList(0, pageSize) : ids, columnsFor(fields, OrderField.CREATED_AT));
+
+        String nextCursor = null;
+        if (hasMore) {
+            Tuple last = rows.get(rows.size() - 1);
+            nextCursor = new OrderCursor(last.get(OrderField.CREATED_AT.property(), LocalDateTime.class),
+                    last.get(OrderField.ID.property(), Long.class)).encode();
+        }
+
+        List<Map<String, Object>> content = toMaps(rows, fields);
+        return PageResponse.<Map<String, Object>>builder()
+                .content(content)
+                .pageSize(pageSize)
+                .totalElements(-1)
+                .totalPages(-1)
+                .first(cursor == null || cursor.isBlank())
+                .last(!hasMore)
+                .empty(content.isEmpty())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    // The id is always selected, to attach items and to page
+    private static Set<OrderField> columnsFor(Set<OrderField> fields, OrderField... extra) {
+        Set<OrderField> columns = EnumSet.of(OrderField.ID, extra);
+        columns.addAll(fields);
+        columns.remove(OrderField.ITEMS);
+        return columns;
+    }
+
+    private List<Map<String, Object>> toMaps(List<Tuple> rows, Set<OrderField> fields) {
+        Map<Long, List<OrderItemResponse>> items = fields.contains(OrderField.ITEMS) && !rows.isEmpty()
+                ? loadItems(rows.stream().map(row -> row.get(OrderField.ID.property(), Long.class)).toList())
+                : Map.of();
+        List<Map<String, Object>> orders = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Map<String, Object> order = new LinkedHashMap<>();
+            for (OrderField field : fields) {
+                if (field == OrderField.ITEMS) {
+                    order.put(field.property(), items.getOrDefault(row.get(OrderField.ID.property(), Long.class), List.of()));
+                } else {
+                    order.put(field.property(), row.get(field.property()));
+                }
+            }
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    private Map<Long, List<OrderItemResponse>> loadItems(List<Long> orderIds) {
+        Map<Long, List<OrderItemResponse>> items = new HashMap<>();
+        for (Tuple row : orderProjectionRepository.findItems(orderIds)) {
+            items.computeIfAbsent(row.get(0, Long.class), id -> new ArrayList<>()).add(OrderItemResponse.builder()
+                    .id(row.get(1, Long.class))
+                    .productId(row.get(2, String.class))
+                    .productName(row.get(3, String.class))
+                    .quantity(row.get(4, Integer.class))
+                    .unitPrice(row.get(5, Money.class))
+                    .totalPrice(row.get(6, Money.class))
+                    .build());
+        }
+        return items;
+    }
+}
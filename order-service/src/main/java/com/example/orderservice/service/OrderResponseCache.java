@@ -0,0 +1,122 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Size- and TTL-bounded cache of {@link OrderResponse}, addressable by id or order number.
+ * Order numbers never change, so the number index only maps to ids and invalidation
+ * only has to touch the id entry. Concurrent misses for the same key are coalesced so only
+ * one of them runs the loader. Every eviction stamps the id with an invalidation sequence, and a
+ * load only caches its result if the id was not invalidated after the load started, so a read
+ * racing a write can never re-insert the state the write replaced.
+ */
+@Component
+public class OrderResponseCache {
+
+    private final Cache<Long, OrderResponse> ordersById;
+    private final Cache<String, Long> idsByOrderNumber;
+    private final Cache<Long, Long> invalidations;
+    private final AtomicLong invalidationSequence = new AtomicLong();
+    private final SingleFlight<Long, OrderResponse> idLoads;
+    private final SingleFlight<String, OrderResponse> orderNumberLoads;
+
+    public OrderResponseCache(MeterRegistry meterRegistry,
+                              @Value("${order.cache.max-size:10000}") long maxSize,
+                              @Value("${order.cache.ttl:30s}") Duration ttl) {
+        this.ordersById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.idsByOrderNumber = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        // Only has to outlive the loads in flight when the id was invalidated
+        this.invalidations = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, ordersById, "orders");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByOrderNumber, "orderNumbers");
+
+        this.idLoads = new SingleFlight<>("id", meterRegistry);
+        this.orderNumberLoads = new SingleFlight<>("number", meterRegistry);
+    }
+
+    public OrderResponse getById(Long id, Function<Long, OrderResponse> loader) {
+        OrderResponse cached = ordersById.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        // Loaded outside the cache's own compute so a slow or batched load does not hold its lock
+        return idLoads.load(id, key -> loadAndCache(key, loader));
+    }
+
+    public OrderResponse getByOrderNumber(String orderNumber, Function<String, OrderResponse> loader) {
+        Long id = idsByOrderNumber.getIfPresent(orderNumber);
+        if (id != null) {
+            OrderResponse cached = ordersById.getIfPresent(id);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return orderNumberLoads.load(orderNumber, key -> loadAndCache(key, loader));
+    }
+
+    // Runs once per coalesced load, so the sequence is read before the query every caller shares
+    private <K> OrderResponse loadAndCache(K key, Function<K, OrderResponse> loader) {
+        long loadStarted = invalidationSequence.get();
+        OrderResponse order = loader.apply(key);
+        idsByOrderNumber.put(order.getOrderNumber(), order.getId());
+        Long invalidated = invalidations.getIfPresent(order.getId());
+        if (invalidated == null || invalidated <= loadStarted) {
+            ordersById.put(order.getId(), order);
+            // An eviction that landed between the check and the put removes what it may have missed
+            Long after = invalidations.getIfPresent(order.getId());
+            if (after != null && after > loadStarted) {
+                ordersById.invalidate(order.getId());
+            }
+        }
+        return order;
+    }
+
+    public void put(OrderResponse order) {
+        ordersById.put(order.getId(), order);
+        idsByOrderNumber.put(order.getOrderNumber(), order.getId());
+    }
+
+    /**
+     * Evicts the order now and, when called inside a transaction, again after commit so that
+     * a concurrent reader cannot re-populate the entry with pre-commit state.
+     */
+    public void evict(Long id) {
+        invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(id);
+                }
+            });
+        }
+    }
+
+    private void invalidate(Long id) {
+        invalidations.put(id, invalidationSequence.incrementAndGet());
+        ordersById.invalidate(id);
+    }
+}
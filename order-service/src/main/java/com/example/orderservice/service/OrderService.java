@@ -1,38 +1,111 @@
 package com.example.orderservice.service;
 
 import com.example.orderservice.dto.*;
+import com.example.orderservice.model.IdempotencyRecord;
 import com.example.orderservice.model.OrderItem;
 import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.repository.IdempotencyRecordRepository;
 import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.exception.InvalidOrderStatusTransitionException;
 import com.example.orderservice.exception.OrderNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class OrderService {
 
+    static final int MAX_PAGE_SIZE = 500;
+
+    // Statuses an order can get stuck in when a payment event is lost
+    public static final Set<OrderStatus> AWAITING_PAYMENT = EnumSet.of(OrderStatus.CREATED, OrderStatus.PAYMENT_PENDING);
+
     private final OrderRepository orderRepository;
-    private final KafkaProducerService kafkaProducerService;
+    private final OutboxService outboxService;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final OrderResponseCache orderResponseCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryService inventoryService;
+    private final ProductPriceCatalog productPriceCatalog;
+    private final ShardRouter shardRouter;
+    private final ReplicaRouter replicaRouter;
 
     @Async("orderTaskExecutor")
     @Transactional
     public CompletableFuture<OrderResponse> createOrderAsync(OrderRequest request) {
         log.info("Creating order asynchronously for customer: {}", request.getCustomerId());
+        int shard = shardRouter.shardForCustomer(request.getCustomerId());
+        shardRouter.bind(shard);
+
+        com.example.orderservice.model.Order order = buildOrder(request, shard);
+
+        // Save order
+        com.example.orderservice.model.Order savedOrder = orderRepository.save(order);
+        inventoryService.reserve(savedOrder);
+        log.info("Order created successfully: {}", savedOrder.getOrderNumber());
+
+        enqueueOrderCreatedEvent(savedOrder);
+        recordIdempotencyKey(request, savedOrder);
+        publishCreated(savedOrder);
+        replicaRouter.recordCreated(savedOrder);
+
+        return CompletableFuture.completedFuture(mapToResponse(savedOrder));
+    }
+
+    /**
+     * Persists several orders in a single transaction; used by {@link OrderGroupCommitWriter}
+     * so that concurrent requests share one commit and one set of batched inserts. When sharded,
+     * all customers must be on the same shard.
+     */
+    @Transactional
+    public List<OrderResponse> createOrders(List<OrderRequest> requests) {
+        int shard = shardRouter.shardForCustomers(requests.stream().map(OrderRequest::getCustomerId).toList());
+        shardRouter.bind(shard);
+        List<com.example.orderservice.model.Order> orders = requests.stream()
+                .map(request -> buildOrder(request, shard))
+                .collect(Collectors.toList());
+
+        List<com.example.orderservice.model.Order> savedOrders = orderRepository.saveAll(orders);
+        savedOrders.forEach(inventoryService::reserve);
+        savedOrders.forEach(this::enqueueOrderCreatedEvent);
+        for (int i = 0; i < requests.size(); i++) {
+            recordIdempotencyKey(requests.get(i), savedOrders.get(i));
+        }
+        savedOrders.forEach(this::publishCreated);
+        savedOrders.forEach(replicaRouter::recordCreated);
+        log.info("Created {} orders in one transaction", savedOrders.size());
+
+        return savedOrders.stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
 
+    private com.example.orderservice.model.Order buildOrder(OrderRequest request, int shard) {
         // Create order entity
         com.example.orderservice.model.Order order = new com.example.orderservice.model.Order();
-        order.setOrderNumber(generateOrderNumber());
+        order.setOrderNumber(generateOrderNumber(shard));
         order.setCustomerId(request.getCustomerId());
         order.setCustomerName(request.getCustomerName());
         order.setCustomerEmail(request.getCustomerEmail());
@@ -46,68 +119,237 @@ public class OrderService {
             item.setProductId(itemRequest.getProductId());
             item.setProductName(itemRequest.getProductName());
             item.setQuantity(itemRequest.getQuantity());
-            item.setUnitPrice(itemRequest.getUnitPrice());
+            item.setUnitPrice(productPriceCatalog.unitPriceFor(itemRequest.getProductId(), itemRequest.getUnitPrice()));
             order.addItem(item);
         }
 
         // Calculate total
         order.calculateTotalAmount();
+        return order;
+    }
 
-        // Save order
-        com.example.orderservice.model.Order savedOrder = orderRepository.save(order);
-        log.info("Order created successfully: {}", savedOrder.getOrderNumber());
+    // Written in the order's transaction: a retry racing on another instance fails on the key's
+    // primary key and rolls back its order, so a key can never map to two orders
+    private void recordIdempotencyKey(OrderRequest request, com.example.orderservice.model.Order order) {
+        IdempotencyToken token = request.getIdempotencyToken();
+        if (token != null) {
+            idempotencyRecordRepository.save(new IdempotencyRecord(
+                    order.getCustomerId(), token.key(), token.requestHash(), order.getId()));
+        }
+    }
+
+    private void enqueueOrderCreatedEvent(com.example.orderservice.model.Order order) {
+        // Record event in the outbox, published to Kafka by OutboxRelay after commit
+        OrderEvent event = buildOrderEvent(order, "ORDER_CREATED");
+        outboxService.enqueue(KafkaProducerService.ORDER_CREATED_TOPIC, order.getId(),
+                order.getOrderNumber(), event.getEventType(), event);
+    }
 
-        // Publish event to Kafka
-        OrderEvent event = buildOrderEvent(savedOrder);
-        kafkaProducerService.sendOrderCreatedEvent(event);
+    private void enqueueOrderCancelledEvents(Collection<Long> orderIds) {
+        for (com.example.orderservice.model.Order order : orderRepository.findWithItemsByIdIn(orderIds)) {
+            OrderEvent event = buildOrderEvent(order, "ORDER_CANCELLED");
+            outboxService.enqueue(KafkaProducerService.ORDER_CANCELLED_TOPIC, order.getId(),
+                    order.getOrderNumber(), event.getEventType(), event);
+        }
+    }
 
-        return CompletableFuture.completedFuture(mapToResponse(savedOrder));
+    // Lets after-commit listeners such as OrderTimeoutService see new orders like any other status change
+    private void publishCreated(com.example.orderservice.model.Order order) {
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(order.getId(), OrderStatus.CREATED, order.getCreatedAt()));
     }
 
     @Transactional(readOnly = true)
     public OrderResponse getOrderById(Long id) {
-        com.example.orderservice.model.Order order = orderRepository.findById(id)
+        shardRouter.bind(shardRouter.shardOfOrderId(id));
+        replicaRouter.readOrder(id);
+        com.example.orderservice.model.Order order = orderRepository.findWithItemsById(id)
                 .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + id));
         return mapToResponse(order);
     }
 
+    // Orders that do not exist are simply absent from the result. When sharded, all ids must be on the same shard
+    @Transactional(readOnly = true)
+    public List<OrderResponse> getOrdersByIds(Collection<Long> ids) {
+        shardRouter.bind(shardRouter.shardOfOrderIds(ids));
+        replicaRouter.readOrders(ids);
+        return orderRepository.findWithItemsByIdIn(ids).stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
     @Transactional(readOnly = true)
     public OrderResponse getOrderByNumber(String orderNumber) {
-        com.example.orderservice.model.Order order = orderRepository.findByOrderNumber(orderNumber)
+        OptionalInt shard = shardRouter.shardOfOrderNumber(orderNumber);
+        if (shard.isEmpty()) {
+            // Numbers issued before sharding carry no shard; ask every shard. This transaction stays unused
+            return shardRouter.scatter(s -> orderRepository.findWithItemsByOrderNumber(orderNumber).map(this::mapToResponse))
+                    .stream()
+                    .flatMap(Optional::stream)
+                    .findFirst()
+                    .orElseThrow(() -> new OrderNotFoundException("Order not found with number: " + orderNumber));
+        }
+        shardRouter.bind(shard.getAsInt());
+        replicaRouter.readOrderNumber(orderNumber);
+        com.example.orderservice.model.Order order = orderRepository.findWithItemsByOrderNumber(orderNumber)
                 .orElseThrow(() -> new OrderNotFoundException("Order not found with number: " + orderNumber));
         return mapToResponse(order);
     }
 
     @Transactional(readOnly = true)
     public List<OrderResponse> getOrdersByCustomerId(String customerId) {
-        return orderRepository.findByCustomerId(customerId).stream()
+        shardRouter.bind(shardRouter.shardForCustomer(customerId));
+        replicaRouter.readCustomer(customerId);
+        return orderRepository.findWithItemsByCustomerId(customerId).stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public PageResponse<OrderResponse> getOrdersByCustomerId(String customerId, String cursor, int size) {
+        shardRouter.bind(shardRouter.shardForCustomer(customerId));
+        replicaRouter.readCustomer(customerId);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Fetch one extra id to know whether another page follows
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<Long> ids;
+        if (cursor == null || cursor.isBlank()) {
+            ids = orderRepository.findIdsByCustomerId(customerId, limit);
+        } else {
+            OrderCursor position = OrderCursor.decode(cursor);
+            ids = orderRepository.findIdsByCustomerIdBefore(customerId, position.createdAt(), position.id(), limit);
+        }
+
+        boolean hasMore = ids.size() > pageSize;
+        List<OrderResponse> content = ids.isEmpty() ? List.of()
+                : orderRepository.findWithItemsByIdIn(hasMore ? ids.subList(0, pageSize) : ids).stream()
+                        .map(this::mapToResponse)
+                        .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (hasMore) {
+            OrderResponse lastOrder = content.get(content.size() - 1);
+            nextCursor = new OrderCursor(lastOrder.getCreatedAt(), lastOrder.getId()).encode();
+        }
+
+        return PageResponse.<OrderResponse>builder()
+                .content(content)
+                .pageSize(pageSize)
+                .totalElements(-1)
+                .totalPages(-1)
+                .first(cursor == null || cursor.isBlank())
+                .last(!hasMore)
+                .empty(content.isEmpty())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Streams a customer's full order history, newest first, from a database cursor. Rows are
+     * projections rather than managed entities, so memory use does not grow with history size.
+     */
+    @Transactional(readOnly = true)
+    public void streamOrdersByCustomerId(String customerId, Consumer<OrderResponse> consumer) {
+        shardRouter.bind(shardRouter.shardForCustomer(customerId));
+        replicaRouter.readCustomer(customerId);
+        try (Stream<OrderHistoryRow> rows = orderRepository.streamHistoryByCustomerId(customerId)) {
+            Iterator<OrderHistoryRow> iterator = rows.iterator();
+            OrderResponse current = null;
+            while (iterator.hasNext()) {
+                OrderHistoryRow row = iterator.next();
+                if (current == null || !current.getId().equals(row.orderId())) {
+                    if (current != null) {
+                        consumer.accept(current);
+                    }
+                    current = mapToResponse(row);
+                }
+                if (row.itemId() != null) {
+                    current.getItems().add(mapItemToResponse(row));
+                }
+            }
+            if (current != null) {
+                consumer.accept(current);
+            }
+        }
+    }
+
     @Transactional
     public void updateOrderStatus(Long orderId, OrderStatus status) {
-        com.example.orderservice.model.Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + orderId));
+        shardRouter.bind(shardRouter.shardOfOrderId(orderId));
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        Set<OrderStatus> predecessors = status.allowedPredecessors();
+        int updated = predecessors.isEmpty() ? 0 : orderRepository.updateStatus(
+                orderId, status, predecessors, completedAtFor(status, now), now);
+
+        if (updated == 0) {
+            OrderStatus current = orderRepository.findStatusById(orderId)
+                    .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + orderId));
+            throw new InvalidOrderStatusTransitionException(orderId, current, status);
+        }
+        if (status == OrderStatus.CANCELLED) {
+            enqueueOrderCancelledEvents(List.of(orderId));
+        }
 
-        order.setStatus(status);
+        replicaRouter.recordUpdated(orderId, () -> orderRepository.findOrderNumberById(orderId).orElseThrow());
+        orderResponseCache.evict(orderId);
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(orderId, status, now));
+        log.info("Order {} status updated to: {}", orderId, status);
+    }
 
-        if (status == OrderStatus.DELIVERED) {
-            order.setCompletedAt(LocalDateTime.now());
+    // Applies one transition to many orders in a single statement; orders that are missing or
+    // not in an allowed predecessor status are skipped. Returns the number of orders updated.
+    // When sharded, all orders must be on the same shard
+    @Transactional
+    public int updateOrderStatuses(Collection<Long> orderIds, OrderStatus status) {
+        shardRouter.bind(shardRouter.shardOfOrderIds(orderIds));
+        int updated = transition(orderIds, status, status.allowedPredecessors()).size();
+        log.info("{} of {} orders updated to: {}", updated, orderIds.size(), status);
+        return updated;
+    }
+
+    // Cancels the orders that are still waiting for payment and returns their ids; orders that
+    // have moved on since their timeout was set are left alone. When sharded, all orders must be on the same shard
+    @Transactional
+    public List<Long> cancelExpiredOrders(Collection<Long> orderIds) {
+        shardRouter.bind(shardRouter.shardOfOrderIds(orderIds));
+        List<Long> cancelled = transition(orderIds, OrderStatus.CANCELLED, AWAITING_PAYMENT);
+        log.info("{} of {} expired orders cancelled", cancelled.size(), orderIds.size());
+        return cancelled;
+    }
+
+    private List<Long> transition(Collection<Long> orderIds, OrderStatus status, Set<OrderStatus> predecessors) {
+        if (orderIds.isEmpty() || predecessors.isEmpty()) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        int updated = orderRepository.updateStatusIn(orderIds, status, predecessors, completedAtFor(status, now), now);
+        if (updated == 0) {
+            return List.of();
+        }
+        // The shared updatedAt identifies the rows this statement changed
+        List<OrderKeyRow> keys = orderRepository.findKeysByIdInAndStatusAndUpdatedAt(orderIds, status, now);
+        keys.forEach(key -> replicaRouter.recordUpdated(key.id(), key.orderNumber()));
+        List<Long> changed = keys.stream().map(OrderKeyRow::id).toList();
+        changed.forEach(orderResponseCache::evict);
+        if (status == OrderStatus.CANCELLED) {
+            enqueueOrderCancelledEvents(changed);
         }
+        changed.forEach(id -> eventPublisher.publishEvent(new OrderStatusChangedEvent(id, status, now)));
+        return changed;
+    }
 
-        orderRepository.save(order);
-        log.info("Order {} status updated to: {}", order.getOrderNumber(), status);
+    private LocalDateTime completedAtFor(OrderStatus status, LocalDateTime now) {
+        return status == OrderStatus.DELIVERED ? now : null;
     }
 
-    private String generateOrderNumber() {
-        return "ORD-" + System.currentTimeMillis() + "-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    private String generateOrderNumber(int shard) {
+        return shardRouter.orderNumberPrefix(shard) + System.currentTimeMillis() + "-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
 
-    private OrderEvent buildOrderEvent(com.example.orderservice.model.Order order) {
+    private OrderEvent buildOrderEvent(com.example.orderservice.model.Order order, String eventType) {
         return OrderEvent.builder()
                 .eventId(UUID.randomUUID().toString())
-                .eventType("ORDER_CREATED")
+                .eventType(eventType)
                 .orderId(order.getId())
                 .orderNumber(order.getOrderNumber())
                 .customerId(order.getCustomerId())
@@ -124,7 +366,7 @@ public class OrderService {
                 .build();
     }
 
-    private OrderResponse mapToResponse(com.example.orderservice.model.Order order) {
+    OrderResponse mapToResponse(com.example.orderservice.model.Order order) {
         return OrderResponse.builder()
                 .id(order.getId())
                 .orderNumber(order.getOrderNumber())
@@ -134,13 +376,42 @@ public class OrderService {
                 .totalAmount(order.getTotalAmount())
                 .status(order.getStatus())
                 .createdAt(order.getCreatedAt())
+                .updatedAt(order.getUpdatedAt())
+                .version(order.getVersion())
                 .items(order.getItems().stream()
                         .map(this::mapItemToResponse)
                         .collect(Collectors.toList()))
                 .build();
     }
 
-    private OrderItemResponse mapItemToResponse(OrderItem item) {
+    private OrderResponse mapToResponse(OrderHistoryRow row) {
+        return OrderResponse.builder()
+                .id(row.orderId())
+                .orderNumber(row.orderNumber())
+                .customerId(row.customerId())
+                .customerName(row.customerName())
+                .deliveryAddress(row.deliveryAddress())
+                .totalAmount(row.totalAmount())
+                .status(row.status())
+                .createdAt(row.createdAt())
+                .updatedAt(row.updatedAt())
+                .version(row.version())
+                .items(new ArrayList<>())
+                .build();
+    }
+
+    private OrderItemResponse mapItemToResponse(OrderHistoryRow row) {
+        return OrderItemResponse.builder()
+                .id(row.itemId())
+                .productId(row.productId())
+                .productName(row.productName())
+                .quantity(row.quantity())
+                .unitPrice(row.unitPrice())
+                .totalPrice(row.totalPrice())
+                .build();
+    }
+
+    OrderItemResponse mapItemToResponse(OrderItem item) {
         return OrderItemResponse.builder()
                 .id(item.getId())
                 .productId(item.getProductId())
@@ -0,0 +1,288 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderStatusChangedEvent;
+import com.example.orderservice.model.OrderChange;
+import com.example.orderservice.repository.OrderChangeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Fans order status changes out to SSE subscribers. Subscribers are kept in concurrent sets
+ * per order id, so publishing never takes a lock. An idle stream is only an {@link SseEmitter}
+ * parked on an async request; no thread is held. Each subscriber has a one-slot mailbox
+ * holding the latest undelivered event. A slow client therefore receives the newest status
+ * rather than a growing backlog, and only one send per subscriber is ever in flight on the
+ * sender pool. Events are ordered by {@code changedAt}: one older than what the subscriber has
+ * already been offered or sent is dropped, whichever thread delivers it.
+ *
+ * <p>Changes committed on this instance are offered as soon as they commit. With
+ * {@code order.changes.enabled=true} the broadcaster also follows the change feed every
+ * {@code order.events.feed-interval-ms}, so subscribers hear about changes made on other
+ * instances, such as payment results consumed there. Changes that arrive both ways are sent once.
+ * Without the change feed, a stream only carries changes made on the instance serving it.
+ */
+@Component
+@Slf4j
+public class OrderStatusBroadcaster {
+
+    private static final String STATUS_EVENT = "status";
+    private static final int FEED_PAGE_SIZE = 1000;
+
+    private final ConcurrentMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService sender;
+    private final long timeoutMillis;
+    private final int maxSubscribers;
+    private final OrderChangeRepository orderChangeRepository;
+    private final boolean followChanges;
+    // Last change feed entry offered; -1 until the first run starts from the head of the feed
+    private long lastSeq = -1;
+
+    private final Counter sentCounter;
+    private final Counter conflatedCounter;
+    private final Counter failedCounter;
+
+    public OrderStatusBroadcaster(OrderChangeRepository orderChangeRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${order.changes.enabled:false}") boolean followChanges,
+                                  @Value("${order.events.timeout:30m}") Duration timeout,
+                                  @Value("${order.events.max-subscribers:50000}") int maxSubscribers,
+                                  @Value("${order.events.sender-threads:4}") int senderThreads) {
+        this.timeoutMillis = timeout.toMillis();
+        this.maxSubscribers = maxSubscribers;
+        this.orderChangeRepository = orderChangeRepository;
+        this.followChanges = followChanges;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "order-events-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("order.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open order status streams")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("order.events.sent")
+                .description("Status events written to subscribers")
+                .register(meterRegistry);
+        this.conflatedCounter = Counter.builder("order.events.conflated")
+                .description("Status events replaced by a newer one before a slow subscriber received them")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("order.events.failed")
+                .description("Sends that failed and closed the stream")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream for the order and queues the event {@code current} returns as its first one.
+     * The subscriber is registered before {@code current} is called, so a change committed while
+     * it reads the order is not missed. If it throws, the stream is closed and the exception rethrown.
+     */
+    public SseEmitter subscribe(Long orderId, Supplier<OrderStatusChangedEvent> current) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new RejectedExecutionException("Too many open order event streams");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(orderId, emitter);
+        subscribers.computeIfAbsent(orderId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(ex -> remove(subscriber));
+        try {
+            subscriber.offer(current.get());
+        } catch (RuntimeException e) {
+            remove(subscriber);
+            throw e;
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStatusChanged(OrderStatusChangedEvent event) {
+        Set<Subscriber> watchers = subscribers.get(event.orderId());
+        if (watchers == null) {
+            return;
+        }
+        for (Subscriber subscriber : watchers) {
+            subscriber.offer(event);
+        }
+    }
+
+    // Offers changes numbered since the last run, including those committed by other instances
+    @Scheduled(fixedDelayString = "${order.events.feed-interval-ms:200}")
+    public void followChanges() {
+        if (!followChanges) {
+            return;
+        }
+        if (lastSeq < 0) {
+            lastSeq = orderChangeRepository.findMaxSeq();
+            return;
+        }
+        List<OrderChange> changes;
+        do {
+            changes = orderChangeRepository.findBySeqGreaterThanOrderBySeqAsc(lastSeq, PageRequest.of(0, FEED_PAGE_SIZE));
+            for (OrderChange change : changes) {
+                lastSeq = change.getSeq();
+                if (subscribers.containsKey(change.getOrderId())) {
+                    onStatusChanged(new OrderStatusChangedEvent(change.getOrderId(), change.getStatus(),
+                            change.getChangedAt()));
+                }
+            }
+        } while (changes.size() == FEED_PAGE_SIZE);
+    }
+
+    // Keeps idle streams from being closed by proxies and detects clients that went away
+    @Scheduled(fixedDelayString = "${order.events.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (Set<Subscriber> watchers : subscribers.values()) {
+            for (Subscriber subscriber : watchers) {
+                subscriber.requestHeartbeat();
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @PreDestroy
+    public void stop() {
+        sender.shutdownNow();
+        subscribers.values().forEach(watchers -> watchers.forEach(s -> s.emitter().complete()));
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (!subscriber.closed().compareAndSet(false, true)) {
+            return;
+        }
+        subscriberCount.decrementAndGet();
+        subscribers.computeIfPresent(subscriber.orderId(), (id, watchers) -> {
+            watchers.remove(subscriber);
+            return watchers.isEmpty() ? null : watchers;
+        });
+    }
+
+    private final class Subscriber {
+
+        private final Long orderId;
+        private final SseEmitter emitter;
+        private final AtomicReference<OrderStatusChangedEvent> mailbox = new AtomicReference<>();
+        private final AtomicBoolean heartbeatDue = new AtomicBoolean();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // Only touched by the drain that holds the draining flag
+        private OrderStatusChangedEvent lastSent;
+
+        private Subscriber(Long orderId, SseEmitter emitter) {
+            this.orderId = orderId;
+            this.emitter = emitter;
+        }
+
+        Long orderId() {
+            return orderId;
+        }
+
+        SseEmitter emitter() {
+            return emitter;
+        }
+
+        AtomicBoolean closed() {
+            return closed;
+        }
+
+        void offer(OrderStatusChangedEvent event) {
+            OrderStatusChangedEvent replaced = mailbox.getAndAccumulate(event, Subscriber::later);
+            if (replaced != null) {
+                conflatedCounter.increment();
+            }
+            scheduleDrain();
+        }
+
+        void requestHeartbeat() {
+            heartbeatDue.set(true);
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (closed.get() || !draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                OrderStatusChangedEvent event;
+                while (!closed.get() && (event = mailbox.getAndSet(null)) != null) {
+                    // The feed also carries amendments, which repeat the status, and changes already sent from this instance
+                    if (lastSent != null && (later(lastSent, event) == lastSent || lastSent.status() == event.status())) {
+                        conflatedCounter.increment();
+                        continue;
+                    }
+                    heartbeatDue.set(false);
+                    emitter.send(SseEmitter.event()
+                            .name(STATUS_EVENT)
+                            .id(event.orderId() + "-" + event.status())
+                            .data(event));
+                    sentCounter.increment();
+                    lastSent = event;
+                }
+                if (!closed.get() && heartbeatDue.getAndSet(false)) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                failedCounter.increment();
+                log.debug("Closing order event stream for order {}: {}", orderId, e.getMessage());
+                remove(this);
+                emitter.completeWithError(e);
+            } finally {
+                draining.set(false);
+            }
+            if (!closed.get() && (mailbox.get() != null || heartbeatDue.get())) {
+                scheduleDrain();
+            }
+        }
+
+        // The newer of two events; a repeat of the same change counts as not newer
+        private static OrderStatusChangedEvent later(OrderStatusChangedEvent current, OrderStatusChangedEvent offered) {
+            if (current == null) {
+                return offered;
+            }
+            if (offered.changedAt().isAfter(current.changedAt())
+                    || offered.changedAt().equals(current.changedAt()) && !offered.equals(current)) {
+                return offered;
+            }
+            return current;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderStatusChangedEvent;
+import com.example.orderservice.dto.PendingOrderRow;
+import com.example.orderservice.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cancels orders that wait too long for payment, e.g. because a payment event was lost. Every
+ * order in CREATED or PAYMENT_PENDING has a deadline {@code order.timeout.after} past its creation
+ * in a {@link TimingWheel}. A status change out of those states removes it. On startup the wheel
+ * is rebuilt from {@code idx_orders_status_created} on every shard.
+ *
+ * <p>Expired orders are cancelled in batches, with the usual {@code order.cancelled} event. The
+ * cancel only applies to orders still awaiting payment, so one paid just before its deadline is
+ * not touched. The wheel is local to each instance. With several instances each expires the
+ * orders it knows about, and the guarded update makes a second cancel a no-op.
+ */
+@Service
+@Slf4j
+public class OrderTimeoutService {
+
+    private static final int REBUILD_PAGE_SIZE = 10_000;
+
+    private final OrderRepository orderRepository;
+    private final OrderService orderService;
+    private final ShardRouter shardRouter;
+    private final boolean enabled;
+    private final long timeoutMillis;
+    private final long retryDelayMillis;
+    private final int batchSize;
+    private final TimingWheel wheel;
+
+    private final Counter expiredCounter;
+
+    public OrderTimeoutService(OrderRepository orderRepository,
+                               OrderService orderService,
+                               ShardRouter shardRouter,
+                               MeterRegistry meterRegistry,
+                               @Value("${order.timeout.enabled:false}") boolean enabled,
+                               @Value("${order.timeout.after:30m}") Duration timeout,
+                               @Value("${order.timeout.tick-ms:1000}") long tickMillis,
+                               @Value("${order.timeout.retry-delay:30s}") Duration retryDelay,
+                               @Value("${order.timeout.batch-size:500}") int batchSize) {
+        this.orderRepository = orderRepository;
+        this.orderService = orderService;
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+        this.timeoutMillis = timeout.toMillis();
+        this.retryDelayMillis = retryDelay.toMillis();
+        this.batchSize = batchSize;
+        this.wheel = new TimingWheel(tickMillis, System.currentTimeMillis());
+
+        Gauge.builder("order.timeout.pending", wheel, TimingWheel::size)
+                .description("Orders awaiting payment with a timeout scheduled")
+                .register(meterRegistry);
+        this.expiredCounter = Counter.builder("order.timeout.expired")
+                .description("Orders cancelled because they waited too long for payment")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        int[] scheduled = new int[1];
+        shardRouter.forEachShard(shard -> scheduled[0] += rebuildShard());
+        log.info("Scheduled payment timeouts for {} pending orders", scheduled[0]);
+    }
+
+    private int rebuildShard() {
+        LocalDateTime afterCreatedAt = LocalDateTime.of(1970, 1, 1, 0, 0);
+        long afterId = 0;
+        int scheduled = 0;
+        List<PendingOrderRow> page;
+        do {
+            page = orderRepository.findPendingAfter(OrderService.AWAITING_PAYMENT, afterCreatedAt, afterId,
+                    PageRequest.of(0, REBUILD_PAGE_SIZE));
+            for (PendingOrderRow row : page) {
+                if (wheel.schedule(row.id(), deadlineOf(row.createdAt()))) {
+                    scheduled++;
+                }
+            }
+            if (!page.isEmpty()) {
+                PendingOrderRow last = page.get(page.size() - 1);
+                afterCreatedAt = last.createdAt();
+                afterId = last.id();
+            }
+        } while (page.size() == REBUILD_PAGE_SIZE);
+        return scheduled;
+    }
+
+    // A new order, or one going back to PAYMENT_PENDING after a failed payment, starts its clock;
+    // any other status ends it
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onStatusChanged(OrderStatusChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (OrderService.AWAITING_PAYMENT.contains(event.status())) {
+            wheel.schedule(event.orderId(), deadlineOf(event.changedAt()));
+        } else {
+            wheel.cancel(event.orderId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.timeout.tick-ms:1000}")
+    public void expire() {
+        if (!enabled) {
+            return;
+        }
+        List<Long> expired = new ArrayList<>();
+        wheel.advance(System.currentTimeMillis(), expired::add);
+        shardRouter.groupByShard(expired, shardRouter::shardOfOrderId).values().forEach(this::cancel);
+    }
+
+    private void cancel(List<Long> expired) {
+        for (int from = 0; from < expired.size(); from += batchSize) {
+            List<Long> batch = expired.subList(from, Math.min(from + batchSize, expired.size()));
+            try {
+                expiredCounter.increment(orderService.cancelExpiredOrders(batch).size());
+            } catch (RuntimeException e) {
+                log.warn("Could not cancel {} expired orders, retrying in {} ms", batch.size(), retryDelayMillis, e);
+                long retryAt = System.currentTimeMillis() + retryDelayMillis;
+                batch.forEach(orderId -> wheel.schedule(orderId, retryAt));
+            }
+        }
+    }
+
+    public boolean isScheduled(Long orderId) {
+        return wheel.contains(orderId);
+    }
+
+    private long deadlineOf(LocalDateTime from) {
+        return from.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + timeoutMillis;
+    }
+}
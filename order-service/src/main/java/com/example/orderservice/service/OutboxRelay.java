@@ -0,0 +1,179 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.model.OutboxEvent;
+import com.example.orderservice.model.OutboxRelayLock;
+import com.example.orderservice.repository.OutboxEventRepository;
+import com.example.orderservice.repository.OutboxRelayLockRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox in id order and publishes each batch to Kafka. Rows are deleted
+ * only once the broker has acknowledged them, so delivery is at-least-once. A failed send
+ * ends the batch: only the acknowledged rows before it are deleted, and the rest are sent
+ * again, in order, on the next run. When order storage is sharded, each shard's outbox is
+ * drained in turn.
+ *
+ * <p>Each batch runs in a transaction that holds the row of {@code order_outbox_relay_lock},
+ * taken with {@code SKIP LOCKED}. Only one instance drains a shard at a time; the others skip
+ * the run. This keeps rows from being published twice.
+ *
+ * <p>One order's events are published in the order they were written. Writes to one order are
+ * serialized by its version check, so a later event's transaction draws its id from
+ * {@code order_outbox_seq} only after the earlier one has committed. Ids are drawn one at a time,
+ * not in pooled blocks, so this holds across instances too. Events of different orders may still
+ * be published in a different order from their commits.
+ */
+@Component
+@ConditionalOnProperty(name = "order.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class OutboxRelay {
+
+    private static final String LOCK_NAME = "outbox_relay";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxRelayLockRepository lockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final KafkaProducerService kafkaProducerService;
+    private final ShardRouter shardRouter;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final DistributionSummary batchSizeSummary;
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxRelayLockRepository lockRepository,
+                       PlatformTransactionManager transactionManager,
+                       KafkaProducerService kafkaProducerService,
+                       ShardRouter shardRouter,
+                       MeterRegistry meterRegistry,
+                       @Value("${order.outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${order.outbox.relay.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.lockRepository = lockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.kafkaProducerService = kafkaProducerService;
+        this.shardRouter = shardRouter;
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+
+        TimeGauge.builder("order.outbox.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Age of the oldest unpublished outbox event")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("order.outbox.batch.size")
+                .description("Number of outbox events published per relay batch")
+                .register(meterRegistry);
+        this.publishedCounter = Counter.builder("order.outbox.published")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("order.outbox.failed")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${order.outbox.relay.interval-ms:250}")
+    public void relay() {
+        long[] lag = new long[1];
+        shardRouter.forEachShard(shard -> lag[0] = Math.max(lag[0], drain()));
+        lagMillis.set(lag[0]);
+    }
+
+    // Returns the age of the oldest event found, 0 if there was none
+    private long drain() {
+        long lag = 0;
+        BatchResult result;
+        do {
+            result = transactionTemplate.execute(status -> relayBatch());
+            if (result == null || result.read() == 0) {
+                return lag;
+            }
+            if (lag == 0) {
+                lag = result.lagMillis();
+            }
+            if (result.published() < result.read()) {
+                // Leave the remainder for the next run rather than spinning on a broken broker
+                return lag;
+            }
+        } while (result.read() == batchSize);
+        return lag;
+    }
+
+    private BatchResult relayBatch() {
+        if (!claim()) {
+            log.debug("Outbox is being relayed by another instance");
+            return null;
+        }
+        List<OutboxEvent> batch = outboxEventRepository.findAllByOrderByIdAsc(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return new BatchResult(0, 0, 0);
+        }
+        long lag = Duration.between(batch.get(0).getCreatedAt(), LocalDateTime.now()).toMillis();
+        return new BatchResult(batch.size(), publishBatch(batch), lag);
+    }
+
+    private boolean claim() {
+        if (lockRepository.findByNameSkipLocked(LOCK_NAME).isPresent()) {
+            return true;
+        }
+        if (lockRepository.existsById(LOCK_NAME)) {
+            return false;
+        }
+        // First run on this database; the inserted row stays locked until the batch commits
+        lockRepository.saveAndFlush(new OutboxRelayLock(LOCK_NAME));
+        return true;
+    }
+
+    private int publishBatch(List<OutboxEvent> batch) {
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            sends.add(kafkaProducerService.sendOutboxEvent(event));
+        }
+
+        // Only the acknowledged prefix counts: a later event of the same order must not be
+        // deleted while an earlier one still has to be retried
+        List<Long> published = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEvent event = batch.get(i);
+            try {
+                sends.get(i).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+                published.add(event.getId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.warn("Failed to publish outbox event {} for order {}", event.getId(), event.getEventKey(), e);
+                break;
+            }
+        }
+
+        if (!published.isEmpty()) {
+            outboxEventRepository.deleteAllByIdInBatch(published);
+        }
+        batchSizeSummary.record(published.size());
+        publishedCounter.increment(published.size());
+        failedCounter.increment(batch.size() - published.size());
+        log.debug("Relayed {}/{} outbox events", published.size(), batch.size());
+        return published.size();
+    }
+
+    private record BatchResult(int read, int published, long lagMillis) {}
+}
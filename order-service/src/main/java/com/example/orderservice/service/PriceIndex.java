@@ -0,0 +1,78 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.model.Money;
+
+import java.util.Map;
+
+/**
+ * Immutable open-addressing map from product id to unit price. Keys and prices sit in two
+ * parallel arrays probed linearly at a load factor of at most 0.5, so a lookup is a hash, a few
+ * array reads and no locks or allocation. Safe to share between threads once built; a changed
+ * catalog is a new index.
+ */
+public final class PriceIndex {
+
+    public static final PriceIndex EMPTY = of(Map.of());
+
+    private final String[] productIds;
+    private final Money[] prices;
+    private final int shift;
+    private final int mask;
+    private final int size;
+
+    private PriceIndex(String[] productIds, Money[] prices, int size) {
+        this.productIds = productIds;
+        this.prices = prices;
+        this.shift = shift(productIds.length);
+        this.mask = productIds.length - 1;
+        this.size = size;
+    }
+
+    public static PriceIndex of(Map<String, Money> prices) {
+        int capacity = Integer.highestOneBit(Math.max(2, prices.size() * 2 - 1)) << 1;
+        String[] productIds = new String[capacity];
+        Money[] values = new Money[capacity];
+        int shift = shift(capacity);
+        prices.forEach((productId, price) -> {
+            int slot = slot(productId, shift);
+            while (productIds[slot] != null) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            productIds[slot] = productId;
+            values[slot] = price;
+        });
+        return new PriceIndex(productIds, values, prices.size());
+    }
+
+    // Null when the product is not in the catalog
+    public Money get(String productId) {
+        if (productId == null) {
+            return null;
+        }
+        int slot = slot(productId, shift);
+        while (true) {
+            String candidate = productIds[slot];
+            if (candidate == null) {
+                return null;
+            }
+            if (candidate.equals(productId)) {
+                return prices[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Fibonacci hashing: the top bits of hash * 2^32/phi, which spreads the similar hash codes of
+    // ids like SKU-1, SKU-2 across the table
+    private static int slot(String productId, int shift) {
+        return (productId.hashCode() * 0x9E3779B9) >>> shift;
+    }
+
+    private static int shift(int capacity) {
+        return Integer.SIZE - Integer.numberOfTrailingZeros(capacity);
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.exception.ProductNotPricedException;
+import com.example.orderservice.model.Money;
+import com.example.orderservice.model.ProductPrice;
+import com.example.orderservice.repository.ProductPriceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server-side unit prices for order items. The catalog is held as an immutable {@link PriceIndex}
+ * behind a volatile reference. Lookups read that reference once and never block. A refresh builds
+ * the next index off to the side and swaps it in with one write, so orders being priced during a
+ * refresh see the old catalog or the new one and never wait for it. A failed refresh keeps the
+ * current index. Prices come from {@code order.pricing.catalog-file} (CSV with a
+ * {@code productId,unitPrice} header) when set, otherwise from the {@code product_prices} table.
+ */
+@Service
+@Slf4j
+public class ProductPriceCatalog {
+
+    private final ProductPriceRepository productPriceRepository;
+    private final boolean enabled;
+    private final Path catalogFile;
+
+    private volatile PriceIndex index = PriceIndex.EMPTY;
+
+    private final Timer refreshTimer;
+    private final Counter refreshFailures;
+    private final Counter unpricedCounter;
+
+    public ProductPriceCatalog(ProductPriceRepository productPriceRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${order.pricing.enabled:false}") boolean enabled,
+                               @Value("${order.pricing.catalog-file:}") String catalogFile) {
+        this.productPriceRepository = productPriceRepository;
+        this.enabled = enabled;
+        this.catalogFile = catalogFile.isBlank() ? null : Path.of(catalogFile);
+
+        this.refreshTimer = Timer.builder("order.pricing.refresh")
+                .description("Time to load the catalog and build a new price index")
+                .register(meterRegistry);
+        this.refreshFailures = Counter.builder("order.pricing.refresh.failures")
+                .description("Catalog refreshes that failed and kept the previous index")
+                .register(meterRegistry);
+        this.unpricedCounter = Counter.builder("order.pricing.unpriced")
+                .description("Order items rejected because their product has no catalog price")
+                .register(meterRegistry);
+        Gauge.builder("order.pricing.products", this, catalog -> catalog.index.size())
+                .description("Products in the current price index")
+                .register(meterRegistry);
+    }
+
+    // Fails startup if pricing is enabled and the catalog cannot be read
+    @PostConstruct
+    void loadCatalog() {
+        if (enabled) {
+            refresh();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.pricing.refresh-interval-ms:60000}",
+            initialDelayString = "${order.pricing.refresh-interval-ms:60000}")
+    public void scheduledRefresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            refreshFailures.increment();
+            log.error("Catalog refresh failed, keeping the current {} prices", index.size(), e);
+        }
+    }
+
+    // Returns the number of products in the new index
+    public int refresh() {
+        long start = System.nanoTime();
+        PriceIndex next = PriceIndex.of(catalogFile != null ? readFile(catalogFile) : readTable());
+        index = next;
+        refreshTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        log.info("Loaded {} catalog prices from {}", next.size(),
+                catalogFile != null ? catalogFile : "product_prices");
+        return next.size();
+    }
+
+    /**
+     * The unit price to charge: the catalog price when pricing is enabled, otherwise the price the
+     * client sent. Throws {@link ProductNotPricedException} for a product missing from the catalog.
+     */
+    public Money unitPriceFor(String productId, BigDecimal requestedPrice) {
+        if (!enabled) {
+            return Money.of(requestedPrice);
+        }
+        Money price = index.get(productId);
+        if (price == null) {
+            unpricedCounter.increment();
+            throw new ProductNotPricedException(productId);
+        }
+        return price;
+    }
+
+    private Map<String, Money> readTable() {
+        Map<String, Money> prices = new HashMap<>();
+        for (ProductPrice price : productPriceRepository.findAll()) {
+            prices.put(price.getProductId(), price.getUnitPrice());
+        }
+        return prices;
+    }
+
+    private static Map<String, Money> readFile(Path file) {
+        Map<String, Money> prices = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null || !header.strip().equalsIgnoreCase("productId,unitPrice")) {
+                throw new IllegalArgumentException(file + ": expected header productId,unitPrice");
+            }
+            long lineNumber = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                int comma = line.indexOf(',');
+                try {
+                    if (comma <= 0) {
+                        throw new IllegalArgumentException("missing unit price");
+                    }
+                    prices.put(line.substring(0, comma).strip(), Money.of(new BigDecimal(line.substring(comma + 1).strip())));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(file + " line " + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read catalog " + file, e);
+        }
+        return prices;
+    }
+}
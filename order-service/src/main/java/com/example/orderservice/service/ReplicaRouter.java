@@ -0,0 +1,131 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.config.ReadWriteRoutingDataSource;
+import com.example.orderservice.config.ReplicaContext;
+import com.example.orderservice.config.ReplicaProperties;
+import com.example.orderservice.model.Order;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Read-your-writes for replica reads when {@code order.replica.enabled} is set, and a no-op
+ * otherwise. For {@code read-your-writes-window} after an order is created, reads of that order
+ * and of its customer's orders are kept on the primary. Updates are recorded by order id and
+ * number only: they usually come from other services, not from the customer. Writers record an
+ * update before evicting the order from {@link OrderResponseCache}, so a reader that misses the
+ * cache after commit is already pinned to the primary.
+ */
+@Service
+public class ReplicaRouter {
+
+    private final Cache<String, Boolean> recentWrites;
+    private final Counter pinnedCounter;
+
+    public ReplicaRouter(ReplicaProperties properties, MeterRegistry meterRegistry) {
+        boolean tracking = properties.enabled() && !properties.readYourWritesWindow().isZero();
+        this.recentWrites = tracking ? Caffeine.newBuilder()
+                .maximumSize(properties.readYourWritesMaxEntries())
+                .expireAfterWrite(properties.readYourWritesWindow())
+                .build() : null;
+        this.pinnedCounter = Counter.builder("order.datasource.replica.pinned")
+                .description("Read-only transactions kept on the primary after a recent write")
+                .register(meterRegistry);
+    }
+
+    public void recordCreated(Order order) {
+        record(customerKey(order.getCustomerId()), orderKey(order.getId()), numberKey(order.getOrderNumber()));
+    }
+
+    public void recordUpdated(Long orderId, String orderNumber) {
+        record(orderKey(orderId), numberKey(orderNumber));
+    }
+
+    // For writers that only hold the id; the number is only looked up while writes are tracked
+    public void recordUpdated(Long orderId, Supplier<String> orderNumber) {
+        if (recentWrites != null) {
+            recordUpdated(orderId, orderNumber.get());
+        }
+    }
+
+    // The read* methods must be called inside the read-only transaction, before its first statement
+    public void readCustomer(String customerId) {
+        pinIfRecent(customerKey(customerId));
+    }
+
+    public void readOrder(Long orderId) {
+        pinIfRecent(orderKey(orderId));
+    }
+
+    public void readOrders(Collection<Long> orderIds) {
+        if (recentWrites != null) {
+            pinIfRecent(orderIds.stream().map(ReplicaRouter::orderKey).toArray(String[]::new));
+        }
+    }
+
+    public void readOrderNumber(String orderNumber) {
+        pinIfRecent(numberKey(orderNumber));
+    }
+
+    // The window starts once the write is visible on the primary
+    private void record(String... keys) {
+        if (recentWrites == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remember(keys);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(keys);
+            }
+        });
+    }
+
+    private void remember(String... keys) {
+        for (String key : keys) {
+            recentWrites.put(key, Boolean.TRUE);
+        }
+    }
+
+    private void pinIfRecent(String... keys) {
+        if (recentWrites == null || !TransactionSynchronizationManager.isSynchronizationActive()
+                || ReplicaContext.current() == ReadWriteRoutingDataSource.Route.PRIMARY) {
+            return;
+        }
+        for (String key : keys) {
+            if (recentWrites.getIfPresent(key) != null) {
+                pinnedCounter.increment();
+                ReadWriteRoutingDataSource.Route previous = ReplicaContext.set(ReadWriteRoutingDataSource.Route.PRIMARY);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        ReplicaContext.restore(previous);
+                    }
+                });
+                return;
+            }
+        }
+    }
+
+    private static String customerKey(String customerId) {
+        return "c:" + customerId;
+    }
+
+    private static String orderKey(Long orderId) {
+        return "o:" + orderId;
+    }
+
+    private static String numberKey(String orderNumber) {
+        return "n:" + orderNumber;
+    }
+}
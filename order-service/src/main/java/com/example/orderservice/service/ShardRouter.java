@@ -0,0 +1,237 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.config.ShardContext;
+import com.example.orderservice.config.ShardingProperties;
+import com.example.orderservice.exception.OrderNotFoundException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Decides which shard order data lives on when {@code order.sharding.enabled} is set, and is a
+ * no-op on a single database otherwise. A customer's orders all live on the shard picked by a
+ * {@link ConsistentHashRing} over the customer id. The shard is also encoded in what clients get
+ * back, so single-order reads never have to search:
+ * <ul>
+ *   <li>order ids carry the shard in their top bits, because each shard's {@code orders_seq}
+ *   starts at {@link #firstOrderIdOf(int)};</li>
+ *   <li>order numbers start with {@code ORD-S<shard>-}.</li>
+ * </ul>
+ * A transaction is pinned to a shard with {@link #bind(int)} before its first statement. Work that
+ * spans shards is split up by the caller with {@link #groupByShard}, or run on every shard with
+ * {@link #scatter} and {@link #forEachShard}.
+ */
+@Service
+@Slf4j
+public class ShardRouter {
+
+    static final int ORDER_ID_SHARD_SHIFT = 48;
+    // The pooled id optimizer hands out ids up to one allocation below the value it reads
+    private static final long ORDER_ID_SEQUENCE_OFFSET = 1000;
+    private static final String ORDER_NUMBER_PREFIX = "ORD-S";
+    private static final Object BOUND_SHARD_KEY = new Object();
+
+    private final boolean enabled;
+    private final int shardCount;
+    private final ConsistentHashRing ring;
+    private final ExecutorService scatterExecutor;
+
+    public ShardRouter(ShardingProperties properties) {
+        this.enabled = properties.enabled();
+        this.shardCount = enabled ? properties.shards().size() : 1;
+        this.ring = enabled ? new ConsistentHashRing(
+                properties.shards().stream().map(ShardingProperties.Shard::name).toList(),
+                properties.virtualNodes()) : null;
+        AtomicInteger threads = new AtomicInteger();
+        this.scatterExecutor = enabled ? Executors.newFixedThreadPool(shardCount, task -> {
+            Thread thread = new Thread(task, "shard-scatter-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    public static long firstOrderIdOf(int shard) {
+        return ((long) shard << ORDER_ID_SHARD_SHIFT) + ORDER_ID_SEQUENCE_OFFSET;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int shardForCustomer(String customerId) {
+        return enabled ? ring.nodeFor(customerId) : 0;
+    }
+
+    public int shardOfOrderId(long orderId) {
+        if (!enabled) {
+            return 0;
+        }
+        long shard = orderId >>> ORDER_ID_SHARD_SHIFT;
+        if (orderId <= 0 || shard >= shardCount) {
+            // Ids that no shard hands out cannot name an order
+            throw new OrderNotFoundException("Order not found with id: " + orderId);
+        }
+        return (int) shard;
+    }
+
+    // Empty for numbers without a shard, such as those issued before sharding was enabled
+    public OptionalInt shardOfOrderNumber(String orderNumber) {
+        if (!enabled) {
+            return OptionalInt.of(0);
+        }
+        if (!orderNumber.startsWith(ORDER_NUMBER_PREFIX)) {
+            return OptionalInt.empty();
+        }
+        int end = orderNumber.indexOf('-', ORDER_NUMBER_PREFIX.length());
+        if (end <= ORDER_NUMBER_PREFIX.length() || end - ORDER_NUMBER_PREFIX.length() > 5) {
+            return OptionalInt.empty();
+        }
+        int shard = 0;
+        for (int i = ORDER_NUMBER_PREFIX.length(); i < end; i++) {
+            char c = orderNumber.charAt(i);
+            if (c < '0' || c > '9') {
+                return OptionalInt.empty();
+            }
+            shard = shard * 10 + (c - '0');
+        }
+        return shard < shardCount ? OptionalInt.of(shard) : OptionalInt.empty();
+    }
+
+    public String orderNumberPrefix(int shard) {
+        return enabled ? ORDER_NUMBER_PREFIX + shard + "-" : "ORD-";
+    }
+
+    /**
+     * Pins the current transaction to {@code shard} until it completes. Must be called before the
+     * transaction's first statement; binding it again to the same shard is a no-op, to another
+     * shard fails.
+     */
+    public void bind(int shard) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Shards can only be bound inside a transaction");
+        }
+        Integer bound = (Integer) TransactionSynchronizationManager.getResource(BOUND_SHARD_KEY);
+        if (bound != null) {
+            if (bound != shard) {
+                throw new IllegalStateException("Transaction is on shard " + bound + ", cannot use shard " + shard);
+            }
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(BOUND_SHARD_KEY, shard);
+        Integer previous = ShardContext.set(shard);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(BOUND_SHARD_KEY);
+                ShardContext.restore(previous);
+            }
+        });
+    }
+
+    // The one shard all of the orders live on; callers with orders from several shards group them first
+    public int shardOfOrderIds(Collection<Long> orderIds) {
+        return requireSingleShard(orderIds, this::shardOfOrderId);
+    }
+
+    public int shardForCustomers(Collection<String> customerIds) {
+        return requireSingleShard(customerIds, this::shardForCustomer);
+    }
+
+    // Runs work that opens its own transactions against one shard
+    public <T> T callOn(int shard, Supplier<T> work) {
+        if (!enabled) {
+            return work.get();
+        }
+        Integer previous = ShardContext.set(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+
+    // Splits items by shard, keeping their order within each shard
+    public <T> Map<Integer, List<T>> groupByShard(Collection<T> items, ToIntFunction<T> shardOf) {
+        Map<Integer, List<T>> groups = new TreeMap<>();
+        if (!enabled) {
+            if (!items.isEmpty()) {
+                groups.put(0, new ArrayList<>(items));
+            }
+            return groups;
+        }
+        for (T item : items) {
+            groups.computeIfAbsent(shardOf.applyAsInt(item), shard -> new ArrayList<>()).add(item);
+        }
+        return groups;
+    }
+
+    /**
+     * Runs {@code work} against every shard at once and returns the results in shard order. For
+     * the rare query that cannot be routed; each call opens its own transactions.
+     */
+    public <T> List<T> scatter(IntFunction<T> work) {
+        if (!enabled) {
+            return List.of(work.apply(0));
+        }
+        List<CompletableFuture<T>> results = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            results.add(CompletableFuture.supplyAsync(() -> callOn(target, () -> work.apply(target)), scatterExecutor));
+        }
+        return results.stream().map(CompletableFuture::join).toList();
+    }
+
+    // Runs work against each shard in turn on the calling thread, for background jobs
+    public void forEachShard(IntConsumer work) {
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            callOn(target, () -> {
+                work.accept(target);
+                return null;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdownNow();
+        }
+    }
+
+    private <T> int requireSingleShard(Collection<T> keys, ToIntFunction<T> shardOf) {
+        int shard = -1;
+        for (T key : keys) {
+            int next = shardOf.applyAsInt(key);
+            if (shard >= 0 && next != shard) {
+                throw new IllegalArgumentException("Expected keys of one shard, got shards " + shard + " and " + next);
+            }
+            shard = next;
+        }
+        return Math.max(shard, 0);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.orderservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Collapses concurrent loads of the same key into one: the first caller runs the loader
+ * and everyone arriving while it is in flight waits for and shares its result, including
+ * a failure. Nothing is retained once the load completes; caching is the caller's job.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter leaderCounter;
+    private final Counter coalescedCounter;
+    private final Timer coalescedWaitTimer;
+
+    public SingleFlight(String lookup, MeterRegistry meterRegistry) {
+        this.leaderCounter = Counter.builder("order.lookup.singleflight")
+                .description("Lookups that ran their own load")
+                .tag("lookup", lookup)
+                .tag("result", "leader")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("order.lookup.singleflight")
+                .description("Lookups that joined a load already in flight")
+                .tag("lookup", lookup)
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+        this.coalescedWaitTimer = Timer.builder("order.lookup.singleflight.wait")
+                .description("Time coalesced lookups spent waiting on the in-flight load")
+                .tag("lookup", lookup)
+                .register(meterRegistry);
+    }
+
+    public V load(K key, Function<K, V> loader) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalescedCounter.increment();
+            long start = System.nanoTime();
+            try {
+                return join(existing);
+            } finally {
+                coalescedWaitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        leaderCounter.increment();
+        try {
+            V value = loader.apply(key);
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.exception.InsufficientStockException;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * In-memory stock per product. Reserving is a compare-and-set loop on the product's available
+ * count, so orders for different products never touch the same memory and orders for one hot
+ * product contend on a single cache line instead of queueing on a row lock. A product is loaded
+ * on first use; products the loader does not know are remembered as untracked and never limited.
+ *
+ * <p>Units reserved in memory stay pending until the reserving transaction completes, so
+ * {@link #reconcile} can correct the counters from the database without counting them twice or
+ * not at all. Changes applied after a commit are wrapped in {@link #blockLoads()} and
+ * {@link #unblockLoads()}, so a product first loaded in between cannot see them twice.
+ */
+public class StockCounters {
+
+    private static final Stock UNTRACKED = new Stock(0, 0);
+
+    private final ConcurrentMap<String, Stock> stocks = new ConcurrentHashMap<>();
+    private final Function<String, Stock> loader;
+    private final LongAdder casRetries = new LongAdder();
+    private final ReentrantReadWriteLock loads = new ReentrantReadWriteLock();
+
+    public StockCounters(Function<String, Stock> loader) {
+        this.loader = loader;
+    }
+
+    // Null when the product is untracked
+    public Stock get(String productId) {
+        Stock stock = stocks.get(productId);
+        if (stock == null) {
+            loads.readLock().lock();
+            try {
+                stock = stocks.computeIfAbsent(productId, id -> {
+                    Stock loaded = loader.apply(id);
+                    return loaded != null ? loaded : UNTRACKED;
+                });
+            } finally {
+                loads.readLock().unlock();
+            }
+        }
+        return stock == UNTRACKED ? null : stock;
+    }
+
+    /**
+     * Reserves all of the given quantities or none of them. Returns the quantities of the tracked
+     * products, which are the ones actually taken from stock. They stay pending until passed to
+     * {@link #confirmAll} or {@link #cancelAll}.
+     */
+    public Map<String, Long> reserveAll(Map<String, Long> quantities) {
+        Map<String, Long> reserved = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : quantities.entrySet()) {
+            Stock stock = get(entry.getKey());
+            if (stock == null) {
+                continue;
+            }
+            if (!tryReserve(stock, entry.getValue())) {
+                cancelAll(reserved);
+                throw new InsufficientStockException(entry.getKey(), entry.getValue());
+            }
+            reserved.put(entry.getKey(), entry.getValue());
+        }
+        return reserved;
+    }
+
+    // Reserved units whose transaction committed; their reservation rows now account for them
+    public void confirmAll(Map<String, Long> quantities) {
+        quantities.forEach((productId, quantity) -> {
+            Stock stock = loaded(productId);
+            if (stock != null) {
+                stock.pending.addAndGet(-quantity);
+            }
+        });
+    }
+
+    // Reserved units whose transaction rolled back, returned to available stock
+    public void cancelAll(Map<String, Long> quantities) {
+        quantities.forEach((productId, quantity) -> {
+            Stock stock = loaded(productId);
+            if (stock != null) {
+                // Before the pending count drops, so a reconcile in between errs towards less stock
+                stock.available.addAndGet(quantity);
+                stock.pending.addAndGet(-quantity);
+                stock.markDirty();
+            }
+        });
+    }
+
+    // Returns units of committed reservations to available stock
+    public void releaseAll(Map<String, Long> quantities) {
+        quantities.forEach((productId, quantity) -> {
+            Stock stock = loaded(productId);
+            if (stock != null) {
+                stock.available.addAndGet(quantity);
+                stock.markDirty();
+            }
+        });
+    }
+
+    // Removes reserved units from stock for good, e.g. once they are delivered
+    public void consumeAll(Map<String, Long> quantities) {
+        quantities.forEach((productId, quantity) -> {
+            Stock stock = loaded(productId);
+            if (stock != null) {
+                stock.onHand.addAndGet(-quantity);
+                stock.markDirty();
+            }
+        });
+    }
+
+    public void restock(String productId, long units) {
+        stocks.computeIfPresent(productId, (id, stock) -> {
+            if (stock == UNTRACKED) {
+                // Reload from the new stock row on next use
+                return null;
+            }
+            stock.onHand.addAndGet(units);
+            stock.available.addAndGet(units);
+            stock.markDirty();
+            return stock;
+        });
+    }
+
+    // Held from before a commit until its changes are applied here; loads wait meanwhile
+    public void blockLoads() {
+        loads.writeLock().lock();
+    }
+
+    public void unblockLoads() {
+        loads.writeLock().unlock();
+    }
+
+    /**
+     * Corrects loaded products to what the database holds: {@code loadAll} returns the stock of the
+     * given products as the loader would, and pending units are taken off that. This picks up
+     * reservations, settlements and restocks committed by other instances. Untracked products are
+     * forgotten, so ones stocked elsewhere are loaded on next use. Returns the number of products
+     * corrected.
+     */
+    public int reconcile(Function<Collection<String>, Map<String, Stock>> loadAll) {
+        blockLoads();
+        try {
+            stocks.values().removeIf(stock -> stock == UNTRACKED);
+            // Read before the database, so units that commit meanwhile are counted twice rather than not at all
+            Map<String, long[]> before = new HashMap<>();
+            stocks.forEach((productId, stock) -> {
+                long available = stock.available.get();
+                before.put(productId, new long[]{stock.onHand.get(), available + stock.pending.get()});
+            });
+            if (before.isEmpty()) {
+                return 0;
+            }
+            Map<String, Stock> current = loadAll.apply(before.keySet());
+            int corrected = 0;
+            for (Map.Entry<String, long[]> entry : before.entrySet()) {
+                Stock stock = stocks.get(entry.getKey());
+                Stock fresh = current.get(entry.getKey());
+                if (fresh == null) {
+                    stocks.remove(entry.getKey());
+                    continue;
+                }
+                long onHandDrift = fresh.onHand() - entry.getValue()[0];
+                long availableDrift = fresh.available() - entry.getValue()[1];
+                if (onHandDrift != 0 || availableDrift != 0) {
+                    stock.onHand.addAndGet(onHandDrift);
+                    stock.available.addAndGet(availableDrift);
+                    stock.markDirty();
+                    corrected++;
+                }
+            }
+            return corrected;
+        } finally {
+            unblockLoads();
+        }
+    }
+
+    // Visits products changed since their last visit
+    public void forEachDirty(BiConsumer<String, Stock> consumer) {
+        stocks.forEach((productId, stock) -> {
+            if (stock.dirty) {
+                stock.dirty = false;
+                consumer.accept(productId, stock);
+            }
+        });
+    }
+
+    public int size() {
+        return stocks.size();
+    }
+
+    // Failed compare-and-set attempts; a rising rate means a product is hot
+    public long casRetries() {
+        return casRetries.sum();
+    }
+
+    private boolean tryReserve(Stock stock, long quantity) {
+        // Pending before available, so a reconcile in between errs towards less stock
+        stock.pending.addAndGet(quantity);
+        while (true) {
+            long available = stock.available.get();
+            if (available < quantity) {
+                stock.pending.addAndGet(-quantity);
+                return false;
+            }
+            if (stock.available.compareAndSet(available, available - quantity)) {
+                stock.markDirty();
+                return true;
+            }
+            casRetries.increment();
+        }
+    }
+
+    // Units of products not in memory are already reflected by the next load from the database
+    private Stock loaded(String productId) {
+        Stock stock = stocks.get(productId);
+        return stock == UNTRACKED ? null : stock;
+    }
+
+    public static final class Stock {
+
+        private final AtomicLong onHand;
+        private final AtomicLong available;
+        private final AtomicLong pending = new AtomicLong();
+        private volatile boolean dirty;
+
+        public Stock(long onHand, long available) {
+            this.onHand = new AtomicLong(onHand);
+            this.available = new AtomicLong(available);
+        }
+
+        public long onHand() {
+            return onHand.get();
+        }
+
+        public long available() {
+            return available.get();
+        }
+
+        public long reserved() {
+            return onHand.get() - available.get();
+        }
+
+        // Read first so a hot product does not write the flag on every reservation
+        private void markDirty() {
+            if (!dirty) {
+                dirty = true;
+            }
+        }
+    }
+}
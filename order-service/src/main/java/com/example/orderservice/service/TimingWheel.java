@@ -0,0 +1,152 @@
+package com.example.orderservice.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Hierarchical hashed timing wheel of deadlines keyed by a {@code long} id. Level 0 has one slot
+ * per tick; each level above has slots 64 times as wide. A timer goes into the lowest level whose
+ * range covers its deadline, and when time reaches its slot on a higher level it is moved down
+ * one level. Scheduling and cancelling are O(1): a hash lookup plus a link or unlink in a
+ * doubly linked slot list. Advancing costs O(1) per tick plus the timers that expire or move down.
+ *
+ * <p>Deadlines are in milliseconds and fire on the first {@link #advance} at or after them,
+ * rounded up to a whole tick. All methods are synchronized.
+ */
+public class TimingWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 6;
+    private static final long MAX_SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    private final long tickMillis;
+    private final Timer[][] slots = new Timer[LEVELS][SLOTS];
+    private final Map<Long, Timer> timers = new HashMap<>();
+    private long currentTick;
+
+    public TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        for (Timer[] level : slots) {
+            for (int i = 0; i < SLOTS; i++) {
+                level[i] = Timer.sentinel();
+            }
+        }
+    }
+
+    /**
+     * Schedules {@code id} to expire at {@code deadlineMillis}. Returns false, leaving the existing
+     * deadline in place, if {@code id} is already scheduled. A deadline in the past expires on the
+     * next tick.
+     */
+    public synchronized boolean schedule(long id, long deadlineMillis) {
+        if (timers.containsKey(id)) {
+            return false;
+        }
+        long deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        Timer timer = new Timer(id, Math.max(deadlineTick, currentTick + 1));
+        timers.put(id, timer);
+        place(timer);
+        return true;
+    }
+
+    public synchronized boolean cancel(long id) {
+        Timer timer = timers.remove(id);
+        if (timer == null) {
+            return false;
+        }
+        timer.unlink();
+        return true;
+    }
+
+    public synchronized boolean contains(long id) {
+        return timers.containsKey(id);
+    }
+
+    public synchronized int size() {
+        return timers.size();
+    }
+
+    /**
+     * Moves time forward to {@code nowMillis} and hands every id whose deadline has passed to
+     * {@code expired}, in deadline order. Expired ids are removed before the callback runs.
+     */
+    public synchronized void advance(long nowMillis, LongConsumer expired) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade(1);
+            Timer head = slots[0][(int) (currentTick & SLOT_MASK)];
+            while (head.next != head) {
+                Timer timer = head.next;
+                timer.unlink();
+                timers.remove(timer.id);
+                expired.accept(timer.id);
+            }
+        }
+    }
+
+    // When a level's lower digits roll over to zero, its current slot is due; its timers move down
+    private void cascade(int level) {
+        if (level >= LEVELS || (currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+            return;
+        }
+        cascade(level + 1);
+        Timer head = slots[level][(int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK)];
+        while (head.next != head) {
+            Timer timer = head.next;
+            timer.unlink();
+            place(timer);
+        }
+    }
+
+    private void place(Timer timer) {
+        long delta = Math.min(timer.deadlineTick - currentTick, MAX_SPAN - 1);
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        long tick = currentTick + delta;
+        timer.linkBefore(slots[level][(int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK)]);
+    }
+
+    private static final class Timer {
+
+        private final long id;
+        private final long deadlineTick;
+        private Timer prev;
+        private Timer next;
+
+        Timer(long id, long deadlineTick) {
+            this.id = id;
+            this.deadlineTick = deadlineTick;
+        }
+
+        static Timer sentinel() {
+            Timer head = new Timer(-1, -1);
+            head.prev = head;
+            head.next = head;
+            return head;
+        }
+
+        void linkBefore(Timer head) {
+            prev = head.prev;
+            next = head;
+            head.prev.next = this;
+            head.prev = this;
+        }
+
+        void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+    }
+}
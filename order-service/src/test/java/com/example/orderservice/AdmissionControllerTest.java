@@ -0,0 +1,86 @@
+package com.example.orderservice;
+
+import com.example.orderservice.exception.ServiceOverloadedException;
+import com.example.orderservice.service.AdmissionController;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdmissionControllerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testAdmit_ShedsAtTheLimitAndReleasesOnCompletion() {
+        // Arrange
+        AdmissionController admission = admission(2);
+        CompletableFuture<String> first = admission.admit(CompletableFuture::new);
+        admission.admit(CompletableFuture::new);
+
+        // Act & Assert
+        assertThatThrownBy(() -> admission.admit(() -> CompletableFuture.completedFuture("third")))
+                .isInstanceOf(ServiceOverloadedException.class);
+        first.complete("done");
+        assertThat(admission.getInFlight()).isEqualTo(1);
+        assertThat(admission.admit(() -> CompletableFuture.completedFuture("third"))).isCompletedWithValue("third");
+        assertThat(meterRegistry.get("order.admission.shed").tag("reason", "limit").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testAdmit_SlowCompletionCutsLimitAndFastOnesGrowIt() {
+        // Arrange
+        AdmissionController admission = admission(10);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        // Act
+        CompletableFuture<String> slow = admission.admit(CompletableFuture::new);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+        slow.complete("slow");
+        double afterSlow = admission.getLimit();
+        CompletableFuture<?>[] fast = new CompletableFuture<?>[9];
+        for (int i = 0; i < fast.length; i++) {
+            fast[i] = admission.admit(CompletableFuture::new);
+        }
+        for (CompletableFuture<?> future : fast) {
+            future.complete(null);
+        }
+
+        // Assert
+        assertThat(afterSlow).isEqualTo(9.0);
+        assertThat(admission.getLimit()).isGreaterThan(afterSlow);
+    }
+
+    @Test
+    void testAdmit_ShedsWhileQueueDelayStaysAboveTarget() {
+        // Arrange
+        AdmissionController admission = admission(100);
+        Runnable queued = admission.decorate(() -> { });
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(200));
+        queued.run();
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(400));
+
+        // Act & Assert
+        assertThatThrownBy(() -> admission.admit(() -> CompletableFuture.completedFuture("late")))
+                .isInstanceOf(ServiceOverloadedException.class);
+        assertThat(meterRegistry.get("order.admission.shed").tag("reason", "queue_delay").counter().count())
+                .isEqualTo(1);
+
+        // An interval with nothing waiting ends the overload
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+        assertThat(admission.admit(() -> CompletableFuture.completedFuture("ok"))).isCompletedWithValue("ok");
+    }
+
+    // 500ms latency threshold, 50ms queue target over a 500ms interval
+    private AdmissionController admission(int initialLimit) {
+        return new AdmissionController(meterRegistry, true, initialLimit, 1, 100, 0.9,
+                Duration.ofMillis(500), Duration.ofMillis(50), Duration.ofMillis(500), Duration.ofSeconds(1), clock::get);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.orderservice;
+
+import com.example.orderservice.service.ConsistentHashRing;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 30_000;
+
+    @Test
+    void testNodeFor_SpreadsKeysEvenlyAcrossNodes() {
+        // Arrange
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c"), 160);
+        int[] counts = new int[3];
+
+        // Act
+        for (int i = 0; i < KEYS; i++) {
+            counts[ring.nodeFor("CUST-" + i)]++;
+        }
+
+        // Assert
+        for (int count : counts) {
+            assertThat(count).isBetween(KEYS / 3 * 85 / 100, KEYS / 3 * 115 / 100);
+        }
+    }
+
+    @Test
+    void testNodeFor_AddingNodeOnlyMovesKeysToTheNewNode() {
+        // Arrange
+        ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c"), 160);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("a", "b", "c", "d"), 160);
+        int moved = 0;
+        Set<Integer> destinations = new HashSet<>();
+
+        // Act
+        for (int i = 0; i < KEYS; i++) {
+            String key = "CUST-" + i;
+            int to = after.nodeFor(key);
+            if (before.nodeFor(key) != to) {
+                moved++;
+                destinations.add(to);
+            }
+        }
+
+        // Assert
+        assertThat(destinations).containsExactly(3);
+        assertThat(moved).isBetween(KEYS / 4 * 80 / 100, KEYS / 4 * 120 / 100);
+    }
+
+    @Test
+    void testNodeFor_IsStableAcrossInstances() {
+        // Arrange
+        ConsistentHashRing first = new ConsistentHashRing(List.of("a", "b", "c"), 160);
+        ConsistentHashRing second = new ConsistentHashRing(List.of("a", "b", "c"), 160);
+
+        // Act & Assert
+        for (int i = 0; i < 1000; i++) {
+            assertThat(second.nodeFor("CUST-" + i)).isEqualTo(first.nodeFor("CUST-" + i));
+        }
+    }
+}
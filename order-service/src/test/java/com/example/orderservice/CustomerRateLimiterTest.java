@@ -0,0 +1,99 @@
+package com.example.orderservice;
+
+import com.example.orderservice.config.RateLimitProperties;
+import com.example.orderservice.exception.RateLimitExceededException;
+import com.example.orderservice.service.CustomerRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class CustomerRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testAcquire_RejectsPastBurstAndRefillsLazily() {
+        // Arrange
+        CustomerRateLimiter limiter = limiter(1_000_000);
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("CUST-1");
+        }
+
+        // Act
+        RateLimitExceededException rejected = catchThrowableOfType(RateLimitExceededException.class,
+                () -> limiter.acquire("CUST-1"));
+        limiter.acquire("CUST-2");
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        limiter.acquire("CUST-1");
+
+        // Assert
+        assertThat(rejected.getRetryAfterSeconds()).isEqualTo(1);
+        assertThat(meterRegistry.get("order.ratelimit.requests").tag("tier", "standard").tag("result", "rejected")
+                .counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("order.ratelimit.decision").tag("tier", "standard").timer().count())
+                .isEqualTo(6);
+    }
+
+    @Test
+    void testAcquire_UsesTheCustomersTier() {
+        // Arrange
+        CustomerRateLimiter limiter = limiter(1_000_000);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire("CUST-VIP");
+        }
+
+        // Assert
+        assertThatThrownBy(() -> limiter.acquire("CUST-VIP")).isInstanceOf(RateLimitExceededException.class);
+        assertThat(meterRegistry.get("order.ratelimit.requests").tag("tier", "premium").tag("result", "allowed")
+                .counter().count()).isEqualTo(10);
+    }
+
+    @Test
+    void testEvictIdle_DropsOnlyBucketsThatHaveRefilled() {
+        // Arrange
+        CustomerRateLimiter limiter = limiter(1_000_000);
+        limiter.acquire("CUST-OLD");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        limiter.acquire("CUST-NEW");
+
+        // Act
+        limiter.evictIdle();
+
+        // Assert
+        assertThat(meterRegistry.get("order.ratelimit.buckets").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void testAcquire_BoundsBucketsPerStripe() {
+        // Arrange
+        CustomerRateLimiter limiter = limiter(4);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            limiter.acquire("CUST-" + i);
+        }
+
+        // Assert
+        assertThat(meterRegistry.get("order.ratelimit.buckets").gauge().value()).isLessThanOrEqualTo(4);
+    }
+
+    // standard: 3 at once, 1 per second; premium: 10 at once, 1 per second; one-second idle timeout
+    private CustomerRateLimiter limiter(int maxBuckets) {
+        RateLimitProperties properties = new RateLimitProperties(true, "standard",
+                Map.of("standard", new RateLimitProperties.Tier(3, 1),
+                        "premium", new RateLimitProperties.Tier(10, 1)),
+                Map.of("CUST-VIP", "premium"), 4, maxBuckets, Duration.ofSeconds(1));
+        return new CustomerRateLimiter(properties, meterRegistry, clock::get);
+    }
+}
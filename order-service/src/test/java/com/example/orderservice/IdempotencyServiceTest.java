@@ -0,0 +1,163 @@
+package com.example.orderservice;
+
+import com.example.orderservice.dto.OrderRequest;
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.exception.IdempotencyKeyConflictException;
+import com.example.orderservice.model.IdempotencyRecord;
+import com.example.orderservice.repository.IdempotencyRecordRepository;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.service.IdempotencyService;
+import com.example.orderservice.service.OrderService;
+import com.example.orderservice.service.ShardRouter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.orderservice.TestOrders.request;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class IdempotencyServiceTest {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testExecute_RetryReturnsOriginalOrder() {
+        // Arrange
+        String key = UUID.randomUUID().toString();
+        String customerId = "CUST-" + key;
+        OrderResponse first = idempotencyService.execute(key, request(customerId), orderService::createOrderAsync).join();
+
+        // Act
+        OrderResponse retry = idempotencyService.execute(key, request(customerId), orderService::createOrderAsync).join();
+
+        // Assert
+        assertThat(retry.getId()).isEqualTo(first.getId());
+        assertThat(orderRepository.findByCustomerId(customerId)).hasSize(1);
+        assertThat(idempotencyRecordRepository.findById(new IdempotencyRecord.Key(customerId, key))).get()
+                .extracting(r -> r.getOrderId()).isEqualTo(first.getId());
+    }
+
+    @Test
+    void testExecute_InFlightDuplicateAttachesToOriginal() {
+        // Arrange
+        String key = UUID.randomUUID().toString();
+        CompletableFuture<OrderResponse> pending = new CompletableFuture<>();
+        AtomicInteger executions = new AtomicInteger();
+
+        // Act
+        CompletableFuture<OrderResponse> original = idempotencyService.execute(key, request("CUST-A"), r -> {
+            executions.incrementAndGet();
+            return pending;
+        });
+        CompletableFuture<OrderResponse> duplicate = idempotencyService.execute(key, request("CUST-A"), r -> {
+            executions.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        });
+        pending.complete(OrderResponse.builder().id(42L).build());
+
+        // Assert
+        assertThat(duplicate.join().getId()).isEqualTo(42L);
+        assertThat(original.join().getId()).isEqualTo(42L);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void testExecute_KeyReusedWithDifferentRequestIsRejected() {
+        // Arrange
+        String key = UUID.randomUUID().toString();
+        String customerId = "CUST-" + key;
+        idempotencyService.execute(key, request(customerId), orderService::createOrderAsync).join();
+        OrderRequest changed = request(customerId);
+        changed.setDeliveryAddress("99 Changed Mind Street, Elsewhere");
+
+        // Act & Assert
+        assertThatThrownBy(() -> idempotencyService.execute(key, changed, orderService::createOrderAsync).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IdempotencyKeyConflictException.class);
+    }
+
+    @Test
+    void testExecute_SameKeyFromDifferentCustomersDoesNotCollide() {
+        // Arrange
+        String key = UUID.randomUUID().toString();
+        OrderResponse mine = idempotencyService.execute(key, request("CUST-A-" + key), orderService::createOrderAsync).join();
+
+        // Act: a restarted instance must not see the other customer's key in the table either
+        OrderResponse theirs = newInstance().execute(key, request("CUST-B-" + key), orderService::createOrderAsync).join();
+
+        // Assert
+        assertThat(theirs.getId()).isNotEqualTo(mine.getId());
+        assertThat(theirs.getCustomerId()).isEqualTo("CUST-B-" + key);
+        assertThat(orderRepository.findByCustomerId("CUST-B-" + key)).hasSize(1);
+    }
+
+    @Test
+    void testExecute_FailedExecutionCanBeRetried() {
+        // Arrange
+        String key = UUID.randomUUID().toString();
+        CompletableFuture<OrderResponse> failed = idempotencyService.execute(key, request("CUST-F"),
+                r -> CompletableFuture.failedFuture(new IllegalStateException("database down")));
+        assertThatThrownBy(failed::join).hasCauseInstanceOf(IllegalStateException.class);
+
+        // Act
+        OrderResponse retry = idempotencyService.execute(key, request("CUST-F"), orderService::createOrderAsync).join();
+
+        // Assert
+        assertThat(retry.getId()).isNotNull();
+    }
+
+    @Test
+    void testExecute_OtherInstancesResolveKeyFromDatabase() {
+        // Arrange
+        String key = UUID.randomUUID().toString();
+        String customerId = "CUST-" + key;
+        IdempotencyService otherInstance = newInstance();
+        IdempotencyService thirdInstance = newInstance();
+
+        // Act: two instances race on the same key, a third sees it only in the table
+        CompletableFuture<OrderResponse> first = idempotencyService.execute(key, request(customerId), orderService::createOrderAsync);
+        CompletableFuture<OrderResponse> second = otherInstance.execute(key, request(customerId), orderService::createOrderAsync);
+        Long orderId = first.join().getId();
+        OrderResponse replayed = thirdInstance.execute(key, request(customerId), r -> {
+            throw new AssertionError("should be replayed from the database");
+        }).join();
+
+        // Assert
+        assertThat(second.join().getId()).isEqualTo(orderId);
+        assertThat(replayed.getId()).isEqualTo(orderId);
+        assertThat(orderRepository.findByCustomerId(customerId)).hasSize(1);
+    }
+
+    private IdempotencyService newInstance() {
+        return new IdempotencyService(idempotencyRecordRepository, orderService, shardRouter, objectMapper,
+                new SimpleMeterRegistry(), 100, Duration.ofHours(1));
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.orderservice;
+
+import com.example.orderservice.dto.OrderAmendmentRequest;
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.dto.StockLevel;
+import com.example.orderservice.exception.InsufficientStockException;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.model.ProductStock;
+import com.example.orderservice.model.StockReservation;
+import com.example.orderservice.repository.ProductStockRepository;
+import com.example.orderservice.repository.StockReservationRepository;
+import com.example.orderservice.service.InventoryService;
+import com.example.orderservice.service.OrderAmendmentService;
+import com.example.orderservice.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+
+import static com.example.orderservice.TestOrders.item;
+import static com.example.orderservice.TestOrders.request;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "order.inventory.enabled=true",
+        "order.inventory.flush-interval-ms=3600000",
+        "order.inventory.reconcile-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+class InventoryServiceTest {
+
+    private static final String CUSTOMER = "CUST-STOCK";
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderAmendmentService orderAmendmentService;
+
+    @Autowired
+    private ProductStockRepository productStockRepository;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Test
+    void testCreateOrder_ReservesUntilStockRunsOut() {
+        // Arrange
+        String productId = product(3);
+        orderService.createOrderAsync(request(CUSTOMER, item(productId, 2, "19.99"))).join();
+
+        // Act & Assert
+        assertThatThrownBy(() -> orderService.createOrderAsync(request(CUSTOMER, item(productId, 2, "19.99"))).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(InsufficientStockException.class);
+        assertThat(level(productId)).isEqualTo(new StockLevel(productId, 3, 1, 2));
+    }
+
+    @Test
+    void testCreateOrders_RolledBackGroupReturnsItsUnits() {
+        // Arrange
+        String productId = product(3);
+
+        // Act
+        assertThatThrownBy(() -> orderService.createOrders(List.of(
+                request(CUSTOMER, item(productId, 2, "19.99")), request(CUSTOMER, item(productId, 2, "19.99")))))
+                .isInstanceOf(InsufficientStockException.class);
+
+        // Assert
+        assertThat(level(productId).available()).isEqualTo(3);
+    }
+
+    @Test
+    void testCancelOrder_ReleasesReservation() {
+        // Arrange
+        String productId = product(2);
+        OrderResponse order = orderService.createOrderAsync(request(CUSTOMER, item(productId, 2, "19.99"))).join();
+
+        // Act
+        orderService.updateOrderStatus(order.getId(), OrderStatus.CANCELLED);
+
+        // Assert
+        assertThat(level(productId)).isEqualTo(new StockLevel(productId, 2, 2, 0));
+        assertThat(reservationRepository.findAll()).noneMatch(row -> row.getOrderId().equals(order.getId()));
+    }
+
+    @Test
+    void testAmendOrder_AdjustsReservationByTheChange() {
+        // Arrange
+        String productId = product(5);
+        OrderResponse order = orderService.createOrderAsync(request(CUSTOMER, item(productId, 2, "19.99"))).join();
+        Long itemId = order.getItems().get(0).getId();
+
+        // Act
+        OrderResponse raised = orderAmendmentService.amendOrder(order.getId(), amendment(order.getVersion(), itemId, 4));
+        StockLevel afterRaise = level(productId);
+        orderAmendmentService.amendOrder(order.getId(), amendment(raised.getVersion(), itemId, 1));
+        StockLevel afterLower = level(productId);
+        orderService.updateOrderStatus(order.getId(), OrderStatus.CANCELLED);
+
+        // Assert
+        assertThat(afterRaise).isEqualTo(new StockLevel(productId, 5, 1, 4));
+        assertThat(afterLower).isEqualTo(new StockLevel(productId, 5, 4, 1));
+        assertThat(level(productId)).isEqualTo(new StockLevel(productId, 5, 5, 0));
+    }
+
+    @Test
+    void testFlush_DeliveredOrderLeavesStock() {
+        // Arrange
+        String productId = product(5);
+        OrderResponse order = orderService.createOrderAsync(request(CUSTOMER, item(productId, 2, "19.99"))).join();
+        for (OrderStatus status : List.of(OrderStatus.PAYMENT_PENDING, OrderStatus.PAYMENT_COMPLETED,
+                OrderStatus.PREPARING, OrderStatus.READY_FOR_DELIVERY, OrderStatus.IN_DELIVERY, OrderStatus.DELIVERED)) {
+            orderService.updateOrderStatus(order.getId(), status);
+        }
+
+        // Act
+        inventoryService.flush();
+
+        // Assert
+        assertThat(level(productId)).isEqualTo(new StockLevel(productId, 3, 3, 0));
+        ProductStock stored = productStockRepository.findById(productId).orElseThrow();
+        assertThat(stored.getOnHand()).isEqualTo(3);
+        assertThat(stored.getReserved()).isZero();
+    }
+
+    @Test
+    void testFlush_WritesReservedSnapshot() {
+        // Arrange
+        String productId = product(5);
+        orderService.createOrderAsync(request(CUSTOMER, item(productId, 4, "19.99"))).join();
+
+        // Act
+        inventoryService.flush();
+
+        // Assert
+        assertThat(productStockRepository.findById(productId).orElseThrow().getReserved()).isEqualTo(4);
+    }
+
+    @Test
+    void testReconcile_PicksUpStockChangedByAnotherInstance() {
+        // Arrange
+        String productId = product(5);
+        orderService.createOrderAsync(request(CUSTOMER, item(productId, 1, "19.99"))).join();
+        reservationRepository.save(new StockReservation(Long.MAX_VALUE, productId, 3));
+        ProductStock stock = productStockRepository.findById(productId).orElseThrow();
+        stock.setOnHand(stock.getOnHand() + 2);
+        productStockRepository.save(stock);
+
+        // Act
+        inventoryService.reconcile();
+
+        // Assert
+        assertThat(level(productId)).isEqualTo(new StockLevel(productId, 7, 3, 4));
+    }
+
+    @Test
+    void testReconcile_ForgetsUntrackedProducts() {
+        // Arrange
+        String productId = "PROD-" + UUID.randomUUID();
+        assertThat(inventoryService.getStockLevel(productId)).isEmpty();
+        productStockRepository.save(new ProductStock(productId, 4, 0, LocalDateTime.now()));
+
+        // Act
+        inventoryService.reconcile();
+
+        // Assert
+        assertThat(level(productId)).isEqualTo(new StockLevel(productId, 4, 4, 0));
+    }
+
+    @Test
+    void testCreateOrder_UntrackedProductIsNotLimited() {
+        // Act
+        OrderResponse order = orderService.createOrderAsync(request(CUSTOMER, item("PROD-UNTRACKED", 100, "19.99"))).join();
+
+        // Assert
+        assertThat(order.getId()).isNotNull();
+        assertThat(inventoryService.getStockLevel("PROD-UNTRACKED")).isEmpty();
+    }
+
+    private String product(long units) {
+        String productId = "PROD-" + UUID.randomUUID();
+        inventoryService.restock(productId, units);
+        return productId;
+    }
+
+    private OrderAmendmentRequest amendment(Long version, Long itemId, int quantity) {
+        OrderAmendmentRequest amendment = new OrderAmendmentRequest();
+        amendment.setVersion(version);
+        amendment.getChangeItems().add(new OrderAmendmentRequest.ItemQuantity(itemId, quantity));
+        return amendment;
+    }
+
+    private StockLevel level(String productId) {
+        return inventoryService.getStockLevel(productId).orElseThrow();
+    }
+}
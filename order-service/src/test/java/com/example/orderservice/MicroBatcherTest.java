@@ -0,0 +1,89 @@
+package com.example.orderservice;
+
+import com.example.orderservice.service.MicroBatcher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MicroBatcherTest {
+
+    private MicroBatcher<CompletableFuture<Integer>> batcher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        batcher.stop();
+    }
+
+    @Test
+    void testBatcher_QueuedItemsAreHandedOverInOneBatch() {
+        // Arrange
+        AtomicInteger batches = new AtomicInteger();
+        batcher = batcher(3, batch -> {
+            batches.incrementAndGet();
+            batch.forEach(item -> item.complete(batch.size()));
+        });
+        List<CompletableFuture<Integer>> items = List.of(new CompletableFuture<>(), new CompletableFuture<>(),
+                new CompletableFuture<>());
+        items.forEach(batcher::offer);
+
+        // Act
+        batcher.start();
+
+        // Assert
+        assertThat(items).allSatisfy(item -> assertThat(item.orTimeout(5, TimeUnit.SECONDS).join()).isEqualTo(3));
+        assertThat(batches).hasValue(1);
+    }
+
+    @Test
+    void testBatcher_HandlerFailureFailsOnlyItsBatch() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        batcher = batcher(1, batch -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("database down");
+            }
+            batch.forEach(item -> item.complete(batch.size()));
+        });
+        batcher.start();
+        CompletableFuture<Integer> failed = new CompletableFuture<>();
+        CompletableFuture<Integer> next = new CompletableFuture<>();
+
+        // Act
+        batcher.offer(failed);
+        assertThatThrownBy(() -> failed.orTimeout(5, TimeUnit.SECONDS).join())
+                .hasCauseInstanceOf(IllegalStateException.class);
+        batcher.offer(next);
+
+        // Assert
+        assertThat(next.orTimeout(5, TimeUnit.SECONDS).join()).isEqualTo(1);
+    }
+
+    @Test
+    void testStop_FailsItemsStillQueued() throws InterruptedException {
+        // Arrange
+        batcher = batcher(10, batch -> batch.forEach(item -> item.complete(batch.size())));
+        CompletableFuture<Integer> queued = new CompletableFuture<>();
+        batcher.offer(queued);
+
+        // Act
+        batcher.stop();
+
+        // Assert
+        assertThatThrownBy(queued::join).hasCauseInstanceOf(RejectedExecutionException.class);
+    }
+
+    private MicroBatcher<CompletableFuture<Integer>> batcher(int maxBatchSize,
+                                                             Consumer<List<CompletableFuture<Integer>>> handler) {
+        return new MicroBatcher<>("test-batcher", maxBatchSize, TimeUnit.MILLISECONDS.toNanos(50), 100,
+                item -> item, handler);
+    }
+}
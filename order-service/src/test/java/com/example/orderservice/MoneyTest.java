@@ -0,0 +1,57 @@
+package com.example.orderservice;
+
+import com.example.orderservice.model.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    @Test
+    void testOf_ConvertsExactAmountsAndRejectsFractionsOfACent() {
+        // Act
+        Money money = Money.of(new BigDecimal("12.5"));
+
+        // Assert
+        assertThat(money.minorUnits()).isEqualTo(1250);
+        assertThat(money.toBigDecimal()).isEqualByComparingTo("12.50");
+        assertThat(money.toString()).isEqualTo("12.50 USD");
+        assertThatThrownBy(() -> Money.of(new BigDecimal("0.005")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testArithmetic_IsExactAndThrowsOnOverflowOrCurrencyMismatch() {
+        // Arrange
+        Money price = Money.ofMinor(999);
+
+        // Act
+        Money total = price.times(3).plus(Money.ofMinor(3));
+
+        // Assert
+        assertThat(total).isEqualTo(Money.ofMinor(3000));
+        assertThatThrownBy(() -> Money.ofMinor(Long.MAX_VALUE).plus(Money.ofMinor(1)))
+                .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> price.plus(Money.of(BigDecimal.ONE, Currency.getInstance("EUR"))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testJson_IsAPlainDecimalNumber() throws Exception {
+        // Arrange
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        // Act
+        String json = objectMapper.writeValueAsString(Money.ofMinor(1999));
+        Money parsed = objectMapper.readValue("19.99", Money.class);
+
+        // Assert
+        assertThat(json).isEqualTo("19.99");
+        assertThat(parsed).isEqualTo(Money.ofMinor(1999));
+    }
+}
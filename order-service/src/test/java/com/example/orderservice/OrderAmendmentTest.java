@@ -0,0 +1,176 @@
+package com.example.orderservice;
+
+import com.example.orderservice.dto.OrderAmendmentRequest;
+import com.example.orderservice.dto.OrderItemRequest;
+import com.example.orderservice.dto.OrderItemResponse;
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.exception.OrderNotAmendableException;
+import com.example.orderservice.exception.OrderVersionConflictException;
+import com.example.orderservice.model.Money;
+import com.example.orderservice.model.OrderChange;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.model.OutboxEvent;
+import com.example.orderservice.repository.OrderChangeRepository;
+import com.example.orderservice.repository.OutboxEventRepository;
+import com.example.orderservice.service.KafkaProducerService;
+import com.example.orderservice.service.OrderAmendmentService;
+import com.example.orderservice.service.OrderService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static com.example.orderservice.TestOrders.items;
+import static com.example.orderservice.TestOrders.request;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {"order.amendments.snapshot-every=3", "order.changes.enabled=true"})
+@ActiveProfiles("test")
+class OrderAmendmentTest {
+
+    @Autowired
+    private OrderAmendmentService orderAmendmentService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OrderChangeRepository orderChangeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testAmendOrder_PublishesDeltaOfChangedItemsOnly() throws Exception {
+        // Arrange
+        OrderResponse order = orderService.createOrderAsync(request("CUST-AMEND-DELTA", items(200))).join();
+        OrderItemResponse changed = order.getItems().get(17);
+        OrderItemResponse removed = order.getItems().get(42);
+        OrderAmendmentRequest amendment = amendment(order.getVersion());
+        amendment.getChangeItems().add(new OrderAmendmentRequest.ItemQuantity(changed.getId(), 5));
+        amendment.getRemoveItemIds().add(removed.getId());
+
+        // Act
+        OrderResponse amended = orderAmendmentService.amendOrder(order.getId(), amendment);
+
+        // Assert
+        assertThat(amended.getVersion()).isEqualTo(order.getVersion() + 1);
+        assertThat(amended.getItems()).hasSize(199);
+        assertThat(amended.getTotalAmount()).isEqualTo(Money.ofMinor(order.getTotalAmount().minorUnits()
+                + changed.getUnitPrice().times(4).minorUnits() - removed.getTotalPrice().minorUnits()));
+
+        OutboxEvent created = events(order.getId(), KafkaProducerService.ORDER_CREATED_TOPIC).get(0);
+        OutboxEvent delta = events(order.getId(), KafkaProducerService.ORDER_UPDATED_TOPIC).get(0);
+        JsonNode payload = objectMapper.readTree(delta.getPayload());
+        assertThat(delta.getEventType()).isEqualTo(OrderAmendmentService.ORDER_UPDATED);
+        assertThat(payload.get("version").asLong()).isEqualTo(amended.getVersion());
+        assertThat(payload.get("revision").asInt()).isEqualTo(1);
+        assertThat(payload.get("changedItems")).hasSize(1);
+        assertThat(payload.get("changedItems").get(0).get("quantity").asInt()).isEqualTo(5);
+        assertThat(payload.get("removedItemIds").get(0).asLong()).isEqualTo(removed.getId());
+        assertThat(payload.has("items")).isFalse();
+        assertThat(payload.has("deliveryAddress")).isFalse();
+        assertThat(bytes(delta) * 10).isLessThan(bytes(created));
+    }
+
+    @Test
+    void testAmendOrder_StaleVersionIsRejected() {
+        // Arrange
+        OrderResponse order = orderService.createOrderAsync(request("CUST-AMEND-STALE", items(2))).join();
+        OrderAmendmentRequest address = amendment(order.getVersion());
+        address.setDeliveryAddress("9 Moved House Lane, New Town");
+        orderAmendmentService.amendOrder(order.getId(), address);
+
+        // Act & Assert
+        OrderAmendmentRequest stale = amendment(order.getVersion());
+        stale.getRemoveItemIds().add(order.getItems().get(0).getId());
+        assertThatThrownBy(() -> orderAmendmentService.amendOrder(order.getId(), stale))
+                .isInstanceOf(OrderVersionConflictException.class);
+        assertThat(orderService.getOrderById(order.getId()).getItems()).hasSize(2);
+    }
+
+    @Test
+    void testAmendOrder_EveryNthRevisionIsFullSnapshot() throws Exception {
+        // Arrange
+        OrderResponse order = orderService.createOrderAsync(request("CUST-AMEND-SNAPSHOT", items(3))).join();
+
+        // Act
+        Long version = order.getVersion();
+        for (int revision = 1; revision <= 3; revision++) {
+            OrderAmendmentRequest amendment = amendment(version);
+            amendment.getAddItems().add(new OrderItemRequest("PROD-EXTRA-" + revision, "Extra", 1, new BigDecimal("2.50")));
+            version = orderAmendmentService.amendOrder(order.getId(), amendment).getVersion();
+        }
+
+        // Assert
+        List<OutboxEvent> updates = events(order.getId(), KafkaProducerService.ORDER_UPDATED_TOPIC);
+        assertThat(updates).extracting(OutboxEvent::getEventType).containsExactly(
+                OrderAmendmentService.ORDER_UPDATED, OrderAmendmentService.ORDER_UPDATED,
+                OrderAmendmentService.ORDER_SNAPSHOT);
+        JsonNode snapshot = objectMapper.readTree(updates.get(2).getPayload());
+        assertThat(snapshot.get("revision").asInt()).isEqualTo(3);
+        assertThat(snapshot.get("items")).hasSize(6);
+        assertThat(snapshot.get("customerId").asText()).isEqualTo("CUST-AMEND-SNAPSHOT");
+    }
+
+    @Test
+    void testAmendOrder_PaidOrderIsNotAmendable() {
+        // Arrange
+        OrderResponse order = orderService.createOrderAsync(request("CUST-AMEND-PAID", items(1))).join();
+        orderService.updateOrderStatus(order.getId(), OrderStatus.PAYMENT_COMPLETED);
+        Long version = orderService.getOrderById(order.getId()).getVersion();
+        OrderAmendmentRequest amendment = amendment(version);
+        amendment.setDeliveryAddress("9 Too Late Street, Paid City");
+
+        // Act & Assert
+        assertThatThrownBy(() -> orderAmendmentService.amendOrder(order.getId(), amendment))
+                .isInstanceOf(OrderNotAmendableException.class);
+    }
+
+    @Test
+    void testAmendOrder_IsRecordedInChangeFeed() {
+        // Arrange
+        OrderResponse order = orderService.createOrderAsync(request("CUST-AMEND-FEED", items(1))).join();
+        OrderAmendmentRequest amendment = amendment(order.getVersion());
+        amendment.setDeliveryAddress("12 Change Feed Avenue, Log Town");
+
+        // Act
+        OrderResponse amended = orderAmendmentService.amendOrder(order.getId(), amendment);
+
+        // Assert
+        List<OrderChange> changes = orderChangeRepository.findAll().stream()
+                .filter(change -> change.getOrderId().equals(order.getId()))
+                .sorted((a, b) -> a.getId().compareTo(b.getId()))
+                .toList();
+        assertThat(changes).hasSize(2);
+        assertThat(changes.get(1).getStatus()).isEqualTo(OrderStatus.CREATED);
+        assertThat(changes.get(1).getChangedAt()).isEqualTo(amended.getUpdatedAt());
+    }
+
+    private List<OutboxEvent> events(Long orderId, String topic) {
+        return outboxEventRepository.findAll().stream()
+                .filter(event -> event.getOrderId().equals(orderId) && event.getTopic().equals(topic))
+                .sorted((a, b) -> a.getId().compareTo(b.getId()))
+                .toList();
+    }
+
+    private static int bytes(OutboxEvent event) {
+        return event.getPayload().getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static OrderAmendmentRequest amendment(Long version) {
+        OrderAmendmentRequest amendment = new OrderAmendmentRequest();
+        amendment.setVersion(version);
+        return amendment;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.orderservice;
+
+import com.example.orderservice.dto.OrderChangeBatch;
+import com.example.orderservice.dto.OrderChangeResponse;
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.dto.OrderStatusChangedEvent;
+import com.example.orderservice.model.OrderChange;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.repository.OrderChangeRepository;
+import com.example.orderservice.service.OrderChangeFeed;
+import com.example.orderservice.service.OrderService;
+import com.example.orderservice.service.OrderStatusBroadcaster;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.orderservice.TestOrders.request;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "order.changes.enabled=true",
+        "order.changes.sequence-interval-ms=20",
+        "order.events.feed-interval-ms=20"
+})
+@ActiveProfiles("test")
+class OrderChangeFeedTest {
+
+    @Autowired
+    private OrderChangeFeed orderChangeFeed;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderChangeRepository orderChangeRepository;
+
+    @Autowired
+    private OrderStatusBroadcaster orderStatusBroadcaster;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testPoll_ReturnsCreationAndStatusChangesInSequenceOrder() throws Exception {
+        // Arrange
+        OrderResponse order = orderService.createOrderAsync(request("CUST-FEED")).join();
+        orderService.updateOrderStatus(order.getId(), OrderStatus.PAYMENT_PENDING);
+
+        // Act
+        List<OrderChangeResponse> changes = awaitChanges(order.getId(), 2);
+
+        // Assert
+        assertThat(changes).extracting(OrderChangeResponse::status)
+                .containsExactly(OrderStatus.CREATED, OrderStatus.PAYMENT_PENDING);
+        assertThat(changes.get(0).seq()).isLessThan(changes.get(1).seq());
+    }
+
+    @Test
+    void testPoll_CaughtUpReaderIsAnsweredWhenNextChangeIsSequenced() throws Exception {
+        // Arrange
+        OrderResponse first = orderService.createOrderAsync(request("CUST-FEED")).join();
+        List<OrderChangeResponse> seen = awaitChanges(first.getId(), 1);
+        long head = seen.get(seen.size() - 1).seq();
+        DeferredResult<OrderChangeBatch> poll = orderChangeFeed.poll(head, 100);
+        assertThat(poll.hasResult()).isFalse();
+
+        // Act
+        OrderResponse second = orderService.createOrderAsync(request("CUST-FEED")).join();
+
+        // Assert
+        OrderChangeBatch batch = awaitResult(poll);
+        assertThat(batch.changes()).isNotEmpty();
+        assertThat(batch.changes()).allMatch(change -> change.seq() > head);
+        assertThat(batch.changes()).anyMatch(change -> change.orderId().equals(second.getId()));
+        assertThat(batch.next()).isEqualTo(batch.changes().get(batch.changes().size() - 1).seq());
+    }
+
+    @Test
+    void testFollowChanges_SubscriberHearsOfChangeMadeOnAnotherInstance() throws Exception {
+        // Arrange
+        OrderResponse order = orderService.createOrderAsync(request("CUST-FEED")).join();
+        awaitChanges(order.getId(), 1);
+        double sentBefore = meterRegistry.counter("order.events.sent").count();
+        orderStatusBroadcaster.subscribe(order.getId(),
+                () -> new OrderStatusChangedEvent(order.getId(), order.getStatus(), order.getCreatedAt()));
+
+        // Act: written without the in-process event, as another instance's transaction would be
+        orderChangeRepository.save(new OrderChange(order.getId(), OrderStatus.PAYMENT_PENDING, LocalDateTime.now()));
+
+        // Assert
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.counter("order.events.sent").count() < sentBefore + 2 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(meterRegistry.counter("order.events.sent").count()).isEqualTo(sentBefore + 2);
+    }
+
+    // Reads the feed from the start until the order has the expected number of entries
+    private List<OrderChangeResponse> awaitChanges(Long orderId, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        List<OrderChangeResponse> changes = List.of();
+        while (changes.size() < expected && System.nanoTime() < deadline) {
+            changes = awaitResult(orderChangeFeed.poll(0, OrderChangeFeed.MAX_LIMIT)).changes().stream()
+                    .filter(change -> change.orderId().equals(orderId))
+                    .toList();
+            if (changes.size() < expected) {
+                Thread.sleep(20);
+            }
+        }
+        return changes;
+    }
+
+    private OrderChangeBatch awaitResult(DeferredResult<OrderChangeBatch> result) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!result.hasResult() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(result.hasResult()).isTrue();
+        return (OrderChangeBatch) result.getResult();
+    }
+}
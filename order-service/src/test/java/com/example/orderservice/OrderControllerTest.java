@@ -0,0 +1,371 @@
+package com.example.orderservice;
+
+import com.example.orderservice.controller.OrderController;
+import com.example.orderservice.dto.OrderAmendmentRequest;
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.dto.OrderStatusChangedEvent;
+import com.example.orderservice.exception.OrderVersionConflictException;
+import com.example.orderservice.exception.RateLimitExceededException;
+import com.example.orderservice.exception.ServiceOverloadedException;
+import com.example.orderservice.model.Money;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.repository.IdempotencyRecordRepository;
+import com.example.orderservice.repository.OrderChangeRepository;
+import com.example.orderservice.service.AdmissionController;
+import com.example.orderservice.service.CustomerRateLimiter;
+import com.example.orderservice.service.IdempotencyService;
+import com.example.orderservice.service.OrderAmendmentService;
+import com.example.orderservice.service.OrderGroupCommitWriter;
+import com.example.orderservice.service.OrderImportParser;
+import com.example.orderservice.service.OrderImportService;
+import com.example.orderservice.service.OrderLookupBatcher;
+import com.example.orderservice.service.OrderProjectionService;
+import com.example.orderservice.service.OrderResponseCache;
+import com.example.orderservice.service.OrderService;
+import com.example.orderservice.service.OrderStatusBroadcaster;
+import com.example.orderservice.service.ShardRouter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.json.JsonCompareMode;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(OrderController.class)
+@Import({OrderResponseCache.class, OrderLookupBatcher.class, OrderStatusBroadcaster.class, SimpleMeterRegistry.class})
+class OrderControllerTest {
+
+    private static final String ORDER_JSON = """
+            {"customerId":"CUST-1","customerName":"Busy Client","customerEmail":"busy@example.com",
+             "deliveryAddress":"1 Rate Limit Road, Bucket City",
+             "items":[{"productId":"PROD-1","productName":"Widget","quantity":1,"unitPrice":9.99}]}
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private OrderService orderService;
+
+    @MockitoBean
+    private OrderGroupCommitWriter orderGroupCommitWriter;
+
+    @MockitoBean
+    private IdempotencyService idempotencyService;
+
+    @MockitoBean
+    private CustomerRateLimiter customerRateLimiter;
+
+    @MockitoBean
+    private AdmissionController admissionController;
+
+    @MockitoBean
+    private OrderImportParser orderImportParser;
+
+    @MockitoBean
+    private OrderImportService orderImportService;
+
+    @MockitoBean
+    private ShardRouter shardRouter;
+
+    @MockitoBean
+    private OrderProjectionService orderProjectionService;
+
+    @MockitoBean
+    private OrderAmendmentService orderAmendmentService;
+
+    @MockitoBean
+    private OrderChangeRepository orderChangeRepository;
+
+    @Autowired
+    private OrderResponseCache orderResponseCache;
+
+    @Autowired
+    private OrderStatusBroadcaster orderStatusBroadcaster;
+
+    @BeforeEach
+    void setUp() {
+        orderResponseCache.evict(1L);
+    }
+
+    @Test
+    void testGetOrderById_ReturnsNotModifiedForMatchingETag() throws Exception {
+        // Arrange
+        when(orderService.getOrderById(1L)).thenReturn(order());
+        MvcResult first = mockMvc.perform(get("/api/orders/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn();
+        String eTag = first.getResponse().getHeader("ETag");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/orders/1").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(orderService, times(1)).getOrderById(1L);
+    }
+
+    @Test
+    void testGetOrderByNumber_ServedFromCacheAfterIdLookup() throws Exception {
+        // Arrange
+        when(orderService.getOrderById(1L)).thenReturn(order());
+        mockMvc.perform(get("/api/orders/1")).andExpect(status().isOk());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/orders/number/ORD-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+        verify(orderService, never()).getOrderByNumber(anyString());
+    }
+
+    @Test
+    void testGetOrderById_NegotiatesBinaryEncodingsAndDefaultsToJson() throws Exception {
+        // Arrange
+        when(orderService.getOrderById(1L)).thenReturn(order());
+
+        // Act
+        MvcResult cbor = mockMvc.perform(get("/api/orders/1").accept("application/cbor")).andReturn();
+        MvcResult msgpack = mockMvc.perform(get("/api/orders/1").accept("application/msgpack")).andReturn();
+        MvcResult any = mockMvc.perform(get("/api/orders/1").accept("*/*")).andReturn();
+
+        // Assert
+        assertThat(cbor.getResponse().getContentType()).isEqualTo("application/cbor");
+        JsonNode decoded = new ObjectMapper(new CBORFactory()).readTree(cbor.getResponse().getContentAsByteArray());
+        assertThat(decoded.get("orderNumber").asText()).isEqualTo("ORD-1");
+        assertThat(decoded.get("totalAmount").decimalValue()).isEqualByComparingTo("10.00");
+        assertThat(decoded.get("createdAt").isArray()).isTrue();
+        JsonNode unpacked = new ObjectMapper(new MessagePackFactory()).readTree(msgpack.getResponse().getContentAsByteArray());
+        assertThat(unpacked.get("id").asLong()).isEqualTo(1L);
+        assertThat(any.getResponse().getContentType()).isEqualTo("application/json");
+    }
+
+    @Test
+    void testGetOrderById_ETagIsSpecificToTheNegotiatedEncoding() throws Exception {
+        // Arrange
+        when(orderService.getOrderById(1L)).thenReturn(order());
+        MvcResult json = mockMvc.perform(get("/api/orders/1"))
+                .andExpect(header().string("Vary", "Accept"))
+                .andReturn();
+        String jsonETag = json.getResponse().getHeader("ETag");
+
+        // Act
+        MvcResult cbor = mockMvc.perform(get("/api/orders/1").accept("application/cbor").header("If-None-Match", jsonETag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Vary", "Accept"))
+                .andReturn();
+
+        // Assert
+        String cborETag = cbor.getResponse().getHeader("ETag");
+        assertThat(cborETag).isNotEqualTo(jsonETag);
+        assertThat(cbor.getResponse().getContentType()).isEqualTo("application/cbor");
+        mockMvc.perform(get("/api/orders/1").accept("application/cbor").header("If-None-Match", cborETag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testGetOrderById_ReturnsOnlyRequestedFields() throws Exception {
+        // Arrange
+        when(orderService.getOrderById(1L)).thenReturn(order());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/orders/1").param("fields", "orderNumber,status,totalAmount"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(content().json("{\"orderNumber\":\"ORD-1\",\"status\":\"CREATED\",\"totalAmount\":10.00}",
+                        JsonCompareMode.STRICT));
+        mockMvc.perform(get("/api/orders/1").param("fields", "orderNumber,secret"))
+                .andExpect(status().isBadRequest());
+        verify(orderService, times(1)).getOrderById(1L);
+    }
+
+    @Test
+    void testStreamOrderEvents_SendsCurrentStatusThenChanges() throws Exception {
+        // Arrange
+        when(orderService.getOrderById(1L)).thenReturn(order());
+        MvcResult result = mockMvc.perform(get("/api/orders/1/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Act
+        orderStatusBroadcaster.onStatusChanged(
+                new OrderStatusChangedEvent(1L, OrderStatus.PAYMENT_COMPLETED, LocalDateTime.now()));
+        orderStatusBroadcaster.onStatusChanged(
+                new OrderStatusChangedEvent(2L, OrderStatus.CANCELLED, LocalDateTime.now()));
+
+        // Assert
+        String body = awaitContent(result, "PAYMENT_COMPLETED");
+        assertThat(body).contains("event:status");
+        assertThat(body.indexOf("CREATED")).isLessThan(body.indexOf("PAYMENT_COMPLETED"));
+        assertThat(body).doesNotContain("CANCELLED");
+        assertThat(result.getResponse().getContentType()).startsWith("text/event-stream");
+    }
+
+    @Test
+    void testStreamOrderEvents_ChangeDuringSubscribeIsNotOverwrittenByOlderRead() throws Exception {
+        // Arrange
+        OrderResponse stale = order();
+        when(orderService.getOrderById(1L)).thenAnswer(invocation -> {
+            // The order is paid while the stream reads its current status
+            orderStatusBroadcaster.onStatusChanged(new OrderStatusChangedEvent(
+                    1L, OrderStatus.PAYMENT_COMPLETED, stale.getUpdatedAt().plusSeconds(1)));
+            return stale;
+        });
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/orders/1/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        String body = awaitContent(result, "PAYMENT_COMPLETED");
+        assertThat(body).contains("PAYMENT_COMPLETED");
+        assertThat(body).doesNotContain("CREATED");
+    }
+
+    @Test
+    void testAmendOrder_StaleVersionReturns409() throws Exception {
+        // Arrange
+        when(orderAmendmentService.amendOrder(eq(1L), any(OrderAmendmentRequest.class)))
+                .thenThrow(new OrderVersionConflictException(1L, 3L));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/orders/1").contentType("application/json")
+                        .content("{\"version\":3,\"deliveryAddress\":\"9 Moved House Lane, New Town\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Order 1 has changed since version 3"));
+    }
+
+    @Test
+    void testAmendOrder_NullListsAreTreatedAsEmpty() throws Exception {
+        // Arrange
+        when(orderAmendmentService.amendOrder(eq(1L), any(OrderAmendmentRequest.class))).thenReturn(order());
+
+        // Act
+        mockMvc.perform(patch("/api/orders/1").contentType("application/json")
+                        .content("{\"version\":3,\"addItems\":null,\"changeItems\":null,\"removeItemIds\":null}"))
+                .andExpect(status().isOk());
+
+        // Assert
+        verify(orderAmendmentService).amendOrder(eq(1L), argThat(request -> request.getAddItems().isEmpty()
+                && request.getChangeItems().isEmpty() && request.getRemoveItemIds().isEmpty()));
+    }
+
+    @Test
+    void testCreateOrder_RateLimitedReturns429WithRetryAfter() throws Exception {
+        // Arrange
+        doThrow(new RateLimitExceededException("CUST-1", "standard", 3))
+                .when(customerRateLimiter).acquire("CUST-1");
+
+        // Act & Assert
+        mockMvc.perform(post("/api/orders").contentType("application/json").content(ORDER_JSON))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "3"));
+        verifyNoInteractions(orderService, orderGroupCommitWriter, idempotencyService);
+    }
+
+    @Test
+    void testCreateOrder_IdempotentReplayIsNotRateLimited() throws Exception {
+        // Arrange
+        doThrow(new RateLimitExceededException("CUST-1", "standard", 3))
+                .when(customerRateLimiter).acquire("CUST-1");
+        when(idempotencyService.execute(eq("retry-me"), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(order()));
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/api/orders").contentType("application/json").content(ORDER_JSON)
+                        .header("Idempotency-Key", "retry-me"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.orderNumber").value("ORD-1"));
+        verify(customerRateLimiter, never()).acquire(anyString());
+    }
+
+    @Test
+    void testCreateOrder_OverloadedReturns503WithRetryAfter() throws Exception {
+        // Arrange
+        when(admissionController.admit(any())).thenThrow(new ServiceOverloadedException("Order concurrency limit reached", 1));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/orders").contentType("application/json").content(ORDER_JSON))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+        verifyNoInteractions(orderService, orderGroupCommitWriter);
+    }
+
+    @Test
+    void testCreateOrder_OverloadedWithIdempotencyKeyReturns503() throws Exception {
+        // Arrange
+        IdempotencyRecordRepository records = mock(IdempotencyRecordRepository.class);
+        when(records.findById(any())).thenReturn(Optional.empty());
+        when(shardRouter.callOn(anyInt(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        IdempotencyService realIdempotency = new IdempotencyService(records, orderService, shardRouter,
+                new ObjectMapper(), new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+        when(idempotencyService.execute(anyString(), any(), any())).thenAnswer(invocation -> realIdempotency.execute(
+                invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+        when(admissionController.admit(any())).thenThrow(new ServiceOverloadedException("Order concurrency limit reached", 1));
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/api/orders").contentType("application/json").content(ORDER_JSON)
+                        .header("Idempotency-Key", "retry-me"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+        verifyNoInteractions(orderService, orderGroupCommitWriter);
+    }
+
+    private String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String body = result.getResponse().getContentAsString();
+        while (!body.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            body = result.getResponse().getContentAsString();
+        }
+        return body;
+    }
+
+    private OrderResponse order() {
+        return OrderResponse.builder()
+                .id(1L)
+                .orderNumber("ORD-1")
+                .customerId("CUST-1")
+                .totalAmount(Money.of(new BigDecimal("10.00")))
+                .status(OrderStatus.CREATED)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .items(List.of())
+                .build();
+    }
+}
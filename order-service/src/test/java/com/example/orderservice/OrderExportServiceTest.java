@@ -0,0 +1,200 @@
+package com.example.orderservice;
+
+import com.example.orderservice.dto.OrderExportSummary;
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.repository.ExportCheckpointRepository;
+import com.example.orderservice.repository.OrderChangeRepository;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.service.OrderChangeFeed;
+import com.example.orderservice.service.OrderExportService;
+import com.example.orderservice.service.OrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import static com.example.orderservice.TestOrders.items;
+import static com.example.orderservice.TestOrders.request;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "order.changes.enabled=true")
+@ActiveProfiles("test")
+class OrderExportServiceTest {
+
+    private static final String CUSTOMER = "CUST-EXPORT";
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderChangeRepository orderChangeRepository;
+
+    @Autowired
+    private OrderChangeFeed orderChangeFeed;
+
+    @Autowired
+    private ExportCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path exportDirectory;
+
+    private OrderExportService exportService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        checkpointRepository.deleteAll();
+        exportService = new OrderExportService(orderRepository, orderChangeRepository, checkpointRepository,
+                transactionManager, new SimpleMeterRegistry(), false, exportDirectory, 2, "lz4_frame", true);
+        // Start after the orders other tests left behind
+        orderChangeFeed.sequence();
+        exportService.export().orElseThrow();
+        clearExportDirectory();
+    }
+
+    @Test
+    void testExport_WritesOneRowPerItemAndResumesFromCheckpoint() throws Exception {
+        // Arrange
+        OrderResponse first = orderService.createOrders(List.of(request(CUSTOMER, items(2)))).get(0);
+        orderChangeFeed.sequence();
+
+        // Act
+        OrderExportSummary initial = exportService.export().orElseThrow();
+
+        // Assert
+        assertThat(initial.files()).isPositive();
+        assertThat(exportedRows()).containsExactlyInAnyOrder(
+                first.getId() + ":PROD-0", first.getId() + ":PROD-1");
+
+        // Arrange
+        OrderResponse second = orderService.createOrders(List.of(request(CUSTOMER, items(1)))).get(0);
+        orderService.updateOrderStatus(first.getId(), OrderStatus.PAYMENT_PENDING);
+        orderChangeFeed.sequence();
+        clearExportDirectory();
+
+        // Act
+        OrderExportSummary incremental = exportService.export().orElseThrow();
+
+        // Assert
+        assertThat(incremental.orders()).isEqualTo(2);
+        assertThat(exportedRows()).containsExactlyInAnyOrder(
+                first.getId() + ":PROD-0", first.getId() + ":PROD-1", second.getId() + ":PROD-0");
+    }
+
+    @Test
+    void testExport_NothingChanged_WritesNoFiles() {
+        // Arrange
+        orderService.createOrders(List.of(request(CUSTOMER, items(1))));
+        orderChangeFeed.sequence();
+        exportService.export();
+
+        // Act
+        OrderExportSummary summary = exportService.export().orElseThrow();
+
+        // Assert
+        assertThat(summary.rows()).isZero();
+        assertThat(summary.files()).isZero();
+    }
+
+    @Test
+    void testExport_LateCommitWithOlderUpdatedAtIsNotSkipped() throws Exception {
+        // Arrange
+        orderService.createOrders(List.of(request(CUSTOMER, items(1))));
+        orderChangeFeed.sequence();
+        exportService.export();
+        clearExportDirectory();
+        // Stamped long before the last run, as by a transaction that was still open when it ran
+        OrderResponse late = orderService.createOrders(List.of(request(CUSTOMER, items(1)))).get(0);
+        jdbcTemplate.update("UPDATE orders SET updated_at = ? WHERE id = ?", LocalDateTime.of(2000, 1, 1, 0, 0), late.getId());
+        orderChangeFeed.sequence();
+
+        // Act
+        OrderExportSummary summary = exportService.export().orElseThrow();
+
+        // Assert
+        assertThat(summary.orders()).isEqualTo(1);
+        assertThat(exportedRows()).containsExactly(late.getId() + ":PROD-0");
+    }
+
+    @Test
+    void testExport_ConcurrentRunsExportEachChangeOnce() throws Exception {
+        // Arrange
+        OrderResponse order = orderService.createOrders(List.of(request(CUSTOMER, items(2)))).get(0);
+        orderChangeFeed.sequence();
+        // As on another instance: synchronizing on exportService does not exclude it
+        OrderExportService otherInstance = new OrderExportService(orderRepository, orderChangeRepository,
+                checkpointRepository, transactionManager, new SimpleMeterRegistry(), false, exportDirectory, 2,
+                "lz4_frame", true);
+
+        // Act
+        CompletableFuture<OrderExportSummary> first = CompletableFuture.supplyAsync(() -> exportService.export().orElseThrow());
+        CompletableFuture<OrderExportSummary> second = CompletableFuture.supplyAsync(() -> otherInstance.export().orElseThrow());
+
+        // Assert
+        assertThat(first.join().rows() + second.join().rows()).isEqualTo(2);
+        assertThat(exportedRows()).containsExactlyInAnyOrder(order.getId() + ":PROD-0", order.getId() + ":PROD-1");
+    }
+
+    // order_id:product_id of every exported row belonging to this test's customer
+    private List<String> exportedRows() throws IOException {
+        List<String> rows = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(exportDirectory);
+             BufferAllocator allocator = new RootAllocator()) {
+            for (Path file : files.filter(path -> path.toString().endsWith(".arrow")).toList()) {
+                try (FileChannel channel = FileChannel.open(file);
+                     ArrowFileReader reader = new ArrowFileReader(channel, allocator)) {
+                    VectorSchemaRoot root = reader.getVectorSchemaRoot();
+                    while (reader.loadNextBatch()) {
+                        BigIntVector orderIds = (BigIntVector) root.getVector("order_id");
+                        VarCharVector customerIds = (VarCharVector) root.getVector("customer_id");
+                        VarCharVector productIds = (VarCharVector) root.getVector("product_id");
+                        for (int i = 0; i < root.getRowCount(); i++) {
+                            if (CUSTOMER.equals(customerIds.getObject(i).toString())) {
+                                rows.add(orderIds.get(i) + ":" + productIds.getObject(i));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    private void clearExportDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(exportDirectory)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
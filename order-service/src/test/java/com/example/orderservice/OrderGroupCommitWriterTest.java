@@ -0,0 +1,117 @@
+package com.example.orderservice;
+
+import com.example.orderservice.config.ShardingProperties;
+import com.example.orderservice.dto.OrderRequest;
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.service.OrderGroupCommitWriter;
+import com.example.orderservice.service.OrderService;
+import com.example.orderservice.service.ShardRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderGroupCommitWriterTest {
+
+    private static final ShardRouter UNSHARDED = new ShardRouter(new ShardingProperties(false, List.of(), 160, false));
+
+    @Mock
+    private OrderService orderService;
+
+    private MeterRegistry meterRegistry;
+    private OrderGroupCommitWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        writer = new OrderGroupCommitWriter(orderService, UNSHARDED, meterRegistry, true, 10, 200, 100);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writer.stop();
+    }
+
+    @Test
+    void testSubmit_CoalescesConcurrentRequestsIntoOneCommit() {
+        // Arrange
+        when(orderService.createOrders(anyList())).thenAnswer(invocation -> responsesFor(invocation.getArgument(0)));
+
+        // Act
+        CompletableFuture<OrderResponse> first = writer.submit(request("CUST-1"));
+        CompletableFuture<OrderResponse> second = writer.submit(request("CUST-2"));
+        CompletableFuture<OrderResponse> third = writer.submit(request("CUST-3"));
+        writer.start();
+
+        // Assert
+        assertThat(first.join().getCustomerId()).isEqualTo("CUST-1");
+        assertThat(second.join().getCustomerId()).isEqualTo("CUST-2");
+        assertThat(third.join().getCustomerId()).isEqualTo("CUST-3");
+        verify(orderService, times(1)).createOrders(anyList());
+        assertThat(meterRegistry.get("order.group_commit.commits").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("order.group_commit.orders").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void testSubmit_FailedGroupIsRetriedIndividually() {
+        // Arrange
+        when(orderService.createOrders(anyList())).thenAnswer(invocation -> {
+            List<OrderRequest> requests = invocation.getArgument(0);
+            if (requests.size() > 1 || requests.get(0).getCustomerId().equals("BAD")) {
+                throw new IllegalStateException("constraint violation");
+            }
+            return responsesFor(requests);
+        });
+
+        // Act
+        CompletableFuture<OrderResponse> good = writer.submit(request("CUST-1"));
+        CompletableFuture<OrderResponse> bad = writer.submit(request("BAD"));
+        writer.start();
+
+        // Assert
+        assertThat(good.join().getCustomerId()).isEqualTo("CUST-1");
+        assertThatThrownBy(bad::join).isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testSubmit_RejectsWhenQueueIsFull() {
+        // Arrange
+        OrderGroupCommitWriter smallWriter = new OrderGroupCommitWriter(orderService, UNSHARDED, new SimpleMeterRegistry(),
+                true, 10, 5, 1);
+        smallWriter.submit(request("CUST-1"));
+
+        // Act
+        CompletableFuture<OrderResponse> rejected = smallWriter.submit(request("CUST-2"));
+
+        // Assert
+        assertThat(rejected).isCompletedExceptionally();
+    }
+
+    private OrderRequest request(String customerId) {
+        OrderRequest request = new OrderRequest();
+        request.setCustomerId(customerId);
+        return request;
+    }
+
+    private List<OrderResponse> responsesFor(List<OrderRequest> requests) {
+        return requests.stream()
+                .map(r -> OrderResponse.builder().customerId(r.getCustomerId()).build())
+                .collect(Collectors.toList());
+    }
+}
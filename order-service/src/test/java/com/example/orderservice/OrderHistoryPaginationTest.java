@@ -0,0 +1,112 @@
+package com.example.orderservice;
+
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.dto.PageResponse;
+import com.example.orderservice.exception.InvalidRequestException;
+import com.example.orderservice.model.Money;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.AutoConfigureTestEntityManager;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@AutoConfigureTestEntityManager
+class OrderHistoryPaginationTest {
+
+    private static final int ORDER_COUNT = 7;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final List<Long> newestFirst = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            Order order = order("ORD-PAGE-" + i, i + 1);
+            entityManager.persist(order);
+            newestFirst.add(0, order.getId());
+        }
+        entityManager.persist(order("ORD-OTHER", 1)).setCustomerId("CUST-OTHER");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testGetOrdersByCustomerId_WalksAllPagesWithCursor() {
+        // Act
+        List<Long> seen = new ArrayList<>();
+        PageResponse<OrderResponse> page = orderService.getOrdersByCustomerId("CUST-PAGE", null, 3);
+        assertThat(page.isFirst()).isTrue();
+        int pages = 1;
+        page.getContent().forEach(o -> seen.add(o.getId()));
+        while (!page.isLast()) {
+            page = orderService.getOrdersByCustomerId("CUST-PAGE", page.getNextCursor(), 3);
+            page.getContent().forEach(o -> seen.add(o.getId()));
+            pages++;
+        }
+
+        // Assert
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).containsExactlyElementsOf(newestFirst);
+        assertThat(page.getNextCursor()).isNull();
+        assertThat(page.getTotalElements()).isEqualTo(-1);
+    }
+
+    @Test
+    void testGetOrdersByCustomerId_InvalidCursorIsRejected() {
+        assertThatThrownBy(() -> orderService.getOrdersByCustomerId("CUST-PAGE", "not-a-cursor", 3))
+                .isInstanceOf(InvalidRequestException.class);
+    }
+
+    @Test
+    void testStreamOrdersByCustomerId_FoldsItemRowsIntoOrders() {
+        // Act
+        List<OrderResponse> streamed = new ArrayList<>();
+        orderService.streamOrdersByCustomerId("CUST-PAGE", streamed::add);
+
+        // Assert
+        assertThat(streamed).extracting(OrderResponse::getId).containsExactlyElementsOf(newestFirst);
+        assertThat(streamed.get(0).getItems()).hasSize(ORDER_COUNT);
+        assertThat(streamed.get(ORDER_COUNT - 1).getItems()).hasSize(1);
+    }
+
+    private Order order(String orderNumber, int itemCount) {
+        Order order = new Order();
+        order.setOrderNumber(orderNumber);
+        order.setCustomerId("CUST-PAGE");
+        order.setCustomerName("Page Customer");
+        order.setDeliveryAddress("7 Pagination Road, Keyset");
+        order.setStatus(OrderStatus.CREATED);
+        for (int i = 0; i < itemCount; i++) {
+            OrderItem item = new OrderItem();
+            item.setProductId("PROD-" + i);
+            item.setProductName("Product " + i);
+            item.setQuantity(1);
+            item.setUnitPrice(Money.of(new BigDecimal("2.50")));
+            order.addItem(item);
+        }
+        order.calculateTotalAmount();
+        return order;
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.orderservice;
+
+import com.example.orderservice.model.Order;
+import com.example.orderservice.repository.OrderRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class OrderImportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testImportNdjson_ReportsResultPerLine() throws Exception {
+        // Arrange
+        String body = String.join("\n",
+                order("CUST-IMP-NDJSON", "imp@example.com"),
+                "",
+                order("CUST-IMP-NDJSON", "not-an-email"),
+                "{\"customerId\": ",
+                order("CUST-IMP-NDJSON", "imp2@example.com"));
+
+        // Act
+        List<JsonNode> lines = importOrders(body, MediaType.APPLICATION_NDJSON);
+
+        // Assert
+        assertThat(lines).hasSize(5);
+        assertThat(lines.get(0).get("status").asText()).isEqualTo("INVALID");
+        assertThat(lines.get(0).get("line").asLong()).isEqualTo(3);
+        assertThat(lines.get(0).get("errors").has("customerEmail")).isTrue();
+        assertThat(lines.get(1).get("line").asLong()).isEqualTo(4);
+        assertThat(lines.get(1).get("errors").get("row").asText()).startsWith("Malformed JSON");
+        assertThat(lines.get(2).get("status").asText()).isEqualTo("CREATED");
+        assertThat(lines.get(2).get("line").asLong()).isEqualTo(1);
+        assertThat(lines.get(3).get("status").asText()).isEqualTo("CREATED");
+        JsonNode summary = lines.get(4).get("summary");
+        assertThat(summary.get("orders").asLong()).isEqualTo(4);
+        assertThat(summary.get("created").asLong()).isEqualTo(2);
+        assertThat(summary.get("invalid").asLong()).isEqualTo(2);
+        assertThat(summary.has("ordersPerSecond")).isTrue();
+        assertThat(orderRepository.findByCustomerId("CUST-IMP-NDJSON")).hasSize(2);
+    }
+
+    @Test
+    void testImportCsv_GroupsItemLinesByOrderRef() throws Exception {
+        // Arrange
+        String body = """
+                orderRef,customerId,customerName,customerEmail,customerPhone,deliveryAddress,productId,productName,quantity,unitPrice
+                A-1,CUST-IMP-CSV,Csv Customer,csv@example.com,+15550001111,1 Import Street Csv City,PROD-1,Widget,2,9.99
+                A-1,CUST-IMP-CSV,Csv Customer,csv@example.com,+15550001111,1 Import Street Csv City,PROD-2,Gadget,1,5.00
+                A-2,CUST-IMP-CSV,Csv Customer,csv@example.com,,1 Import Street Csv City,PROD-3,Gizmo,1,abc
+                A-3,CUST-IMP-CSV,Csv Customer,csv@example.com,,1 Import Street Csv City,PROD-3,Gizmo,3,1.50
+                """;
+
+        // Act
+        List<JsonNode> lines = importOrders(body, MediaType.parseMediaType("text/csv"));
+
+        // Assert
+        assertThat(lines).hasSize(4);
+        assertThat(lines.get(0).get("ref").asText()).isEqualTo("A-2");
+        assertThat(lines.get(0).get("status").asText()).isEqualTo("INVALID");
+        assertThat(lines.get(1).get("ref").asText()).isEqualTo("A-1");
+        assertThat(lines.get(2).get("ref").asText()).isEqualTo("A-3");
+        assertThat(lines.get(3).get("summary").get("created").asLong()).isEqualTo(2);
+
+        List<Order> orders = orderRepository.findWithItemsByCustomerId("CUST-IMP-CSV");
+        assertThat(orders.stream().map(order -> order.getItems().size()).toList()).containsExactlyInAnyOrder(2, 1);
+    }
+
+    @Test
+    void testImportCsv_MalformedRecordIsReportedAndImportContinues() throws Exception {
+        // Arrange
+        String body = """
+                orderRef,customerId,customerName,customerEmail,customerPhone,deliveryAddress,productId,productName,quantity,unitPrice
+                B-1,CUST-IMP-BADCSV,"Csv Customer"x,csv@example.com,,1 Import Street Csv City,PROD-1,Widget,1,9.99
+                B-2,CUST-IMP-BADCSV,Csv Customer,csv@example.com,,1 Import Street Csv City,PROD-1,Widget,1,9.99
+                B-3,CUST-IMP-BADCSV,"Csv Customer,csv@example.com,,1 Import Street Csv City,PROD-1,Widget,1,9.99
+                """;
+
+        // Act
+        List<JsonNode> lines = importOrders(body, MediaType.parseMediaType("text/csv"));
+
+        // Assert
+        assertThat(lines).hasSize(4);
+        assertThat(lines.get(0).get("line").asLong()).isEqualTo(2);
+        assertThat(lines.get(0).get("errors").get("row").asText()).startsWith("Malformed CSV");
+        assertThat(lines.get(1).get("errors").get("row").asText()).startsWith("Malformed CSV");
+        assertThat(lines.get(2).get("ref").asText()).isEqualTo("B-2");
+        assertThat(lines.get(2).get("status").asText()).isEqualTo("CREATED");
+        JsonNode summary = lines.get(3).get("summary");
+        assertThat(summary.get("created").asLong()).isEqualTo(1);
+        assertThat(summary.get("invalid").asLong()).isEqualTo(2);
+    }
+
+    @Test
+    void testImportNdjson_DatabaseErrorIsReportedWithoutDetails() throws Exception {
+        // Arrange
+        String body = String.join("\n",
+                order("CUST-IMP-FAILED", "imp@example.com").replace("Import Customer", "N".repeat(300)),
+                order("CUST-IMP-FAILED", "imp2@example.com"));
+
+        // Act
+        List<JsonNode> lines = importOrders(body, MediaType.APPLICATION_NDJSON);
+
+        // Assert
+        assertThat(lines.get(0).get("status").asText()).isEqualTo("FAILED");
+        assertThat(lines.get(0).get("errors").get("order").asText()).isEqualTo("An unexpected error occurred");
+        assertThat(lines.get(1).get("status").asText()).isEqualTo("CREATED");
+        assertThat(orderRepository.findByCustomerId("CUST-IMP-FAILED")).hasSize(1);
+    }
+
+    @Test
+    void testImport_MayRunLongerThanTheContainerDefault() throws Exception {
+        // Act
+        MvcResult started = mockMvc.perform(post("/api/orders/import").contentType(MediaType.APPLICATION_NDJSON)
+                        .content(order("CUST-IMP-TIMEOUT", "imp@example.com")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+
+        // Assert
+        assertThat(started.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofMinutes(30).toMillis());
+    }
+
+    private List<JsonNode> importOrders(String body, MediaType contentType) throws Exception {
+        MvcResult started = mockMvc.perform(post("/api/orders/import").contentType(contentType).content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : result.getResponse().getContentAsString().split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    private String order(String customerId, String email) {
+        return "{\"customerId\":\"" + customerId + "\",\"customerName\":\"Import Customer\"," +
+                "\"customerEmail\":\"" + email + "\",\"deliveryAddress\":\"9 Import Road, Bulk Town\"," +
+                "\"items\":[{\"productId\":\"PROD-1\",\"productName\":\"Widget\",\"quantity\":1,\"unitPrice\":4.50}]}";
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.orderservice;
+
+import com.example.orderservice.config.ShardingProperties;
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.exception.OrderNotFoundException;
+import com.example.orderservice.service.OrderLookupBatcher;
+import com.example.orderservice.service.OrderService;
+import com.example.orderservice.service.ShardRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderLookupBatcherTest {
+
+    private static final ShardRouter UNSHARDED = new ShardRouter(new ShardingProperties(false, List.of(), 160, false));
+
+    @Mock
+    private OrderService orderService;
+
+    private MeterRegistry meterRegistry;
+    private OrderLookupBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        batcher = new OrderLookupBatcher(orderService, UNSHARDED, meterRegistry, true, 10, 200, 100);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        batcher.stop();
+    }
+
+    @Test
+    void testGetOrderById_MergesConcurrentLookupsIntoOneQuery() {
+        // Arrange
+        when(orderService.getOrdersByIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().filter(id -> id != 9L).map(this::order).collect(Collectors.toList());
+        });
+
+        // Act
+        CompletableFuture<OrderResponse> first = CompletableFuture.supplyAsync(() -> batcher.getOrderById(1L));
+        CompletableFuture<OrderResponse> second = CompletableFuture.supplyAsync(() -> batcher.getOrderById(2L));
+        CompletableFuture<OrderResponse> duplicate = CompletableFuture.supplyAsync(() -> batcher.getOrderById(1L));
+        CompletableFuture<OrderResponse> missing = CompletableFuture.supplyAsync(() -> batcher.getOrderById(9L));
+        batcher.start();
+
+        // Assert
+        assertThat(first.join().getOrderNumber()).isEqualTo("ORD-1");
+        assertThat(second.join().getOrderNumber()).isEqualTo("ORD-2");
+        assertThat(duplicate.join().getOrderNumber()).isEqualTo("ORD-1");
+        assertThatThrownBy(missing::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(OrderNotFoundException.class);
+        verify(orderService, times(1)).getOrdersByIds(anyCollection());
+        assertThat(meterRegistry.get("order.lookup.batch.size").summary().max()).isEqualTo(3.0);
+        assertThat(meterRegistry.get("order.lookup.batch.queries").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("order.lookup.batch.lookups").counter().count()).isEqualTo(4.0);
+    }
+
+    @Test
+    void testGetOrderById_DisabledGoesStraightToService() {
+        // Arrange
+        OrderLookupBatcher disabled = new OrderLookupBatcher(orderService, UNSHARDED, meterRegistry, false, 10, 200, 100);
+        when(orderService.getOrderById(1L)).thenReturn(order(1L));
+
+        // Act
+        OrderResponse order = disabled.getOrderById(1L);
+
+        // Assert
+        assertThat(order.getOrderNumber()).isEqualTo("ORD-1");
+        verify(orderService, never()).getOrdersByIds(anyCollection());
+    }
+
+    private OrderResponse order(Long id) {
+        return OrderResponse.builder().id(id).orderNumber("ORD-" + id).build();
+    }
+}
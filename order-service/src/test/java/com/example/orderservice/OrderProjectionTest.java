@@ -0,0 +1,130 @@
+package com.example.orderservice;
+
+import com.example.orderservice.dto.OrderField;
+import com.example.orderservice.dto.OrderItemResponse;
+import com.example.orderservice.dto.PageResponse;
+import com.example.orderservice.model.Money;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.service.OrderProjectionService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.AutoConfigureTestEntityManager;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that {@code fields=} lists select only what was asked for: no entities are loaded, and
+ * items cost one extra query only when requested.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@AutoConfigureTestEntityManager
+class OrderProjectionTest {
+
+    private static final int ORDER_COUNT = 12;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Autowired
+    private OrderProjectionService orderProjectionService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            entityManager.persist(order("ORD-PROJ-" + i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testGetOrdersByCustomerId_SelectsOnlyRequestedColumns() {
+        // Act
+        List<Map<String, Object>> orders = orderProjectionService.getOrdersByCustomerId("CUST-PROJ",
+                OrderField.parse("orderNumber,status,totalAmount"));
+
+        // Assert
+        assertThat(orders).hasSize(ORDER_COUNT);
+        assertThat(orders).allSatisfy(order -> {
+            assertThat(order).containsOnlyKeys("orderNumber", "status", "totalAmount");
+            assertThat(order.get("status")).isEqualTo(OrderStatus.CREATED);
+            assertThat(order.get("totalAmount")).isEqualTo(Money.of(new BigDecimal("15.00")));
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void testGetOrdersByCustomerId_LoadsItemsInOneExtraQuery() {
+        // Act
+        List<Map<String, Object>> orders = orderProjectionService.getOrdersByCustomerId("CUST-PROJ",
+                OrderField.parse("orderNumber,items"));
+
+        // Assert
+        assertThat(orders).allSatisfy(order -> assertThat((List<?>) order.get("items"))
+                .hasSize(ITEMS_PER_ORDER)
+                .allSatisfy(item -> assertThat(((OrderItemResponse) item).getUnitPrice())
+                        .isEqualTo(Money.of(new BigDecimal("5.00")))));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void testGetOrdersByCustomerIdPage_PagesWithoutSelectingCursorFields() {
+        // Act
+        PageResponse<Map<String, Object>> first = orderProjectionService.getOrdersByCustomerId("CUST-PROJ", null, 5,
+                OrderField.parse("orderNumber"));
+        PageResponse<Map<String, Object>> second = orderProjectionService.getOrdersByCustomerId("CUST-PROJ",
+                first.getNextCursor(), 5, OrderField.parse("orderNumber"));
+
+        // Assert
+        assertThat(first.getContent()).hasSize(5).allSatisfy(order -> assertThat(order).containsOnlyKeys("orderNumber"));
+        assertThat(first.getContent().get(0).get("orderNumber")).isEqualTo("ORD-PROJ-" + (ORDER_COUNT - 1));
+        assertThat(second.getContent()).hasSize(5);
+        assertThat(second.getContent().get(0).get("orderNumber")).isEqualTo("ORD-PROJ-" + (ORDER_COUNT - 6));
+    }
+
+    private Order order(String orderNumber) {
+        Order order = new Order();
+        order.setOrderNumber(orderNumber);
+        order.setCustomerId("CUST-PROJ");
+        order.setCustomerName("Dashboard");
+        order.setDeliveryAddress("9 Projection Place");
+        order.setStatus(OrderStatus.CREATED);
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            OrderItem item = new OrderItem();
+            item.setProductId("PROD-" + i);
+            item.setProductName("Product " + i);
+            item.setQuantity(1);
+            item.setUnitPrice(Money.of(new BigDecimal("5.00")));
+            order.addItem(item);
+        }
+        order.calculateTotalAmount();
+        return order;
+    }
+}
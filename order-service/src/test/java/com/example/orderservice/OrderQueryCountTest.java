@@ -0,0 +1,116 @@
+package com.example.orderservice;
+
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.model.Money;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.service.OrderService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.AutoConfigureTestEntityManager;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the order read paths against N+1 item loading by counting the JDBC statements
+ * Hibernate prepares while building responses.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@AutoConfigureTestEntityManager
+class OrderQueryCountTest {
+
+    private static final int ORDER_COUNT = 20;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Order firstOrder;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            Order order = order("ORD-QC-" + i);
+            entityManager.persist(order);
+            if (i == 0) {
+                firstOrder = order;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testGetOrdersByCustomerId_UsesSingleQuery() {
+        // Act
+        List<OrderResponse> orders = orderService.getOrdersByCustomerId("CUST-QC");
+
+        // Assert
+        assertThat(orders).hasSize(ORDER_COUNT);
+        assertThat(orders).allSatisfy(o -> assertThat(o.getItems()).hasSize(ITEMS_PER_ORDER));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testGetOrderById_UsesSingleQuery() {
+        // Act
+        OrderResponse order = orderService.getOrderById(firstOrder.getId());
+
+        // Assert
+        assertThat(order.getItems()).hasSize(ITEMS_PER_ORDER);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testGetOrderByNumber_UsesSingleQuery() {
+        // Act
+        OrderResponse order = orderService.getOrderByNumber(firstOrder.getOrderNumber());
+
+        // Assert
+        assertThat(order.getItems()).hasSize(ITEMS_PER_ORDER);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private Order order(String orderNumber) {
+        Order order = new Order();
+        order.setOrderNumber(orderNumber);
+        order.setCustomerId("CUST-QC");
+        order.setCustomerName("Query Count");
+        order.setDeliveryAddress("42 Query Count Avenue");
+        order.setStatus(OrderStatus.CREATED);
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            OrderItem item = new OrderItem();
+            item.setProductId("PROD-" + i);
+            item.setProductName("Product " + i);
+            item.setQuantity(1);
+            item.setUnitPrice(Money.of(new BigDecimal("5.00")));
+            order.addItem(item);
+        }
+        order.calculateTotalAmount();
+        return order;
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.orderservice;
+
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.exception.OrderNotFoundException;
+import com.example.orderservice.service.OrderResponseCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderResponseCacheTest {
+
+    private MeterRegistry meterRegistry;
+    private OrderResponseCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new OrderResponseCache(meterRegistry, 100, Duration.ofMinutes(1));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testGetById_LoadsOnceThenHits() {
+        // Act
+        cache.getById(1L, loader());
+        OrderResponse second = cache.getById(1L, loader());
+
+        // Assert
+        assertThat(second.getOrderNumber()).isEqualTo("ORD-1");
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "orders").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testGetByOrderNumber_SharesEntryWithIdLookup() {
+        // Arrange
+        cache.getById(1L, loader());
+
+        // Act
+        OrderResponse byNumber = cache.getByOrderNumber("ORD-1", number -> {
+            throw new AssertionError("should be served from cache");
+        });
+
+        // Assert
+        assertThat(byNumber.getId()).isEqualTo(1L);
+    }
+
+    @Test
+    void testEvict_NextLookupReloads() {
+        // Arrange
+        cache.getById(1L, loader());
+
+        // Act
+        cache.evict(1L);
+        cache.getByOrderNumber("ORD-1", number -> order(1L));
+
+        // Assert
+        cache.getById(1L, loader());
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void testEvict_InsideTransactionAlsoEvictsAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Arrange
+            cache.evict(1L);
+            // A reader re-populates the entry before the writer commits
+            cache.getById(1L, loader());
+
+            // Act
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            // Assert
+            cache.getById(1L, loader());
+            assertThat(loads).hasValue(2);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testGetById_LoadRacingEvictIsNotCached() {
+        // Arrange
+        Function<Long, OrderResponse> staleLoad = id -> {
+            OrderResponse stale = order(id);
+            // The writer commits and evicts while the read is still on its way back
+            cache.evict(id);
+            return stale;
+        };
+
+        // Act
+        cache.getById(1L, staleLoad);
+
+        // Assert
+        cache.getById(1L, loader());
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void testGetByOrderNumber_LoadRacingEvictIsNotCached() {
+        // Act
+        cache.getByOrderNumber("ORD-1", number -> {
+            OrderResponse stale = order(1L);
+            cache.evict(1L);
+            return stale;
+        });
+
+        // Assert
+        cache.getByOrderNumber("ORD-1", number -> {
+            loads.incrementAndGet();
+            return order(1L);
+        });
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void testGetById_MissingOrderIsNotCached() {
+        assertThatThrownBy(() -> cache.getById(9L, id -> {
+            throw new OrderNotFoundException("Order not found with id: " + id);
+        })).isInstanceOf(OrderNotFoundException.class);
+
+        assertThat(cache.getById(9L, loader()).getId()).isEqualTo(9L);
+    }
+
+    private Function<Long, OrderResponse> loader() {
+        return id -> {
+            loads.incrementAndGet();
+            return order(id);
+        };
+    }
+
+    private OrderResponse order(Long id) {
+        return OrderResponse.builder().id(id).orderNumber("ORD-" + id).build();
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.orderservice;
+
+import com.example.orderservice.exception.InvalidOrderStatusTransitionException;
+import com.example.orderservice.exception.OrderNotFoundException;
+import com.example.orderservice.model.Money;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.service.OrderService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.AutoConfigureTestEntityManager;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@AutoConfigureTestEntityManager
+class OrderStatusTransitionTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testUpdateOrderStatus_AppliesAllowedTransitionInOneStatement() {
+        // Arrange
+        Order order = persist("ORD-ST-1", OrderStatus.IN_DELIVERY);
+        statistics.clear();
+
+        // Act
+        orderService.updateOrderStatus(order.getId(), OrderStatus.DELIVERED);
+
+        // Assert
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        Order updated = entityManager.find(Order.class, order.getId());
+        assertThat(updated.getStatus()).isEqualTo(OrderStatus.DELIVERED);
+        assertThat(updated.getCompletedAt()).isNotNull();
+        assertThat(updated.getVersion()).isEqualTo(order.getVersion() + 1);
+    }
+
+    @Test
+    void testUpdateOrderStatus_RejectsTransitionFromDisallowedStatus() {
+        // Arrange
+        Order order = persist("ORD-ST-2", OrderStatus.CREATED);
+
+        // Act & Assert
+        assertThatThrownBy(() -> orderService.updateOrderStatus(order.getId(), OrderStatus.DELIVERED))
+                .isInstanceOf(InvalidOrderStatusTransitionException.class)
+                .hasMessageContaining("CREATED");
+        assertThat(entityManager.find(Order.class, order.getId()).getStatus()).isEqualTo(OrderStatus.CREATED);
+    }
+
+    @Test
+    void testUpdateOrderStatus_ThrowsWhenOrderMissing() {
+        assertThatThrownBy(() -> orderService.updateOrderStatus(999_999L, OrderStatus.CANCELLED))
+                .isInstanceOf(OrderNotFoundException.class);
+    }
+
+    @Test
+    void testUpdateOrderStatuses_UpdatesOnlyEligibleOrdersInOneUpdate() {
+        // Arrange
+        Order first = persist("ORD-ST-3", OrderStatus.PAYMENT_COMPLETED);
+        Order second = persist("ORD-ST-4", OrderStatus.PAYMENT_COMPLETED);
+        Order delivered = persist("ORD-ST-5", OrderStatus.DELIVERED);
+        statistics.clear();
+
+        // Act
+        int updated = orderService.updateOrderStatuses(
+                List.of(first.getId(), second.getId(), delivered.getId()), OrderStatus.PREPARING);
+
+        // Assert
+        assertThat(updated).isEqualTo(2);
+        // One UPDATE for all orders, plus one SELECT of the changed ids for status events
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(entityManager.find(Order.class, first.getId()).getStatus()).isEqualTo(OrderStatus.PREPARING);
+        assertThat(entityManager.find(Order.class, delivered.getId()).getStatus()).isEqualTo(OrderStatus.DELIVERED);
+    }
+
+    @Test
+    void testTransitionMap_TerminalStatusesHaveNoSuccessors() {
+        for (OrderStatus target : OrderStatus.values()) {
+            assertThat(target.canTransitionFrom(OrderStatus.CANCELLED)).isFalse();
+            assertThat(target.canTransitionFrom(OrderStatus.REFUNDED)).isFalse();
+        }
+        assertThat(OrderStatus.CREATED.allowedPredecessors()).isEmpty();
+    }
+
+    private Order persist(String orderNumber, OrderStatus status) {
+        Order order = new Order();
+        order.setOrderNumber(orderNumber);
+        order.setCustomerId("CUST-ST");
+        order.setCustomerName("Status Test");
+        order.setDeliveryAddress("7 Transition Road, State City");
+        order.setStatus(status);
+        OrderItem item = new OrderItem();
+        item.setProductId("PROD-1");
+        item.setProductName("Product 1");
+        item.setQuantity(1);
+        item.setUnitPrice(Money.of(new BigDecimal("5.00")));
+        order.addItem(item);
+        order.calculateTotalAmount();
+        entityManager.persist(order);
+        entityManager.flush();
+        entityManager.clear();
+        return order;
+    }
+}
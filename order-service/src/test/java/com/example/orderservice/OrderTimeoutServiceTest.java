@@ -0,0 +1,110 @@
+package com.example.orderservice;
+
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.model.Money;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.repository.OutboxEventRepository;
+import com.example.orderservice.service.KafkaProducerService;
+import com.example.orderservice.service.OrderService;
+import com.example.orderservice.service.OrderTimeoutService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.orderservice.TestOrders.request;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "order.timeout.enabled=true",
+        "order.timeout.after=0s",
+        "order.timeout.tick-ms=20"
+})
+@ActiveProfiles("test")
+class OrderTimeoutServiceTest {
+
+    @Autowired
+    private OrderTimeoutService orderTimeoutService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Test
+    void testExpire_CancelsUnpaidOrderAndEmitsOrderCancelled() throws Exception {
+        // Act
+        OrderResponse order = orderService.createOrderAsync(request("CUST-TIMEOUT")).join();
+
+        // Assert
+        assertThat(awaitStatus(order.getId(), OrderStatus.CANCELLED)).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(outboxEventRepository.findAll()).anyMatch(event -> event.getOrderId().equals(order.getId())
+                && event.getTopic().equals(KafkaProducerService.ORDER_CANCELLED_TOPIC)
+                && event.getEventType().equals("ORDER_CANCELLED"));
+        assertThat(orderTimeoutService.isScheduled(order.getId())).isFalse();
+    }
+
+    @Test
+    void testRebuild_SchedulesPendingOrdersFromTheDatabase() throws Exception {
+        // Arrange
+        Long orderId = orderRepository.save(order(OrderStatus.PAYMENT_PENDING)).getId();
+
+        // Act
+        orderTimeoutService.rebuild();
+
+        // Assert
+        assertThat(awaitStatus(orderId, OrderStatus.CANCELLED)).isEqualTo(OrderStatus.CANCELLED);
+    }
+
+    @Test
+    void testCancelExpiredOrders_LeavesPaidOrdersAlone() {
+        // Arrange
+        Long orderId = orderRepository.save(order(OrderStatus.PAYMENT_COMPLETED)).getId();
+
+        // Act
+        List<Long> cancelled = orderService.cancelExpiredOrders(List.of(orderId));
+
+        // Assert
+        assertThat(cancelled).isEmpty();
+        assertThat(orderRepository.findStatusById(orderId)).contains(OrderStatus.PAYMENT_COMPLETED);
+    }
+
+    private OrderStatus awaitStatus(Long orderId, OrderStatus expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        OrderStatus status = orderRepository.findStatusById(orderId).orElseThrow();
+        while (status != expected && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            status = orderRepository.findStatusById(orderId).orElseThrow();
+        }
+        return status;
+    }
+
+    private Order order(OrderStatus status) {
+        Order order = new Order();
+        order.setOrderNumber("ORD-TIMEOUT-" + UUID.randomUUID());
+        order.setCustomerId("CUST-TIMEOUT");
+        order.setCustomerName("Timeout Customer");
+        order.setDeliveryAddress("9 Deadline Drive, Wheel Town");
+        order.setStatus(status);
+        OrderItem item = new OrderItem();
+        item.setProductId("PROD-1");
+        item.setProductName("Widget");
+        item.setQuantity(1);
+        item.setUnitPrice(Money.of(new BigDecimal("5.00")));
+        order.addItem(item);
+        order.calculateTotalAmount();
+        return order;
+    }
+}
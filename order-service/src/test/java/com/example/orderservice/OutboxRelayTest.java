@@ -0,0 +1,155 @@
+package com.example.orderservice;
+
+import com.example.orderservice.config.ShardingProperties;
+import com.example.orderservice.model.OutboxEvent;
+import com.example.orderservice.model.OutboxRelayLock;
+import com.example.orderservice.repository.OutboxEventRepository;
+import com.example.orderservice.repository.OutboxRelayLockRepository;
+import com.example.orderservice.service.KafkaProducerService;
+import com.example.orderservice.service.OutboxRelay;
+import com.example.orderservice.service.ShardRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    private static final ShardRouter UNSHARDED = new ShardRouter(new ShardingProperties(false, List.of(), 160, false));
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private OutboxRelayLockRepository lockRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private KafkaProducerService kafkaProducerService;
+
+    private MeterRegistry meterRegistry;
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        outboxRelay = new OutboxRelay(outboxEventRepository, lockRepository, transactionManager, kafkaProducerService,
+                UNSHARDED, meterRegistry, 10, 1000);
+    }
+
+    @Test
+    void testRelay_PublishesBatchAndDeletesAcknowledgedEvents() {
+        // Arrange
+        claimLock();
+        OutboxEvent first = outboxEvent(1L, "ORD-1");
+        OutboxEvent second = outboxEvent(2L, "ORD-2");
+        when(outboxEventRepository.findAllByOrderByIdAsc(any(Pageable.class))).thenReturn(List.of(first, second));
+        when(kafkaProducerService.sendOutboxEvent(any(OutboxEvent.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        outboxRelay.relay();
+
+        // Assert
+        verify(kafkaProducerService).sendOutboxEvent(first);
+        verify(kafkaProducerService).sendOutboxEvent(second);
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        assertThat(meterRegistry.get("order.outbox.published").counter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("order.outbox.batch.size").summary().totalAmount()).isEqualTo(2.0);
+    }
+
+    @Test
+    void testRelay_KeepsEventsThatFailedToPublish() {
+        // Arrange
+        claimLock();
+        OutboxEvent first = outboxEvent(1L, "ORD-1");
+        OutboxEvent second = outboxEvent(2L, "ORD-2");
+        when(outboxEventRepository.findAllByOrderByIdAsc(any(Pageable.class))).thenReturn(List.of(first, second));
+        when(kafkaProducerService.sendOutboxEvent(first)).thenReturn(CompletableFuture.completedFuture(null));
+        when(kafkaProducerService.sendOutboxEvent(second))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        // Act
+        outboxRelay.relay();
+
+        // Assert
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(outboxEventRepository, times(1)).findAllByOrderByIdAsc(any(Pageable.class));
+        assertThat(meterRegistry.get("order.outbox.failed").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testRelay_StopsAtFirstFailureToKeepOrder() {
+        // Arrange
+        claimLock();
+        OutboxEvent created = outboxEvent(1L, "ORD-1");
+        OutboxEvent failed = outboxEvent(2L, "ORD-2");
+        OutboxEvent cancelled = outboxEvent(3L, "ORD-1");
+        when(outboxEventRepository.findAllByOrderByIdAsc(any(Pageable.class))).thenReturn(List.of(created, failed, cancelled));
+        when(kafkaProducerService.sendOutboxEvent(created)).thenReturn(CompletableFuture.completedFuture(null));
+        when(kafkaProducerService.sendOutboxEvent(failed))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        when(kafkaProducerService.sendOutboxEvent(cancelled)).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        outboxRelay.relay();
+
+        // Assert
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L));
+        assertThat(meterRegistry.get("order.outbox.failed").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void testRelay_SkipsWhileAnotherInstanceHoldsTheLock() {
+        // Arrange
+        when(lockRepository.findByNameSkipLocked(anyString())).thenReturn(Optional.empty());
+        when(lockRepository.existsById(anyString())).thenReturn(true);
+
+        // Act
+        outboxRelay.relay();
+
+        // Assert
+        verifyNoInteractions(outboxEventRepository, kafkaProducerService);
+    }
+
+    @Test
+    void testRelay_EmptyOutboxResetsLag() {
+        // Arrange
+        claimLock();
+        when(outboxEventRepository.findAllByOrderByIdAsc(any(Pageable.class))).thenReturn(List.of());
+
+        // Act
+        outboxRelay.relay();
+
+        // Assert
+        verifyNoInteractions(kafkaProducerService);
+        assertThat(meterRegistry.get("order.outbox.lag").timeGauge().value()).isZero();
+    }
+
+    private void claimLock() {
+        when(lockRepository.findByNameSkipLocked(anyString())).thenReturn(Optional.of(new OutboxRelayLock("outbox_relay")));
+    }
+
+    private OutboxEvent outboxEvent(Long id, String orderNumber) {
+        return new OutboxEvent(id, id, KafkaProducerService.ORDER_CREATED_TOPIC, orderNumber,
+                "ORDER_CREATED", "{}", LocalDateTime.now());
+    }
+}
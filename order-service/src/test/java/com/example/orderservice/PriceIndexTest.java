@@ -0,0 +1,49 @@
+package com.example.orderservice;
+
+import com.example.orderservice.model.Money;
+import com.example.orderservice.service.PriceIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriceIndexTest {
+
+    @Test
+    void testGet_FindsEveryProductAndMissesOthers() {
+        // Arrange
+        Map<String, Money> prices = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            prices.put("SKU-" + i, Money.ofMinor(i));
+        }
+
+        // Act
+        PriceIndex index = PriceIndex.of(prices);
+
+        // Assert
+        assertThat(index.size()).isEqualTo(10_000);
+        prices.forEach((productId, price) -> assertThat(index.get(productId)).isEqualTo(price));
+        assertThat(index.get("SKU-10000")).isNull();
+        assertThat(index.get(null)).isNull();
+    }
+
+    @Test
+    void testGet_CollidingHashCodes() {
+        // Arrange: "Aa" and "BB" share a hash code
+        PriceIndex index = PriceIndex.of(Map.of("Aa", Money.ofMinor(100), "BB", Money.ofMinor(200)));
+
+        // Act & Assert
+        assertThat(index.get("Aa")).isEqualTo(Money.ofMinor(100));
+        assertThat(index.get("BB")).isEqualTo(Money.ofMinor(200));
+        assertThat(index.get("C#")).isNull();
+    }
+
+    @Test
+    void testEmpty_ReturnsNull() {
+        // Act & Assert
+        assertThat(PriceIndex.EMPTY.get("SKU-1")).isNull();
+        assertThat(PriceIndex.EMPTY.size()).isZero();
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.orderservice;
+
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.exception.ProductNotPricedException;
+import com.example.orderservice.model.Money;
+import com.example.orderservice.model.ProductPrice;
+import com.example.orderservice.repository.ProductPriceRepository;
+import com.example.orderservice.service.OrderService;
+import com.example.orderservice.service.ProductPriceCatalog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletionException;
+
+import static com.example.orderservice.TestOrders.item;
+import static com.example.orderservice.TestOrders.request;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "order.pricing.enabled=true")
+@ActiveProfiles("test")
+class ProductPriceCatalogTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductPriceCatalog productPriceCatalog;
+
+    @Autowired
+    private ProductPriceRepository productPriceRepository;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void testCreateOrder_ChargesCatalogPriceNotClientPrice() {
+        // Arrange
+        productPriceRepository.save(new ProductPrice("PROD-PRICED", Money.ofMinor(1250), LocalDateTime.now()));
+        productPriceCatalog.refresh();
+
+        // Act
+        OrderResponse order = orderService.createOrderAsync(request("CUST-PRICING", item("PROD-PRICED", 3, "0.01"))).join();
+
+        // Assert
+        assertThat(order.getItems().get(0).getUnitPrice()).isEqualTo(Money.ofMinor(1250));
+        assertThat(order.getTotalAmount()).isEqualTo(Money.ofMinor(3750));
+    }
+
+    @Test
+    void testCreateOrder_ProductMissingFromCatalog_IsRejected() {
+        // Act & Assert
+        assertThatThrownBy(() -> orderService.createOrderAsync(request("CUST-PRICING", item("PROD-UNPRICED", 1, "5.00"))).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(ProductNotPricedException.class);
+    }
+
+    @Test
+    void testRefresh_LoadsCatalogFile() throws Exception {
+        // Arrange
+        Path file = Files.writeString(tempDir.resolve("catalog.csv"), """
+                productId,unitPrice
+                SKU-1,4.99
+
+                SKU-2, 10.00
+                """);
+        ProductPriceCatalog catalog = new ProductPriceCatalog(productPriceRepository, new SimpleMeterRegistry(),
+                true, file.toString());
+
+        // Act
+        int products = catalog.refresh();
+
+        // Assert
+        assertThat(products).isEqualTo(2);
+        assertThat(catalog.unitPriceFor("SKU-2", BigDecimal.ONE)).isEqualTo(Money.ofMinor(1000));
+    }
+
+    @Test
+    void testScheduledRefresh_BadFileKeepsCurrentPrices() throws Exception {
+        // Arrange
+        Path file = Files.writeString(tempDir.resolve("catalog.csv"), "productId,unitPrice\nSKU-1,4.99\n");
+        ProductPriceCatalog catalog = new ProductPriceCatalog(productPriceRepository, new SimpleMeterRegistry(),
+                true, file.toString());
+        catalog.refresh();
+        Files.writeString(file, "productId,unitPrice\nSKU-1,free\n");
+
+        // Act
+        catalog.scheduledRefresh();
+
+        // Assert
+        assertThat(catalog.unitPriceFor("SKU-1", BigDecimal.ONE)).isEqualTo(Money.ofMinor(499));
+    }
+
+    @Test
+    void testUnitPriceFor_DisabledUsesRequestedPrice() {
+        // Arrange
+        ProductPriceCatalog catalog = new ProductPriceCatalog(productPriceRepository, new SimpleMeterRegistry(),
+                false, "");
+
+        // Act & Assert
+        assertThat(catalog.unitPriceFor("ANY", new BigDecimal("3.00"))).isEqualTo(Money.ofMinor(300));
+    }
+}
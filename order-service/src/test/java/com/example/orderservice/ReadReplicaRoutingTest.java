@@ -0,0 +1,131 @@
+package com.example.orderservice;
+
+import com.example.orderservice.config.ReadWriteRoutingDataSource;
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.service.OrderService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.example.orderservice.TestOrders.request;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The two databases do not replicate, so where a row is found shows which pool served the read
+@SpringBootTest(properties = {
+        "order.replica.enabled=true",
+        "order.replica.initialize-schema=true",
+        "order.replica.read-your-writes-window=1h",
+        "order.replica.primary.url=jdbc:h2:mem:orders-primary",
+        "order.replica.primary.username=sa",
+        "order.replica.replica.url=jdbc:h2:mem:orders-replica",
+        "order.replica.replica.username=sa",
+        "order.replica.replica.maximum-pool-size=2",
+        "order.replica.replica.minimum-idle=2",
+        "order.replica.replica.connection-timeout=250ms"
+})
+@ActiveProfiles("test")
+class ReadReplicaRoutingTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ReadWriteRoutingDataSource readWriteRoutingDataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testReadOnlyTransactions_AreServedByReplica() {
+        // Arrange
+        insertOrder(readWriteRoutingDataSource.getReplica(), 900_001L, "ORD-REPLICA-1", "CUST-REPLICA");
+        long replicaQueries = queryCount("replica");
+
+        // Act
+        OrderResponse found = orderService.getOrderById(900_001L);
+        List<OrderResponse> history = orderService.getOrdersByCustomerId("CUST-REPLICA");
+
+        // Assert
+        assertThat(found.getOrderNumber()).isEqualTo("ORD-REPLICA-1");
+        assertThat(history).extracting(OrderResponse::getId).containsExactly(900_001L);
+        assertThat(countOrders(readWriteRoutingDataSource.getPrimary(), 900_001L)).isZero();
+        assertThat(queryCount("replica")).isGreaterThan(replicaQueries);
+    }
+
+    @Test
+    void testReadsAfterOwnWrite_StayOnPrimaryWithinWindow() {
+        // Arrange
+        OrderResponse created = orderService.createOrderAsync(request("CUST-RYW")).join();
+
+        // Act
+        OrderResponse byId = orderService.getOrderById(created.getId());
+        OrderResponse byNumber = orderService.getOrderByNumber(created.getOrderNumber());
+        List<OrderResponse> history = orderService.getOrdersByCustomerId("CUST-RYW");
+
+        // Assert
+        assertThat(countOrders(readWriteRoutingDataSource.getReplica(), created.getId())).isZero();
+        assertThat(byId.getStatus()).isEqualTo(OrderStatus.CREATED);
+        assertThat(byNumber.getId()).isEqualTo(created.getId());
+        assertThat(history).extracting(OrderResponse::getId).containsExactly(created.getId());
+    }
+
+    @Test
+    void testReadsByNumberAfterStatusChange_StayOnPrimaryWithinWindow() {
+        // Arrange
+        insertOrder(readWriteRoutingDataSource.getPrimary(), 900_003L, "ORD-UPDATED-1", "CUST-UPDATED");
+        insertOrder(readWriteRoutingDataSource.getPrimary(), 900_004L, "ORD-UPDATED-2", "CUST-UPDATED");
+
+        // Act
+        orderService.updateOrderStatus(900_003L, OrderStatus.PAYMENT_PENDING);
+        orderService.updateOrderStatuses(List.of(900_004L), OrderStatus.PAYMENT_PENDING);
+
+        // Assert
+        assertThat(orderService.getOrderByNumber("ORD-UPDATED-1").getStatus()).isEqualTo(OrderStatus.PAYMENT_PENDING);
+        assertThat(orderService.getOrderByNumber("ORD-UPDATED-2").getStatus()).isEqualTo(OrderStatus.PAYMENT_PENDING);
+        assertThat(orderService.getOrderById(900_004L).getStatus()).isEqualTo(OrderStatus.PAYMENT_PENDING);
+    }
+
+    @Test
+    void testSaturatedReplica_FallsBackToPrimary() throws Exception {
+        // Arrange
+        insertOrder(readWriteRoutingDataSource.getPrimary(), 900_002L, "ORD-PRIMARY-1", "CUST-FALLBACK");
+        double fallbacks = meterRegistry.counter("order.datasource.replica.fallback", "reason", "saturated").count();
+
+        // Act
+        OrderResponse found;
+        try (Connection first = readWriteRoutingDataSource.getReplica().getConnection();
+             Connection second = readWriteRoutingDataSource.getReplica().getConnection()) {
+            found = orderService.getOrderById(900_002L);
+        }
+
+        // Assert
+        assertThat(found.getOrderNumber()).isEqualTo("ORD-PRIMARY-1");
+        assertThat(meterRegistry.counter("order.datasource.replica.fallback", "reason", "saturated").count())
+                .isEqualTo(fallbacks + 1);
+    }
+
+    private long queryCount(String pool) {
+        return meterRegistry.timer("order.datasource.query", "pool", pool).count();
+    }
+
+    private int countOrders(DataSource dataSource, Long orderId) {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM orders WHERE id = ?", Integer.class, orderId);
+    }
+
+    private void insertOrder(DataSource dataSource, long id, String orderNumber, String customerId) {
+        LocalDateTime now = LocalDateTime.now();
+        new JdbcTemplate(dataSource).update("INSERT INTO orders (id, order_number, customer_id, customer_name, "
+                        + "delivery_address, total_amount, status, created_at, updated_at, version) "
+                        + "VALUES (?, ?, ?, 'Replica Customer', '2 Lag Lane, Follower Town', 5.00, 'CREATED', ?, ?, 0)",
+                id, orderNumber, customerId, now, now);
+    }
+}
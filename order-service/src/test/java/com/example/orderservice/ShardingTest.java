@@ -0,0 +1,162 @@
+package com.example.orderservice;
+
+import com.example.orderservice.config.ShardRoutingDataSource;
+import com.example.orderservice.dto.OrderRequest;
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.model.Money;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.service.OrderService;
+import com.example.orderservice.service.ShardRouter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.example.orderservice.TestOrders.request;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "order.sharding.enabled=true",
+        "order.sharding.initialize-schema=true",
+        "order.sharding.shards[0].name=shard-a",
+        "order.sharding.shards[0].url=jdbc:h2:mem:orders-shard-a",
+        "order.sharding.shards[0].username=sa",
+        "order.sharding.shards[1].name=shard-b",
+        "order.sharding.shards[1].url=jdbc:h2:mem:orders-shard-b",
+        "order.sharding.shards[1].username=sa",
+        "order.sharding.shards[2].name=shard-c",
+        "order.sharding.shards[2].url=jdbc:h2:mem:orders-shard-c",
+        "order.sharding.shards[2].username=sa"
+})
+@ActiveProfiles("test")
+class ShardingTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardRoutingDataSource shardRoutingDataSource;
+
+    @Test
+    void testCreateOrder_StoresEachOrderOnItsCustomersShard() {
+        // Arrange
+        List<OrderResponse> created = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 30; i++) {
+            created.add(orderService.createOrderAsync(request("CUST-SHARD-" + i)).join());
+        }
+
+        // Assert
+        Set<Integer> used = new HashSet<>();
+        for (OrderResponse order : created) {
+            int shard = shardRouter.shardForCustomer(order.getCustomerId());
+            used.add(shard);
+            assertThat(shardRouter.shardOfOrderId(order.getId())).isEqualTo(shard);
+            assertThat(order.getOrderNumber()).startsWith("ORD-S" + shard + "-");
+            assertThat(countOrders(shard, order.getId())).isEqualTo(1);
+            assertThat(countOutboxEvents(shard, order.getId())).isEqualTo(1);
+        }
+        assertThat(used).hasSize(3);
+    }
+
+    @Test
+    void testReads_AreRoutedByIdNumberAndCustomer() {
+        // Arrange
+        OrderResponse first = orderService.createOrderAsync(request("CUST-READ")).join();
+        OrderResponse second = orderService.createOrderAsync(request("CUST-READ")).join();
+
+        // Act
+        OrderResponse byId = orderService.getOrderById(first.getId());
+        OrderResponse byNumber = orderService.getOrderByNumber(second.getOrderNumber());
+        List<OrderResponse> history = orderService.getOrdersByCustomerId("CUST-READ");
+
+        // Assert
+        assertThat(byId.getOrderNumber()).isEqualTo(first.getOrderNumber());
+        assertThat(byId.getItems()).hasSize(1);
+        assertThat(byNumber.getId()).isEqualTo(second.getId());
+        assertThat(history).extracting(OrderResponse::getId).containsExactlyInAnyOrder(first.getId(), second.getId());
+    }
+
+    @Test
+    void testUpdateOrderStatus_RunsOnTheOrdersShard() {
+        // Arrange
+        OrderResponse order = orderService.createOrderAsync(request("CUST-UPDATE")).join();
+
+        // Act
+        orderService.updateOrderStatus(order.getId(), OrderStatus.PAYMENT_PENDING);
+
+        // Assert
+        assertThat(orderService.getOrderById(order.getId()).getStatus()).isEqualTo(OrderStatus.PAYMENT_PENDING);
+    }
+
+    @Test
+    void testGetOrderByNumber_SearchesEveryShardForNumbersWithoutShard() {
+        // Arrange
+        Long id = shardRouter.callOn(2, () -> orderRepository.save(legacyOrder("ORD-LEGACY-1")).getId());
+
+        // Act
+        OrderResponse found = orderService.getOrderByNumber("ORD-LEGACY-1");
+
+        // Assert
+        assertThat(found.getId()).isEqualTo(id);
+    }
+
+    @Test
+    void testCreateOrders_RejectsCustomersFromDifferentShards() {
+        // Arrange
+        String other = "CUST-MIX-0";
+        for (int i = 1; shardRouter.shardForCustomer(other) == shardRouter.shardForCustomer("CUST-MIX"); i++) {
+            other = "CUST-MIX-" + i;
+        }
+        List<OrderRequest> requests = List.of(request("CUST-MIX"), request(other));
+
+        // Act & Assert
+        assertThatThrownBy(() -> orderService.createOrders(requests))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private int countOrders(int shard, Long orderId) {
+        return new JdbcTemplate(shardRoutingDataSource.getShard(shard))
+                .queryForObject("SELECT COUNT(*) FROM orders WHERE id = ?", Integer.class, orderId);
+    }
+
+    private int countOutboxEvents(int shard, Long orderId) {
+        return new JdbcTemplate(shardRoutingDataSource.getShard(shard))
+                .queryForObject("SELECT COUNT(*) FROM order_outbox WHERE order_id = ?", Integer.class, orderId);
+    }
+
+    private Order legacyOrder(String orderNumber) {
+        Order order = new Order();
+        order.setOrderNumber(orderNumber);
+        order.setCustomerId("CUST-LEGACY");
+        order.setCustomerName("Legacy Customer");
+        order.setDeliveryAddress("1 Old Road, Before Town");
+        order.setStatus(OrderStatus.CREATED);
+        OrderItem item = new OrderItem();
+        item.setProductId("PROD-1");
+        item.setProductName("Widget");
+        item.setQuantity(1);
+        item.setUnitPrice(Money.of(new BigDecimal("5.00")));
+        order.addItem(item);
+        order.calculateTotalAmount();
+        return order;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.orderservice;
+
+import com.example.orderservice.exception.InsufficientStockException;
+import com.example.orderservice.service.StockCounters;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StockCountersTest {
+
+    private final StockCounters counters = new StockCounters(productId ->
+            productId.startsWith("HOT") ? new StockCounters.Stock(50, 50) : null);
+
+    @Test
+    void testReserveAll_ConcurrentReservationsNeverOversell() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        try {
+            for (int i = 0; i < 200; i++) {
+                attempts.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        counters.reserveAll(Map.of("HOT-1", 1L));
+                        return true;
+                    } catch (InsufficientStockException e) {
+                        return false;
+                    }
+                }));
+            }
+
+            // Act
+            start.countDown();
+            int reserved = 0;
+            for (Future<Boolean> attempt : attempts) {
+                reserved += attempt.get() ? 1 : 0;
+            }
+
+            // Assert
+            assertThat(reserved).isEqualTo(50);
+            assertThat(counters.get("HOT-1").available()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testReserveAll_ShortProductUndoesEarlierProducts() {
+        // Arrange
+        Map<String, Long> quantities = new LinkedHashMap<>();
+        quantities.put("HOT-A", 10L);
+        quantities.put("COLD-1", 1000L);
+        quantities.put("HOT-B", 60L);
+
+        // Act & Assert
+        assertThatThrownBy(() -> counters.reserveAll(quantities))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessageContaining("HOT-B");
+        assertThat(counters.get("HOT-A").available()).isEqualTo(50);
+        assertThat(counters.get("COLD-1")).isNull();
+    }
+
+    @Test
+    void testReserveAll_ReturnsOnlyTrackedProducts() {
+        // Act
+        Map<String, Long> reserved = counters.reserveAll(Map.of("HOT-A", 5L, "COLD-1", 7L));
+
+        // Assert
+        assertThat(reserved).containsExactly(Map.entry("HOT-A", 5L));
+        assertThat(counters.get("HOT-A").reserved()).isEqualTo(5);
+    }
+
+    @Test
+    void testReconcile_KeepsPendingUnitsAndTakesOthersCommits() {
+        // Arrange
+        Map<String, Long> pending = counters.reserveAll(Map.of("HOT-A", 5L));
+        counters.confirmAll(counters.reserveAll(Map.of("HOT-A", 2L)));
+
+        // Act: the database holds this instance's 2 committed units and 10 committed elsewhere
+        int corrected = counters.reconcile(productIds -> Map.of("HOT-A", new StockCounters.Stock(50, 38)));
+
+        // Assert
+        assertThat(corrected).isEqualTo(1);
+        assertThat(counters.get("HOT-A").available()).isEqualTo(33);
+        counters.cancelAll(pending);
+        assertThat(counters.get("HOT-A").available()).isEqualTo(38);
+    }
+
+    @Test
+    void testBlockLoads_LoadWaitsUntilUnblocked() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            counters.blockLoads();
+            Future<StockCounters.Stock> load;
+            try {
+                // Act
+                load = executor.submit(() -> counters.get("HOT-A"));
+
+                // Assert
+                assertThatThrownBy(() -> load.get(200, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+            } finally {
+                counters.unblockLoads();
+            }
+            assertThat(load.get(5, TimeUnit.SECONDS).available()).isEqualTo(50);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.orderservice;
+
+import com.example.orderservice.dto.OrderItemRequest;
+import com.example.orderservice.dto.OrderRequest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Valid order requests for tests that only care about the customer and the items
+final class TestOrders {
+
+    private TestOrders() {
+    }
+
+    // With no items the order is a single widget at 5.00
+    static OrderRequest request(String customerId, OrderItemRequest... items) {
+        OrderRequest request = new OrderRequest();
+        request.setCustomerId(customerId);
+        request.setCustomerName("Test Customer");
+        request.setCustomerEmail("customer@example.com");
+        request.setDeliveryAddress("1 Fixture Street, Test Town");
+        request.setItems(items.length == 0 ? List.of(item("PROD-1", 1, "5.00")) : List.of(items));
+        return request;
+    }
+
+    static OrderItemRequest item(String productId, int quantity, String unitPrice) {
+        return new OrderItemRequest(productId, "Item " + productId, quantity, new BigDecimal(unitPrice));
+    }
+
+    // PROD-0 .. PROD-(count-1), one of each at 3.25
+    static OrderItemRequest[] items(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> item("PROD-" + i, 1, "3.25"))
+                .toArray(OrderItemRequest[]::new);
+    }
+}
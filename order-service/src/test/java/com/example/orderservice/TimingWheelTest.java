@@ -0,0 +1,69 @@
+package com.example.orderservice;
+
+import com.example.orderservice.service.TimingWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    @Test
+    void testAdvance_ExpiresInDeadlineOrderAcrossLevels() {
+        // Arrange
+        TimingWheel wheel = new TimingWheel(10, 0);
+        wheel.schedule(3, 5_000_000);
+        wheel.schedule(1, 35);
+        wheel.schedule(2, 700);
+        List<Long> expired = new ArrayList<>();
+
+        // Act
+        wheel.advance(30, expired::add);
+        List<Long> early = List.copyOf(expired);
+        wheel.advance(4_999_990, expired::add);
+        List<Long> beforeLast = List.copyOf(expired);
+        wheel.advance(5_000_000, expired::add);
+
+        // Assert
+        assertThat(early).isEmpty();
+        assertThat(beforeLast).containsExactly(1L, 2L);
+        assertThat(expired).containsExactly(1L, 2L, 3L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void testCancel_RemovesTimerAndScheduleKeepsFirstDeadline() {
+        // Arrange
+        TimingWheel wheel = new TimingWheel(10, 1_000);
+        wheel.schedule(1, 1_100);
+        wheel.schedule(2, 1_100);
+
+        // Act
+        boolean cancelled = wheel.cancel(1);
+        boolean rescheduled = wheel.schedule(2, 9_000);
+        List<Long> expired = new ArrayList<>();
+        wheel.advance(1_100, expired::add);
+
+        // Assert
+        assertThat(cancelled).isTrue();
+        assertThat(rescheduled).isFalse();
+        assertThat(expired).containsExactly(2L);
+        assertThat(wheel.cancel(2)).isFalse();
+    }
+
+    @Test
+    void testSchedule_PastDeadlineExpiresOnNextTick() {
+        // Arrange
+        TimingWheel wheel = new TimingWheel(1_000, 60_000);
+        wheel.schedule(7, 0);
+        List<Long> expired = new ArrayList<>();
+
+        // Act
+        wheel.advance(61_000, expired::add);
+
+        // Assert
+        assertThat(expired).containsExactly(7L);
+    }
+}
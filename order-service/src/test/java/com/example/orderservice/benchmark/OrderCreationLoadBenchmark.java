@@ -0,0 +1,144 @@
+package com.example.orderservice.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load test for {@code POST /api/orders}: N clients each send an order, wait for
+ * the response and send the next. Reports orders/sec and p50/p99 latency per concurrency level,
+ * so the level where throughput stops growing is the max sustained rate for the current mode.
+ *
+ * <p>Platform threads: {@code mvn test -Pbenchmark -Dtest=OrderCreationLoadBenchmark}
+ * <p>Virtual threads (Java 21): {@code mvn test -Pbenchmark,virtual-threads -Dtest=OrderCreationLoadBenchmark
+ * -Dspring.threads.virtual.enabled=true}
+ * <p>Add the {@code docker} profile options from {@link OrderInsertBenchmark} to run against Postgres,
+ * where JDBC calls block long enough for the thread model to matter.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "order.outbox.relay.enabled=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=warn",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=warn",
+        "logging.level.com.example.orderservice=warn",
+        "logging.level.com.example.orderservice.benchmark=info"
+})
+@Slf4j
+class OrderCreationLoadBenchmark {
+
+    private static final int[] CONCURRENCY_LEVELS = {8, 32, 128, 256};
+    private static final long WARMUP_NANOS = 2_000_000_000L;
+    private static final long MEASURE_NANOS = 5_000_000_000L;
+
+    private static final String ORDER_JSON = """
+            {"customerId":"CUST-LOAD","customerName":"Load Test","customerEmail":"load@example.com",
+             "customerPhone":"+15550000000","deliveryAddress":"1 Load Test Street, Bench City",
+             "items":[{"productId":"PROD-1","productName":"Widget","quantity":2,"unitPrice":9.99}]}
+            """;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private Environment environment;
+
+    @Test
+    void createOrderLoad() throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/orders"))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(ORDER_JSON))
+                .build();
+        String mode = Threading.VIRTUAL.isActive(environment) ? "virtual" : "platform";
+
+        run(client, request, CONCURRENCY_LEVELS[0], WARMUP_NANOS);
+        for (int concurrency : CONCURRENCY_LEVELS) {
+            Result result = run(client, request, concurrency, MEASURE_NANOS);
+            long[] latencies = result.latencies();
+            log.info("mode={} clients={} orders/sec={} p50={}ms p99={}ms errors={}",
+                    mode, concurrency,
+                    String.format("%.0f", latencies.length / (MEASURE_NANOS / 1_000_000_000.0)),
+                    String.format("%.2f", percentile(latencies, 0.50) / 1_000_000.0),
+                    String.format("%.2f", percentile(latencies, 0.99) / 1_000_000.0),
+                    result.errors());
+        }
+    }
+
+    private Result run(HttpClient client, HttpRequest request, int concurrency, long durationNanos) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + durationNanos;
+        try {
+            List<Future<long[]>> futures = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(clients.submit(() -> {
+                    long[] samples = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        long latency = System.nanoTime() - start;
+                        if (response.statusCode() != 201) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, count * 2);
+                        }
+                        samples[count++] = latency;
+                    }
+                    return Arrays.copyOf(samples, count);
+                }));
+            }
+            List<long[]> perClient = new ArrayList<>(concurrency);
+            int total = 0;
+            for (Future<long[]> future : futures) {
+                long[] samples = future.get();
+                perClient.add(samples);
+                total += samples.length;
+            }
+            long[] latencies = new long[total];
+            int offset = 0;
+            for (long[] samples : perClient) {
+                System.arraycopy(samples, 0, latencies, offset, samples.length);
+                offset += samples.length;
+            }
+            Arrays.sort(latencies);
+            return new Result(latencies, errors.get());
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private record Result(long[] latencies, long errors) {}
+}
@@ -0,0 +1,99 @@
+package com.example.orderservice.benchmark;
+
+import com.example.orderservice.model.Money;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.repository.OrderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Measures order inserts/sec for 1, 10 and 50-item orders, one transaction per order.
+ *
+ * <p>H2: {@code mvn test -Pbenchmark -Dtest=OrderInsertBenchmark}
+ * <p>Postgres: {@code mvn test -Pbenchmark -Dtest=OrderInsertBenchmark -Dspring.profiles.active=docker
+ * -Dspring.datasource.url=jdbc:postgresql://localhost:5432/delivery_db?reWriteBatchedInserts=true}
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "order.outbox.relay.enabled=false",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.SQL=warn",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=warn"
+})
+@Slf4j
+class OrderInsertBenchmark {
+
+    private static final int WARMUP_ORDERS = 200;
+    private static final long MEASURE_NANOS = 3_000_000_000L;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void insertThroughput() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (int itemCount : new int[]{1, 10, 50}) {
+            for (int i = 0; i < WARMUP_ORDERS; i++) {
+                insertOrder(itemCount);
+            }
+
+            statistics.clear();
+            long orders = 0;
+            long start = System.nanoTime();
+            long elapsed;
+            do {
+                insertOrder(itemCount);
+                orders++;
+                elapsed = System.nanoTime() - start;
+            } while (elapsed < MEASURE_NANOS);
+
+            double seconds = elapsed / 1_000_000_000.0;
+            log.info("items/order={} orders/sec={} rows/sec={} statements/order={}",
+                    itemCount,
+                    String.format("%.0f", orders / seconds),
+                    String.format("%.0f", orders * (itemCount + 1) / seconds),
+                    String.format("%.2f", (double) statistics.getPrepareStatementCount() / orders));
+        }
+    }
+
+    private void insertOrder(int itemCount) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Order order = new Order();
+            order.setOrderNumber("BENCH-" + UUID.randomUUID());
+            order.setCustomerId("CUST-BENCH");
+            order.setCustomerName("Benchmark Customer");
+            order.setDeliveryAddress("1 Benchmark Street, Test City");
+            order.setStatus(OrderStatus.CREATED);
+            for (int i = 0; i < itemCount; i++) {
+                OrderItem item = new OrderItem();
+                item.setProductId("PROD-" + i);
+                item.setProductName("Product " + i);
+                item.setQuantity(1);
+                item.setUnitPrice(Money.of(new BigDecimal("9.99")));
+                order.addItem(item);
+            }
+            order.calculateTotalAmount();
+            orderRepository.save(order);
+        });
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.orderservice.benchmark;
+
+import com.example.orderservice.dto.OrderItemResponse;
+import com.example.orderservice.dto.OrderUpdatedEvent;
+import com.example.orderservice.model.Money;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.service.OrderAmendmentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the {@code order.updated} payload for an amendment that changes the quantity of
+ * one item, sent as the {@code ORDER_UPDATED} delta {@link OrderAmendmentService} writes or as a full
+ * {@code ORDER_SNAPSHOT}, for baskets of different sizes. The JSON bytes of each are printed once
+ * per trial; the score is the time to serialize one event.
+ *
+ * <p>{@code mvn test -Pbenchmark -Dtest=OrderUpdateEventBenchmark}
+ */
+@Tag("benchmark")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderUpdateEventBenchmark {
+
+    @Param({"10", "100", "500"})
+    public int items;
+
+    @Param({"delta", "snapshot"})
+    public String event;
+
+    private ObjectMapper mapper;
+    private OrderUpdatedEvent payload;
+
+    @Test
+    void encodeUpdate() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(OrderUpdateEventBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        List<OrderItemResponse> basket = new ArrayList<>(items);
+        for (int line = 0; line < items; line++) {
+            Money unitPrice = Money.ofMinor(199 + 35L * line);
+            basket.add(OrderItemResponse.builder()
+                    .id(500_000L + line)
+                    .productId("PROD-" + (1000 + line))
+                    .productName("Product " + line)
+                    .quantity(line % 3 + 1)
+                    .unitPrice(unitPrice)
+                    .totalPrice(unitPrice.times(line % 3 + 1))
+                    .build());
+        }
+        OrderItemResponse changed = basket.get(items / 2);
+        changed.setQuantity(changed.getQuantity() + 1);
+        changed.setTotalPrice(changed.getUnitPrice().times(changed.getQuantity()));
+        Money total = Money.ofMinor(basket.stream().mapToLong(item -> item.getTotalPrice().minorUnits()).sum());
+
+        OrderUpdatedEvent.OrderUpdatedEventBuilder builder = OrderUpdatedEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .orderId(100_000L)
+                .orderNumber("ORD-S0-1760000000000-1A2B3C4D")
+                .version(7L)
+                .revision(5)
+                .timestamp(LocalDateTime.now())
+                .totalAmount(total);
+        payload = switch (event) {
+            case "delta" -> builder
+                    .eventType(OrderAmendmentService.ORDER_UPDATED)
+                    .changedItems(List.of(new OrderUpdatedEvent.ItemQuantityChange(changed.getId(),
+                            changed.getQuantity(), changed.getTotalPrice())))
+                    .build();
+            case "snapshot" -> builder
+                    .eventType(OrderAmendmentService.ORDER_SNAPSHOT)
+                    .customerId("CUST-42")
+                    .customerName("Customer 42")
+                    .customerEmail("customer42@example.com")
+                    .deliveryAddress("42 Long Delivery Street, Apartment 4B, Some City")
+                    .status(OrderStatus.CREATED)
+                    .items(basket)
+                    .build();
+            default -> throw new IllegalArgumentException(event);
+        };
+        System.out.printf("%n%s, %d items: %d bytes%n", event, items, mapper.writeValueAsBytes(payload).length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(payload);
+    }
+}
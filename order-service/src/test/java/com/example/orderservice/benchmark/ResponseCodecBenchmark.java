@@ -0,0 +1,138 @@
+package com.example.orderservice.benchmark;
+
+import com.example.orderservice.config.BinaryCodecConfig;
+import com.example.orderservice.dto.OrderItemResponse;
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.model.Money;
+import com.example.orderservice.model.OrderStatus;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * JMH benchmark of encoding an order list response in each format {@code OrderController} can
+ * negotiate. The mappers are built the way {@link BinaryCodecConfig} builds them, with JSON set up
+ * like Spring Boot's default mapper. Bytes on the wire, raw and gzipped, are printed once per
+ * trial; the score is the time to serialize one response.
+ *
+ * <p>{@code mvn test -Pbenchmark -Dtest=ResponseCodecBenchmark}
+ */
+@Tag("benchmark")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseCodecBenchmark {
+
+    @Param({"1", "100"})
+    public int orders;
+
+    @Param({"json", "cbor", "smile", "msgpack"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private List<OrderResponse> payload;
+
+    @Test
+    void encodeResponse() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(ResponseCodecBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        mapper = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json()
+                    .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .build();
+            case "cbor" -> binaryMapper(new CBORFactory());
+            case "smile" -> binaryMapper(new SmileFactory());
+            case "msgpack" -> binaryMapper(new MessagePackFactory());
+            default -> throw new IllegalArgumentException(format);
+        };
+        payload = new ArrayList<>(orders);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < orders; i++) {
+            payload.add(order(i, now.minusMinutes(i)));
+        }
+        byte[] encoded = mapper.writeValueAsBytes(payload);
+        System.out.printf("%n%s, %d orders: %d bytes, %d gzipped%n", format, orders, encoded.length, gzippedSize(encoded));
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(payload);
+    }
+
+    private static ObjectMapper binaryMapper(JsonFactory factory) {
+        return BinaryCodecConfig.binaryMapper(Jackson2ObjectMapperBuilder.json(), factory);
+    }
+
+    private static OrderResponse order(int i, LocalDateTime createdAt) {
+        List<OrderItemResponse> items = new ArrayList<>();
+        for (int line = 0; line < 3; line++) {
+            Money unitPrice = Money.ofMinor(199 + 350L * line + i);
+            int quantity = line + 1;
+            items.add(OrderItemResponse.builder()
+                    .id(3L * i + line)
+                    .productId("PROD-" + (1000 + line))
+                    .productName("Product " + line)
+                    .quantity(quantity)
+                    .unitPrice(unitPrice)
+                    .totalPrice(unitPrice.times(quantity))
+                    .build());
+        }
+        return OrderResponse.builder()
+                .id(100_000L + i)
+                .orderNumber("ORD-" + createdAt.getNano() + "-" + Integer.toHexString(0x10000000 + i).toUpperCase())
+                .customerId("CUST-" + (i % 17))
+                .customerName("Customer " + (i % 17))
+                .deliveryAddress(i + " Long Delivery Street, Apartment 4B, Some City")
+                .totalAmount(Money.ofMinor(items.stream().mapToLong(item -> item.getTotalPrice().minorUnits()).sum()))
+                .status(OrderStatus.PAYMENT_COMPLETED)
+                .createdAt(createdAt)
+                .updatedAt(createdAt.plusSeconds(42))
+                .items(items)
+                .build();
+    }
+
+    private static int gzippedSize(byte[] encoded) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(encoded);
+        }
+        return out.size();
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.orderservice.benchmark;
+
+import com.example.orderservice.service.StockCounters;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of reserve-then-release pairs from 8 threads, with every order on 1 hot SKU
+ * versus orders spread uniformly over 10k SKUs. {@code cas} is {@link StockCounters}.
+ * {@code lock} is the same map of counters guarded by a per-product monitor, a stand-in for
+ * queueing on the product's stock row. Compare ops/us across the two SKU counts to see what
+ * contention costs; the gap only shows on a machine with at least as many cores as threads.
+ *
+ * <p>{@code mvn test -Pbenchmark -Dtest=StockReservationBenchmark}
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class StockReservationBenchmark {
+
+    private static final long STOCK = Long.MAX_VALUE / 4;
+
+    @Param({"1", "10000"})
+    public int skus;
+
+    @Param({"cas", "lock"})
+    public String strategy;
+
+    private String[] productIds;
+    private StockCounters counters;
+    private LockedCounters lockedCounters;
+
+    @Test
+    void reservationThroughput() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(StockReservationBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        productIds = new String[skus];
+        lockedCounters = new LockedCounters();
+        for (int i = 0; i < skus; i++) {
+            productIds[i] = "SKU-" + i;
+            lockedCounters.stocks.put(productIds[i], new long[]{STOCK});
+        }
+        counters = new StockCounters(productId -> new StockCounters.Stock(STOCK, STOCK));
+        for (String productId : productIds) {
+            counters.get(productId);
+        }
+    }
+
+    @Benchmark
+    public Object reserveAndRelease() {
+        String productId = productIds[skus == 1 ? 0 : ThreadLocalRandom.current().nextInt(skus)];
+        Map<String, Long> quantities = Map.of(productId, 1L);
+        if (strategy.equals("cas")) {
+            Map<String, Long> reserved = counters.reserveAll(quantities);
+            counters.cancelAll(reserved);
+            return reserved;
+        }
+        Map<String, Long> reserved = lockedCounters.reserveAll(quantities);
+        lockedCounters.releaseAll(reserved);
+        return reserved;
+    }
+
+    // StockCounters' bookkeeping with a monitor per product instead of compare-and-set
+    static final class LockedCounters {
+
+        private final Map<String, long[]> stocks = new HashMap<>();
+
+        Map<String, Long> reserveAll(Map<String, Long> quantities) {
+            Map<String, Long> reserved = new LinkedHashMap<>();
+            for (Map.Entry<String, Long> entry : quantities.entrySet()) {
+                long[] stock = stocks.get(entry.getKey());
+                synchronized (stock) {
+                    if (stock[0] < entry.getValue()) {
+                        releaseAll(reserved);
+                        throw new IllegalStateException("Out of stock");
+                    }
+                    stock[0] -= entry.getValue();
+                }
+                reserved.put(entry.getKey(), entry.getValue());
+            }
+            return reserved;
+        }
+
+        void releaseAll(Map<String, Long> quantities) {
+            quantities.forEach((productId, quantity) -> {
+                long[] stock = stocks.get(productId);
+                synchronized (stock) {
+                    stock[0] += quantity;
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.orderservice.benchmark;
+
+import com.example.orderservice.service.TimingWheel;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of {@link TimingWheel} schedule and cancel with {@code pending} timers already in
+ * the wheel, deadlines spread over 30 minutes at a 1s tick. Before the JMH run the test also logs
+ * the retained heap per timer for a wheel of one million, measured after a full GC.
+ *
+ * <p>{@code mvn test -Pbenchmark -Dtest=TimingWheelBenchmark}
+ */
+@Tag("benchmark")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Slf4j
+public class TimingWheelBenchmark {
+
+    private static final long TICK_MILLIS = 1_000;
+    private static final long SPREAD_MILLIS = TimeUnit.MINUTES.toMillis(30);
+    private static final int MEMORY_TIMERS = 1_000_000;
+
+    @Param({"1000", "1000000"})
+    public int pending;
+
+    private TimingWheel wheel;
+    private long nextId;
+
+    @Test
+    void insertAndCancel() throws Exception {
+        logRetainedBytesPerTimer();
+        new Runner(new OptionsBuilder()
+                .include(TimingWheelBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        wheel = new TimingWheel(TICK_MILLIS, 0);
+        fill(wheel, pending);
+        nextId = pending;
+    }
+
+    // One new deadline in, the oldest id out, so the wheel stays at its size
+    @Benchmark
+    public boolean scheduleAndCancel() {
+        long id = nextId++;
+        wheel.schedule(id, ThreadLocalRandom.current().nextLong(SPREAD_MILLIS));
+        return wheel.cancel(id - pending);
+    }
+
+    private static void fill(TimingWheel wheel, int timers) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (long id = 0; id < timers; id++) {
+            wheel.schedule(id, random.nextLong(SPREAD_MILLIS));
+        }
+    }
+
+    private static void logRetainedBytesPerTimer() {
+        long before = usedAfterGc();
+        TimingWheel wheel = new TimingWheel(TICK_MILLIS, 0);
+        fill(wheel, MEMORY_TIMERS);
+        long after = usedAfterGc();
+        log.info("timers={} retained bytes/timer={}", wheel.size(), (after - before) / MEMORY_TIMERS);
+    }
+
+    private static long usedAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
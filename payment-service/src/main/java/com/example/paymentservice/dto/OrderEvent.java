@@ -1,12 +1,12 @@
 package com.example.paymentservice.dto;
 
+import com.example.paymentservice.model.Money;
 import com.example.paymentservice.model.PaymentStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
@@ -21,7 +21,7 @@ public class OrderEvent {
     private String customerId;
     private String customerName;
     private String customerEmail;
-    private BigDecimal totalAmount;
+    private Money totalAmount;
     private String status;
     private LocalDateTime timestamp;
 }
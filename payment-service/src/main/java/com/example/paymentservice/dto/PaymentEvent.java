@@ -1,11 +1,11 @@
 package com.example.paymentservice.dto;
 
+import com.example.paymentservice.model.Money;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
@@ -20,7 +20,7 @@ public class PaymentEvent {
     private Long orderId;
     private String orderNumber;
     private String customerId;
-    private BigDecimal amount;
+    private Money amount;
     private com.example.paymentservice.model.PaymentStatus status;
     private String transactionId;
     private String failureReason;
@@ -1,13 +1,12 @@
 package com.example.paymentservice.dto;
 
+import com.example.paymentservice.model.Money;
 import com.example.paymentservice.model.PaymentMethod;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
-
 @Data
 @Builder
 @NoArgsConstructor
@@ -16,7 +15,7 @@ public class PaymentRequest {
     private Long orderId;
     private String orderNumber;
     private String customerId;
-    private BigDecimal amount;
+    private Money amount;
     private PaymentMethod paymentMethod;
     private String cardNumber;
     private String cardHolderName;
@@ -1,6 +1,7 @@
 package com.example.paymentservice;
 
 import com.example.paymentservice.dto.PaymentEvent;
+import com.example.paymentservice.model.Money;
 import com.example.paymentservice.model.PaymentStatus;
 import com.example.paymentservice.service.KafkaProducerService;
 import org.junit.jupiter.api.BeforeEach;
@@ -39,7 +40,7 @@ class KafkaProducerServiceTest {
                 .orderId(1L)
                 .orderNumber("ORD-123")
                 .customerId("CUST-001")
-                .amount(new BigDecimal("99.99"))
+                .amount(Money.of(new BigDecimal("99.99")))
                 .status(PaymentStatus.COMPLETED)
                 .transactionId("TXN-123")
                 .timestamp(LocalDateTime.now())
@@ -1,6 +1,7 @@
 package com.example.paymentservice;
 
 import com.example.paymentservice.dto.OrderEvent;
+import com.example.paymentservice.model.Money;
 import com.example.paymentservice.model.Payment;
 import com.example.paymentservice.model.PaymentStatus;
 import com.example.paymentservice.repository.PaymentRepository;
@@ -46,7 +47,7 @@ class PaymentIntegrationTest {
                 .customerId("CUST-001")
                 .customerName("John Doe")
                 .customerEmail("john@example.com")
-                .totalAmount(new BigDecimal("99.99"))
+                .totalAmount(Money.of(new BigDecimal("99.99")))
                 .status("CREATED")
                 .timestamp(LocalDateTime.now())
                 .build();
@@ -68,7 +69,7 @@ class PaymentIntegrationTest {
         Payment payment = payments.get();
         assertThat(payment.getOrderNumber()).isEqualTo("ORD-123");
         assertThat(payment.getCustomerId()).isEqualTo("CUST-001");
-        assertThat(payment.getAmount()).isEqualByComparingTo(new BigDecimal("99.99"));
+        assertThat(payment.getAmount()).isEqualTo(Money.of(new BigDecimal("99.99")));
 
         // Status should be either COMPLETED or FAILED (due to random simulation)
         assertThat(payment.getStatus())
@@ -83,7 +84,7 @@ class PaymentIntegrationTest {
         payment.setOrderId(1L);
         payment.setOrderNumber("ORD-123");
         payment.setCustomerId("CUST-001");
-        payment.setAmount(new BigDecimal("99.99"));
+        payment.setAmount(Money.of(new BigDecimal("99.99")));
         payment.setStatus(PaymentStatus.PENDING);
         Payment savedPayment = paymentRepository.save(payment);
 
@@ -110,7 +111,7 @@ class PaymentIntegrationTest {
         payment.setOrderId(2L);
         payment.setOrderNumber("ORD-456");
         payment.setCustomerId("CUST-002");
-        payment.setAmount(new BigDecimal("49.99"));
+        payment.setAmount(Money.of(new BigDecimal("49.99")));
         payment.setStatus(PaymentStatus.FAILED);
         payment.setRetryCount(0);
         payment.setMaxRetries(3);
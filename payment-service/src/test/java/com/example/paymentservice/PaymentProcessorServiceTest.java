@@ -3,6 +3,7 @@ package com.example.paymentservice;
 
 
 
+import com.example.paymentservice.model.Money;
 import com.example.paymentservice.model.Payment;
 import com.example.paymentservice.model.PaymentMethod;
 import com.example.paymentservice.model.PaymentStatus;
@@ -44,7 +45,7 @@ class PaymentProcessorServiceTest {
         payment.setOrderId(1L);
         payment.setOrderNumber("ORD-123");
         payment.setCustomerId("CUST-001");
-        payment.setAmount(new BigDecimal("99.99"));
+        payment.setAmount(Money.of(new BigDecimal("99.99")));
         payment.setPaymentMethod(PaymentMethod.CREDIT_CARD);
         payment.setStatus(PaymentStatus.PENDING);
     }
@@ -1,5 +1,6 @@
 package com.example.paymentservice;
 
+import com.example.paymentservice.model.Money;
 import com.example.paymentservice.model.Payment;
 import com.example.paymentservice.model.PaymentMethod;
 import com.example.paymentservice.model.PaymentStatus;
@@ -35,7 +36,7 @@ class PaymentRepositoryTest {
         payment.setOrderId(1L);
         payment.setOrderNumber("ORD-123");
         payment.setCustomerId("CUST-001");
-        payment.setAmount(new BigDecimal("99.99"));
+        payment.setAmount(Money.of(new BigDecimal("99.99")));
         payment.setPaymentMethod(PaymentMethod.CREDIT_CARD);
         payment.setStatus(PaymentStatus.PENDING);
         payment.setRetryCount(0);
@@ -89,7 +90,7 @@ class PaymentRepositoryTest {
         payment2.setOrderId(2L);
         payment2.setOrderNumber("ORD-456");
         payment2.setCustomerId("CUST-001");
-        payment2.setAmount(new BigDecimal("49.99"));
+        payment2.setAmount(Money.of(new BigDecimal("49.99")));
         payment2.setPaymentMethod(PaymentMethod.CREDIT_CARD);
         payment2.setStatus(PaymentStatus.COMPLETED);
         paymentRepository.save(payment2);
@@ -111,7 +112,7 @@ class PaymentRepositoryTest {
         completedPayment.setOrderId(2L);
         completedPayment.setOrderNumber("ORD-456");
         completedPayment.setCustomerId("CUST-002");
-        completedPayment.setAmount(new BigDecimal("49.99"));
+        completedPayment.setAmount(Money.of(new BigDecimal("49.99")));
         completedPayment.setPaymentMethod(PaymentMethod.CREDIT_CARD);
         completedPayment.setStatus(PaymentStatus.COMPLETED);
         paymentRepository.save(completedPayment);
@@ -2,6 +2,7 @@ package com.example.paymentservice;
 
 
 import com.example.paymentservice.dto.OrderEvent;
+import com.example.paymentservice.model.Money;
 import com.example.paymentservice.model.Payment;
 import com.example.paymentservice.model.PaymentStatus;
 import com.example.paymentservice.repository.PaymentRepository;
@@ -49,7 +50,7 @@ class PaymentServiceTest {
                 .customerId("CUST-001")
                 .customerName("John Doe")
                 .customerEmail("john@example.com")
-                .totalAmount(new BigDecimal("99.99"))
+                .totalAmount(Money.of(new BigDecimal("99.99")))
                 .status("CREATED")
                 .timestamp(LocalDateTime.now())
                 .build();
@@ -60,7 +61,7 @@ class PaymentServiceTest {
         payment.setOrderId(1L);
         payment.setOrderNumber("ORD-123");
         payment.setCustomerId("CUST-001");
-        payment.setAmount(new BigDecimal("99.99"));
+        payment.setAmount(Money.of(new BigDecimal("99.99")));
         payment.setStatus(PaymentStatus.PENDING);
         payment.setRetryCount(0);
         payment.setMaxRetries(3);
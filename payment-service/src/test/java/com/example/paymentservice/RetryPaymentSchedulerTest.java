@@ -1,5 +1,6 @@
 package com.example.paymentservice;
 
+import com.example.paymentservice.model.Money;
 import com.example.paymentservice.model.Payment;
 import com.example.paymentservice.model.PaymentStatus;
 import com.example.paymentservice.repository.PaymentRepository;
@@ -40,7 +41,7 @@ class RetryPaymentSchedulerTest {
         retryablePayment = new Payment();
         retryablePayment.setId(1L);
         retryablePayment.setPaymentNumber("PAY-123");
-        retryablePayment.setAmount(new BigDecimal("99.99"));
+        retryablePayment.setAmount(Money.of(new BigDecimal("99.99")));
         retryablePayment.setStatus(PaymentStatus.FAILED);
         retryablePayment.setRetryCount(1);
         retryablePayment.setMaxRetries(3);